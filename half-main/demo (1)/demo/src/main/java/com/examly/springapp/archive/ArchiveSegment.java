@@ -0,0 +1,144 @@
+package com.examly.springapp.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Read-only view over a memory-mapped segment file. Only the sparse index is decoded up front; blocks are
+// inflated on demand and skipped entirely when their createdAt range cannot match the query. Version 1 segments
+// hold createdAt in milliseconds and are widened to microseconds as they are read.
+final class ArchiveSegment {
+
+	private final Path path;
+	private final MappedByteBuffer buffer;
+	private final long[][] index;
+	private final long createdScale;
+	private final long minCreated;
+	private final long maxCreated;
+
+	private ArchiveSegment(Path path, MappedByteBuffer buffer, long[][] index, long createdScale) {
+		this.path = path;
+		this.buffer = buffer;
+		this.index = index;
+		this.createdScale = createdScale;
+		long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+		for (long[] entry : index) {
+			min = Math.min(min, entry[4]);
+			max = Math.max(max, entry[5]);
+		}
+		this.minCreated = min;
+		this.maxCreated = max;
+	}
+
+	static ArchiveSegment open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			int footer = (int) channel.size() - SegmentWriter.FOOTER_BYTES;
+			long indexOffset = buffer.getLong(footer);
+			int blocks = buffer.getInt(footer + 8);
+			if (buffer.getInt(0) != SegmentWriter.MAGIC || buffer.getInt(footer + 12) != SegmentWriter.MAGIC) {
+				throw new IOException("Not an archive segment: " + path);
+			}
+			long createdScale = buffer.getInt(4) == 1 ? 1_000 : 1;
+			long[][] index = new long[blocks][];
+			int pos = (int) indexOffset;
+			for (int b = 0; b < blocks; b++) {
+				long offset = buffer.getLong(pos);
+				int compressed = buffer.getInt(pos + 8);
+				int raw = buffer.getInt(pos + 12);
+				int rows = buffer.getInt(pos + 16);
+				index[b] = new long[]{offset, compressed, raw, rows,
+						buffer.getLong(pos + 20) * createdScale, buffer.getLong(pos + 28) * createdScale,
+						buffer.getLong(pos + 36), buffer.getLong(pos + 44)};
+				pos += 52;
+			}
+			return new ArchiveSegment(path, buffer, index, createdScale);
+		}
+	}
+
+	Path path() {
+		return path;
+	}
+
+	long minCreatedMicros() {
+		return minCreated;
+	}
+
+	long maxCreatedMicros() {
+		return maxCreated;
+	}
+
+	boolean overlaps(long fromMicros, long toMicros) {
+		return maxCreated >= fromMicros && minCreated < toMicros;
+	}
+
+	// Visits every row in blocks overlapping [fromMicros, toMicros) that satisfies the predicate
+	void scan(long fromMicros, long toMicros, Predicate<ArchivedRow> filter, Consumer<ArchivedRow> sink) {
+		Inflater inflater = new Inflater();
+		try {
+			for (long[] entry : index) {
+				if (entry[5] < fromMicros || entry[4] >= toMicros) {
+					continue;
+				}
+				for (ArchivedRow row : decode(inflater, entry)) {
+					if (row.createdAtMicros() >= fromMicros && row.createdAtMicros() < toMicros && filter.test(row)) {
+						sink.accept(row);
+					}
+				}
+			}
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private List<ArchivedRow> decode(Inflater inflater, long[] entry) {
+		byte[] compressed = new byte[(int) entry[1]];
+		buffer.get((int) entry[0], compressed);
+		byte[] raw = new byte[(int) entry[2]];
+		inflater.reset();
+		inflater.setInput(compressed);
+		try {
+			inflater.inflate(raw);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupt archive block in " + path, e);
+		}
+
+		int n = (int) entry[3];
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+			long[] ids = new long[n];
+			long[] created = new long[n];
+			byte[] ratings = new byte[n];
+			byte[] statuses = new byte[n];
+			long[] categories = new long[n];
+			for (int i = 0; i < n; i++) ids[i] = in.readLong();
+			for (int i = 0; i < n; i++) created[i] = in.readLong() * createdScale;
+			in.readFully(ratings);
+			in.readFully(statuses);
+			for (int i = 0; i < n; i++) categories[i] = in.readLong();
+			String[][] strings = new String[5][n];
+			for (String[] column : strings) {
+				for (int i = 0; i < n; i++) {
+					column[i] = in.readBoolean() ? in.readUTF() : null;
+				}
+			}
+			List<ArchivedRow> rows = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				rows.add(new ArchivedRow(ids[i], created[i], ratings[i], statuses[i], categories[i],
+						strings[0][i], strings[1][i], strings[2][i], strings[3][i], strings[4][i]));
+			}
+			return rows;
+		} catch (IOException e) {
+			throw new IllegalStateException("Corrupt archive block in " + path, e);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.examly.springapp.archive;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// One feedback row as stored in an archive segment; categories are kept by id and resolved on read.
+// createdAt is in epoch microseconds, the precision of the feedback table.
+public record ArchivedRow(
+		long id,
+		long createdAtMicros,
+		int rating,
+		int statusOrdinal,
+		long categoryId,
+		String userId,
+		String productId,
+		String submitterName,
+		String submitterEmail,
+		String comment) {
+
+	public LocalDateTime createdAt() {
+		return time(createdAtMicros);
+	}
+
+	static LocalDateTime time(long micros) {
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+				(int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+	}
+
+	static long micros(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+	}
+}
@@ -0,0 +1,489 @@
+package com.examly.springapp.archive;
+
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.dashboard.FeedbackBreakdown;
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.repository.CategoryRepository;
+import com.examly.springapp.repository.DatabaseLock;
+import com.examly.springapp.search.FeedbackColumnStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Cold tier for aged feedback. A daily job moves rows older than app.archive.after-days out of MySQL into
+// immutable compressed segment files; admin search, export and user history read them back through memory-mapped
+// I/O. The database stays the shared source of truth: each segment is stored in feedback_archive_segment in the
+// same transaction that deletes its rows, and every node keeps a local copy under app.archive.dir, fetched at
+// startup and when the archiving node announces new segments on the invalidation bus. A segment's rows are read
+// FOR UPDATE in that transaction, so a concurrent status change or delete either commits before they are read or
+// waits and finds them gone. Segments are written as *.pending first; one found at startup is kept if its blob was
+// committed and discarded otherwise, as its rows are then still in the table.
+@Slf4j
+@Component
+public class FeedbackArchive {
+
+	static final String TABLE = "feedback_archive_segment";
+	static final String LOCK = "feedback_archive";
+
+	private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+	private static final FeedbackStatus[] STATUSES = FeedbackStatus.values();
+	// MySQL's default collation compares text case-insensitively and sorts nulls first ascending
+	public static final Comparator<String> TEXT_ORDER = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+
+	private final JdbcTemplate jdbc;
+	private final CategoryRepository categoryRepository;
+	private final WriteGeneration writeGeneration;
+	private final FeedbackColumnStore columnStore;
+	private final DatabaseLock lock;
+	private final TransactionTemplate transaction;
+	private final InvalidationBus bus;
+	private final boolean enabled;
+	private final Path directory;
+	private final int afterDays;
+	private final int segmentRows;
+
+	private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+
+	public record Result(List<Feedback> rows, long total) {
+	}
+
+	public FeedbackArchive(JdbcTemplate jdbc, CategoryRepository categoryRepository, WriteGeneration writeGeneration,
+			FeedbackColumnStore columnStore, DatabaseLock lock, PlatformTransactionManager transactionManager,
+			InvalidationBus bus,
+			@Value("${app.archive.enabled:false}") boolean enabled,
+			@Value("${app.archive.dir:archive}") String directory,
+			@Value("${app.archive.after-days:365}") int afterDays,
+			@Value("${app.archive.segment-rows:200000}") int segmentRows) {
+		this.jdbc = jdbc;
+		this.categoryRepository = categoryRepository;
+		this.writeGeneration = writeGeneration;
+		this.columnStore = columnStore;
+		this.lock = lock;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.bus = bus;
+		this.enabled = enabled;
+		this.directory = Paths.get(directory);
+		this.afterDays = afterDays;
+		this.segmentRows = segmentRows;
+		// Another node archived rows created before the cutoff in the key
+		bus.subscribe(InvalidationBus.ARCHIVE, cutoff -> {
+			sync();
+			columnStore.removeCreatedBefore(LocalDateTime.parse(cutoff));
+			writeGeneration.bumpFeedback();
+		});
+	}
+
+	public boolean hasSegments() {
+		return !segments.isEmpty();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void open() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		Files.createDirectories(directory);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+				+ "name VARCHAR(128) NOT NULL PRIMARY KEY, "
+				+ "data LONGBLOB NOT NULL, "
+				+ "created_at TIMESTAMP NOT NULL)");
+		Set<String> shared = new HashSet<>(jdbc.queryForList("SELECT name FROM " + TABLE, String.class));
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : files.sorted().toList()) {
+				String name = file.getFileName().toString();
+				if (name.endsWith(".pending")) {
+					recoverPending(file);
+				} else if (name.endsWith(".seg") && !shared.contains(name)) {
+					// Written before segments were shared; its rows are already gone from the table
+					store(name, Files.readAllBytes(file));
+				} else if (name.endsWith(".tmp")) {
+					Files.delete(file);
+				}
+			}
+		}
+		sync();
+		log.info("Opened {} feedback archive segments from {}", segments.size(), directory.toAbsolutePath());
+	}
+
+	// Fetches and opens every shared segment this node does not have yet
+	public synchronized void sync() {
+		if (!enabled) {
+			return;
+		}
+		Set<Path> opened = segments.stream().map(ArchiveSegment::path).collect(Collectors.toSet());
+		List<ArchiveSegment> added = new ArrayList<>();
+		try {
+			for (String name : jdbc.queryForList("SELECT name FROM " + TABLE + " ORDER BY name", String.class)) {
+				Path file = directory.resolve(name);
+				if (opened.contains(file)) {
+					continue;
+				}
+				if (!Files.exists(file)) {
+					download(name, file);
+				}
+				added.add(ArchiveSegment.open(file));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to fetch archive segments", e);
+		}
+		if (!added.isEmpty()) {
+			List<ArchiveSegment> all = new ArrayList<>(segments);
+			all.addAll(added);
+			all.sort(Comparator.comparing(segment -> segment.path().getFileName().toString()));
+			segments.clear();
+			segments.addAll(all);
+		}
+	}
+
+	@Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+	public void archiveAged() {
+		if (enabled) {
+			archiveOlderThan(LocalDateTime.now().minusDays(afterDays));
+		}
+	}
+
+	// One node archives at a time; the others pick the new segments up from the bus event
+	public int archiveOlderThan(LocalDateTime cutoff) {
+		int[] archived = {0};
+		if (!lock.runLocked(LOCK, Duration.ZERO, session -> archived[0] = archive(cutoff))) {
+			log.info("Feedback archiving already running on another node");
+		}
+		return archived[0];
+	}
+
+	private int archive(LocalDateTime cutoff) {
+		sync();
+		int archived = 0;
+		while (true) {
+			Path[] pending = {null};
+			int rows;
+			try {
+				rows = transaction.execute(status -> archiveBatch(cutoff, pending));
+			} catch (RuntimeException e) {
+				deletePending(pending[0]);
+				throw e;
+			}
+			if (rows == 0) {
+				break;
+			}
+			try {
+				opened(pending[0], committedName(pending[0]));
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to open archive segment", e);
+			}
+			archived += rows;
+		}
+		if (archived > 0) {
+			columnStore.removeCreatedBefore(cutoff);
+			writeGeneration.bumpFeedback();
+			bus.publish(InvalidationBus.ARCHIVE, cutoff);
+			log.info("Archived {} feedback rows created before {}", archived, cutoff);
+		}
+		return archived;
+	}
+
+	// Top `limit` archived rows matching the filter in the requested order, plus the exact match count. The filter
+	// runs on stored rows; only the returned page is turned into entities.
+	public Result query(Predicate<ArchivedRow> filter, LocalDateTime from, LocalDateTime to, String sortKey,
+			boolean descending, int limit) {
+		long fromMicros = from == null ? Long.MIN_VALUE : ArchivedRow.micros(from);
+		long toMicros = to == null ? Long.MAX_VALUE : ArchivedRow.micros(to);
+		Comparator<ArchivedRow> order = order(sortKey, descending);
+		PriorityQueue<ArchivedRow> top = new PriorityQueue<>(order.reversed());
+		long[] total = {0};
+		for (ArchiveSegment segment : segments) {
+			if (!segment.overlaps(fromMicros, toMicros)) {
+				continue;
+			}
+			segment.scan(fromMicros, toMicros, filter, row -> {
+				total[0]++;
+				if (limit > 0) {
+					top.add(row);
+					if (top.size() > limit) {
+						top.poll();
+					}
+				}
+			});
+		}
+		List<ArchivedRow> rows = new ArrayList<>(top);
+		rows.sort(order);
+		return new Result(hydrate(rows), total[0]);
+	}
+
+	// The admin search filters, evaluated on stored rows
+	public static Predicate<ArchivedRow> matching(String name, String email, FeedbackStatus status, Integer rating,
+			Long categoryId) {
+		String nameLower = name == null || name.isBlank() ? null : name.toLowerCase();
+		String emailLower = email == null || email.isBlank() ? null : email.toLowerCase();
+		return row -> (nameLower == null || (row.submitterName() != null && row.submitterName().toLowerCase().contains(nameLower)))
+				&& (emailLower == null || (row.submitterEmail() != null && row.submitterEmail().toLowerCase().contains(emailLower)))
+				&& (status == null || row.statusOrdinal() == status.ordinal())
+				&& (rating == null || row.rating() == rating)
+				&& (categoryId == null || row.categoryId() == categoryId);
+	}
+
+	// A user's newest `limit` archived rows strictly before (createdAt, id), or from the newest when createdAt is null
+	public List<Feedback> newestByUser(String userId, LocalDateTime createdAt, long id, int limit) {
+		long before = createdAt == null ? Long.MAX_VALUE : ArchivedRow.micros(createdAt);
+		// Blocks up to and including `before`, where older ids can still sit
+		long to = createdAt == null ? Long.MAX_VALUE : before + 1;
+		Comparator<ArchivedRow> newestFirst = order("createdAt", true);
+		PriorityQueue<ArchivedRow> top = new PriorityQueue<>(newestFirst.reversed());
+		for (ArchiveSegment segment : segments) {
+			if (!segment.overlaps(Long.MIN_VALUE, to)) {
+				continue;
+			}
+			segment.scan(Long.MIN_VALUE, to,
+					row -> userId.equals(row.userId())
+							&& (row.createdAtMicros() < before || (row.createdAtMicros() == before && row.id() < id)),
+					row -> {
+						top.add(row);
+						if (top.size() > limit) {
+							top.poll();
+						}
+					});
+		}
+		List<ArchivedRow> rows = new ArrayList<>(top);
+		rows.sort(newestFirst);
+		return hydrate(rows);
+	}
+
+	// createdAt of the newest archived row; nothing at or after it can come from the archive
+	public LocalDateTime newestCreatedAt() {
+		long newest = Long.MIN_VALUE;
+		for (ArchiveSegment segment : segments) {
+			newest = Math.max(newest, segment.maxCreatedMicros());
+		}
+		return newest == Long.MIN_VALUE ? null : ArchivedRow.time(newest);
+	}
+
+	// Adds the archived rows whose id passes `include` to a status/rating breakdown, read from the segment columns
+	// without hydrating entities
+	public void countInto(FeedbackBreakdown.Counter counter, LongPredicate include) {
+		FeedbackStatus[] statuses = FeedbackStatus.values();
+		scanAll(row -> {
+			if (include.test(row.id())) {
+				counter.add(statuses[row.statusOrdinal()], row.rating(), 1);
+			}
+		});
+	}
+
+	// Adds the rows of the named segments only
+	public void countInto(FeedbackBreakdown.Counter counter, Set<String> committed) {
+		FeedbackStatus[] statuses = FeedbackStatus.values();
+		scan(committed, row -> counter.add(statuses[row.statusOrdinal()], row.rating(), 1));
+	}
+
+	// The rows of the named segments only, fetching any this node has not opened yet
+	public void scan(Set<String> committed, Consumer<ArchivedRow> sink) {
+		if (committed.isEmpty()) {
+			return;
+		}
+		if (!names().containsAll(committed)) {
+			sync();
+		}
+		for (ArchiveSegment segment : segments) {
+			if (committed.contains(segment.path().getFileName().toString())) {
+				segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, row -> true, sink);
+			}
+		}
+	}
+
+	// Segments committed as of the caller's transaction. Each is committed with the deletion of its rows, so read
+	// in the same snapshot as the live rows they never overlap them.
+	public Set<String> committedSegments() {
+		if (!enabled) {
+			return Set.of();
+		}
+		return new HashSet<>(jdbc.queryForList("SELECT name FROM " + TABLE, String.class));
+	}
+
+	// Every archived row in its stored form, for aggregations that need no entities
+	public void scanAll(Consumer<ArchivedRow> sink) {
+		for (ArchiveSegment segment : segments) {
+			segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, row -> true, sink);
+		}
+	}
+
+	public List<Feedback> all() {
+		List<ArchivedRow> rows = new ArrayList<>();
+		scanAll(rows::add);
+		return hydrate(rows);
+	}
+
+	private Set<String> names() {
+		return segments.stream().map(segment -> segment.path().getFileName().toString()).collect(Collectors.toSet());
+	}
+
+	// Matches the order the live query gets from MySQL, statuses being stored by name
+	private static Comparator<ArchivedRow> order(String sortKey, boolean descending) {
+		Comparator<ArchivedRow> order = switch (sortKey) {
+			case "rating" -> Comparator.comparingInt(ArchivedRow::rating);
+			case "id" -> Comparator.comparingLong(ArchivedRow::id);
+			case "status" -> Comparator.comparing(row -> STATUSES[row.statusOrdinal()].name());
+			case "productId" -> Comparator.comparing(ArchivedRow::productId, TEXT_ORDER);
+			case "submitterName" -> Comparator.comparing(ArchivedRow::submitterName, TEXT_ORDER);
+			case "submitterEmail" -> Comparator.comparing(ArchivedRow::submitterEmail, TEXT_ORDER);
+			default -> Comparator.comparingLong(ArchivedRow::createdAtMicros);
+		};
+		order = order.thenComparingLong(ArchivedRow::id);
+		return descending ? order.reversed() : order;
+	}
+
+	private List<Feedback> hydrate(List<ArchivedRow> rows) {
+		if (rows.isEmpty()) {
+			return List.of();
+		}
+		Map<Long, Category> categories = categoryRepository.findAll().stream()
+				.collect(Collectors.toMap(Category::getId, Function.identity()));
+		FeedbackStatus[] statuses = FeedbackStatus.values();
+		List<Feedback> hydrated = new ArrayList<>(rows.size());
+		for (ArchivedRow row : rows) {
+			Feedback fb = new Feedback(row.id(), row.userId(), row.productId(), row.rating(), row.comment(),
+					statuses[row.statusOrdinal()], row.createdAt());
+			fb.setSubmitterName(row.submitterName());
+			fb.setSubmitterEmail(row.submitterEmail());
+			fb.setCategory(categories.get(row.categoryId()));
+			hydrated.add(fb);
+		}
+		return hydrated;
+	}
+
+	// Shares the segment and deletes its rows in one transaction, then makes it visible on this node
+	// Locks the oldest rows before the cutoff, writes them to a pending segment and stores it while deleting them.
+	// Runs in the caller's transaction; returns the rows archived, 0 when none are left.
+	private int archiveBatch(LocalDateTime cutoff, Path[] pending) {
+		List<ArchivedRow> rows = jdbc.query(
+				"SELECT f.id, f.created_at, f.rating, f.status, f.category_id, f.user_id, f.product_id, "
+						+ "f.submitter_name, f.submitter_email, COALESCE(c.text, f.comment) "
+						+ "FROM feedback f LEFT JOIN feedback_comment c ON c.id = f.comment_id "
+						+ "WHERE f.created_at < ? ORDER BY f.created_at, f.id LIMIT ? FOR UPDATE",
+				(rs, i) -> {
+					String status = rs.getString(4);
+					return new ArchivedRow(rs.getLong(1), ArchivedRow.micros(rs.getTimestamp(2).toLocalDateTime()), rs.getInt(3),
+							status == null ? 0 : FeedbackStatus.valueOf(status).ordinal(), rs.getLong(5),
+							rs.getString(6), rs.getString(7), rs.getString(8), rs.getString(9), rs.getString(10));
+				},
+				Timestamp.valueOf(cutoff), segmentRows);
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		pending[0] = directory.resolve("feedback-" + rows.get(0).createdAt().format(FILE_TIME) + "-"
+				+ rows.get(0).id() + ".pending");
+		try {
+			SegmentWriter.write(pending[0], rows);
+			store(committedName(pending[0]), Files.readAllBytes(pending[0]));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write archive segment", e);
+		}
+		deleteArchivedRows(rows.stream().map(row -> new Object[] {row.id()}).toList());
+		return rows.size();
+	}
+
+	// Left by a crash: kept if its transaction committed the blob, otherwise its rows are still live
+	private void recoverPending(Path pending) throws IOException {
+		String name = committedName(pending);
+		Integer stored = jdbc.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE name = ?", Integer.class, name);
+		if (stored == null || stored == 0) {
+			Files.delete(pending);
+			log.info("Discarded uncommitted archive segment {}", pending.getFileName());
+			return;
+		}
+		opened(pending, name);
+	}
+
+	private static void deletePending(Path pending) {
+		if (pending == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(pending);
+		} catch (IOException e) {
+			log.warn("Could not delete {}; it is discarded at the next startup", pending, e);
+		}
+	}
+
+	// Unless sync() already fetched the committed segment from the table
+	private synchronized void opened(Path pending, String name) throws IOException {
+		Path committed = pending.resolveSibling(name);
+		if (segments.stream().anyMatch(segment -> segment.path().equals(committed))) {
+			Files.delete(pending);
+			return;
+		}
+		segments.add(ArchiveSegment.open(Files.move(pending, committed, StandardCopyOption.REPLACE_EXISTING)));
+	}
+
+	private void store(String name, byte[] data) {
+		try {
+			jdbc.update("INSERT INTO " + TABLE + " (name, data, created_at) VALUES (?, ?, ?)", name, data,
+					Timestamp.valueOf(LocalDateTime.now()));
+		} catch (DuplicateKeyException e) {
+			// Another node shared the same file first
+		}
+	}
+
+	private void download(String name, Path file) throws IOException {
+		Path tmp = file.resolveSibling(name + ".tmp");
+		jdbc.query("SELECT data FROM " + TABLE + " WHERE name = ?", (RowCallbackHandler) rs -> {
+			try (InputStream in = rs.getBinaryStream(1)) {
+				Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, name);
+		Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void deleteArchivedRows(List<Object[]> ids) {
+		for (int i = 0; i < ids.size(); i += 1000) {
+			List<Object[]> batch = ids.subList(i, Math.min(ids.size(), i + 1000));
+			jdbc.batchUpdate("DELETE FROM feedback_comment WHERE id = (SELECT comment_id FROM feedback WHERE id = ?)", batch);
+			jdbc.batchUpdate("DELETE FROM feedback WHERE id = ?", batch);
+		}
+	}
+
+	private static String committedName(Path pending) {
+		String name = pending.getFileName().toString();
+		return name.substring(0, name.length() - ".pending".length()) + ".seg";
+	}
+}
@@ -0,0 +1,138 @@
+package com.examly.springapp.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+// Writes an immutable archive segment:
+//
+//   header  : magic, version, row count (version 1 stored createdAt in milliseconds, 2 in microseconds)
+//   blocks  : deflate-compressed, column-major groups of BLOCK_ROWS rows (fixed-width columns first, then strings)
+//   index   : per block offset, lengths, row count and min/max createdAt and id (the sparse index)
+//   footer  : index offset, block count, magic
+//
+// Rows must be passed in createdAt order so block ranges are tight and range filters skip whole blocks.
+final class SegmentWriter {
+
+	static final int MAGIC = 0x46425347;
+	static final int VERSION = 2;
+	static final int BLOCK_ROWS = 1024;
+	static final int FOOTER_BYTES = 16;
+
+	private SegmentWriter() {
+	}
+
+	static void write(Path target, List<ArchivedRow> rows) throws IOException {
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		List<long[]> index = new ArrayList<>();
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(rows.size());
+			long offset = 12;
+
+			for (int start = 0; start < rows.size(); start += BLOCK_ROWS) {
+				List<ArchivedRow> block = rows.subList(start, Math.min(rows.size(), start + BLOCK_ROWS));
+				byte[] raw = encode(block);
+				byte[] compressed = deflate(deflater, raw);
+				out.write(compressed);
+
+				long minCreated = Long.MAX_VALUE, maxCreated = Long.MIN_VALUE, minId = Long.MAX_VALUE, maxId = Long.MIN_VALUE;
+				for (ArchivedRow row : block) {
+					minCreated = Math.min(minCreated, row.createdAtMicros());
+					maxCreated = Math.max(maxCreated, row.createdAtMicros());
+					minId = Math.min(minId, row.id());
+					maxId = Math.max(maxId, row.id());
+				}
+				index.add(new long[]{offset, compressed.length, raw.length, block.size(), minCreated, maxCreated, minId, maxId});
+				offset += compressed.length;
+			}
+
+			long indexOffset = offset;
+			for (long[] entry : index) {
+				out.writeLong(entry[0]);
+				out.writeInt((int) entry[1]);
+				out.writeInt((int) entry[2]);
+				out.writeInt((int) entry[3]);
+				for (int i = 4; i < 8; i++) {
+					out.writeLong(entry[i]);
+				}
+			}
+			out.writeLong(indexOffset);
+			out.writeInt(index.size());
+			out.writeInt(MAGIC);
+			out.flush();
+			file.getFD().sync();
+		} finally {
+			deflater.end();
+		}
+		Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static byte[] encode(List<ArchivedRow> block) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.size() * 128);
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (ArchivedRow row : block) {
+			out.writeLong(row.id());
+		}
+		for (ArchivedRow row : block) {
+			out.writeLong(row.createdAtMicros());
+		}
+		for (ArchivedRow row : block) {
+			out.writeByte(row.rating());
+		}
+		for (ArchivedRow row : block) {
+			out.writeByte(row.statusOrdinal());
+		}
+		for (ArchivedRow row : block) {
+			out.writeLong(row.categoryId());
+		}
+		for (ArchivedRow row : block) {
+			writeString(out, row.userId());
+		}
+		for (ArchivedRow row : block) {
+			writeString(out, row.productId());
+		}
+		for (ArchivedRow row : block) {
+			writeString(out, row.submitterName());
+		}
+		for (ArchivedRow row : block) {
+			writeString(out, row.submitterEmail());
+		}
+		for (ArchivedRow row : block) {
+			writeString(out, row.comment());
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static byte[] deflate(Deflater deflater, byte[] raw) {
+		deflater.reset();
+		deflater.setInput(raw);
+		deflater.finish();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 64);
+		byte[] buffer = new byte[16 * 1024];
+		while (!deflater.finished()) {
+			int n = deflater.deflate(buffer);
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,103 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.web.ResponseEncoding;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Serves polled list endpoints from a small LRU of already-serialised bodies keyed by normalised query and
+// write generation. A matching If-None-Match short-circuits to 304 before the database or Jackson is touched.
+// ETags carry the generation epoch, so a tag issued by another node or before a restart never matches.
+@Component
+public class ConditionalResponseCache {
+
+	private final ResponseEncoding encoding;
+	private final WriteGeneration writeGeneration;
+	private final Map<String, byte[]> bodies;
+
+	public ConditionalResponseCache(ResponseEncoding encoding, WriteGeneration writeGeneration,
+			@Value("${app.response-cache.max-entries:256}") int maxEntries) {
+		this.encoding = encoding;
+		this.writeGeneration = writeGeneration;
+		this.bodies = new LinkedHashMap<>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	// Joins the parts into a stable cache key; null and blank values collapse so equivalent queries share an entry
+	public static String key(String endpoint, Object... parts) {
+		StringBuilder sb = new StringBuilder(endpoint);
+		for (Object part : parts) {
+			sb.append('|');
+			if (part != null) {
+				sb.append(part.toString().trim());
+			}
+		}
+		return sb.toString();
+	}
+
+	public ResponseEntity<byte[]> respond(HttpServletRequest request, String key, long generation, Supplier<?> loader) {
+		MediaType type = encoding.negotiate(request);
+		String representation = type.getSubtype() + "|" + key;
+		String etag = "\"" + writeGeneration.epoch() + "-" + Long.toHexString(generation) + "-"
+				+ Integer.toHexString(representation.hashCode()) + "\"";
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache())
+					.varyBy(HttpHeaders.ACCEPT).build();
+		}
+
+		String entryKey = generation + "#" + representation;
+		byte[] body;
+		synchronized (bodies) {
+			body = bodies.get(entryKey);
+		}
+		if (body == null) {
+			try {
+				body = encoding.mapperFor(type).writeValueAsBytes(loader.get());
+			} catch (JsonProcessingException e) {
+				throw new RuntimeException("Failed to serialise response", e);
+			}
+			synchronized (bodies) {
+				bodies.put(entryKey, body);
+			}
+		}
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.varyBy(HttpHeaders.ACCEPT)
+				.contentType(type)
+				.body(body);
+	}
+
+	public void clear() {
+		synchronized (bodies) {
+			bodies.clear();
+		}
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String c = candidate.trim();
+			if (c.equals(etag) || c.equals("*")) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,6 @@
+package com.examly.springapp.cache;
+
+// One cache-eviction event. `version` is assigned by the transport (0 until published) and only ever grows,
+// so a node can tell how far it has caught up; `node` lets a node skip the events it published itself.
+public record Invalidation(long version, String node, String region, String key) {
+}
@@ -0,0 +1,161 @@
+package com.examly.springapp.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Keeps in-process caches coherent across app nodes. Write paths update their own node's caches directly and
+// publish(region, key) after commit; the bus batches those events, hands them to the transport, and runs the
+// region's listeners for events that other nodes published. Listeners therefore only ever see remote changes.
+@Slf4j
+@Component
+public class InvalidationBus {
+
+	public static final String FEEDBACK = "feedback";
+	public static final String CATEGORY = "category";
+	public static final String PRINCIPAL = "principal";
+	public static final String USER_HISTORY = "user-history";
+	public static final String PRODUCT_RATING = "product-rating";
+	public static final String ARCHIVE = "feedback-archive";
+
+	// Key meaning every entry of the region may have changed (bulk writes outside the request path)
+	public static final String ALL = "*";
+
+	private final InvalidationTransport transport;
+	private final TransactionTemplate primary;
+	private final String nodeId;
+	private final int maxOutbox;
+	private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<Invalidation> outbox = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger outboxSize = new AtomicInteger();
+	private volatile long lastVersion;
+
+	public InvalidationBus(ObjectProvider<InvalidationTransport> transport, PlatformTransactionManager transactionManager,
+			@Value("${app.cache.invalidation.node-id:}") String nodeId,
+			@Value("${app.cache.invalidation.max-outbox:10000}") int maxOutbox) {
+		this.transport = transport.getIfAvailable();
+		// Listeners reload from the database; a read-write transaction keeps those reads off a lagging replica
+		this.primary = new TransactionTemplate(transactionManager);
+		this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+		this.maxOutbox = maxOutbox;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (transport != null) {
+			transport.start(this::deliver);
+			log.info("Cache invalidation bus started on node {} via {}", nodeId, transport.getClass().getSimpleName());
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (transport != null) {
+			flush();
+			transport.stop();
+		}
+	}
+
+	public void subscribe(String region, Consumer<String> listener) {
+		listeners.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(listener);
+	}
+
+	// Queued only once the surrounding transaction commits, so other nodes never evict ahead of the data
+	public void publish(String region, Object key) {
+		if (transport == null) {
+			return;
+		}
+		Invalidation event = new Invalidation(0, nodeId, region, String.valueOf(key));
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					enqueue(event);
+				}
+			});
+		} else {
+			enqueue(event);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.cache.invalidation.flush-ms:200}")
+	public void flush() {
+		if (transport == null || outbox.isEmpty()) {
+			return;
+		}
+		// Collapse repeats of the same key within one batch
+		Map<String, Invalidation> batch = new LinkedHashMap<>();
+		Invalidation event;
+		while ((event = outbox.poll()) != null) {
+			outboxSize.decrementAndGet();
+			batch.putIfAbsent(event.region() + '\u0000' + event.key(), event);
+		}
+		List<Invalidation> events = new ArrayList<>(batch.values());
+		try {
+			transport.publish(events);
+		} catch (RuntimeException e) {
+			log.warn("Publishing {} cache invalidations failed, will retry: {}", events.size(), e.getMessage());
+			events.forEach(this::enqueue);
+		}
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	public long getLastVersion() {
+		return lastVersion;
+	}
+
+	public int getPendingCount() {
+		return outboxSize.get();
+	}
+
+	void deliver(List<Invalidation> batch) {
+		primary.executeWithoutResult(status -> {
+			for (Invalidation event : batch) {
+				lastVersion = Math.max(lastVersion, event.version());
+				if (nodeId.equals(event.node())) {
+					continue;
+				}
+				for (Consumer<String> listener : listeners.getOrDefault(event.region(), List.of())) {
+					try {
+						listener.accept(event.key());
+					} catch (RuntimeException e) {
+						log.warn("Invalidation listener for {}:{} failed: {}", event.region(), event.key(), e.getMessage());
+					}
+				}
+			}
+		});
+	}
+
+	private void enqueue(Invalidation event) {
+		// Bounded so a long transport outage cannot exhaust memory; caches with a TTL still converge
+		if (outboxSize.incrementAndGet() > maxOutbox) {
+			outboxSize.decrementAndGet();
+			log.warn("Invalidation outbox full, dropping {}:{}", event.region(), event.key());
+			return;
+		}
+		outbox.add(event);
+	}
+}
@@ -0,0 +1,16 @@
+package com.examly.springapp.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Carries invalidation batches between nodes. The default is JdbcInvalidationTransport (a polled table in the
+// application database); a broker-backed transport only has to implement these three methods.
+public interface InvalidationTransport {
+
+	void publish(List<Invalidation> batch);
+
+	// Starts delivering batches published by any node (including this one) from now on, in version order
+	void start(Consumer<List<Invalidation>> receiver);
+
+	void stop();
+}
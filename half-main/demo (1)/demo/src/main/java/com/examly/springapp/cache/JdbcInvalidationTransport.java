@@ -0,0 +1,158 @@
+package com.examly.springapp.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Invalidation transport over a table in the application database, so several nodes stay coherent with no
+// extra infrastructure. Each batch is one JDBC batch insert; the auto-increment id is the event version.
+// Every node polls for ids above its watermark. Ids can commit out of order, so the watermark only advances
+// over a contiguous run; rows beyond a gap are delivered once and the gap is waited on for `gap-grace-ms`
+// (then skipped, since rolled-back inserts leave permanent holes).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+	static final String TABLE = "cache_invalidation";
+
+	private final JdbcTemplate jdbc;
+	private final int batchSize;
+	private final long gapGraceNanos;
+	private final long retentionMinutes;
+
+	private volatile Consumer<List<Invalidation>> receiver;
+	private long watermark;
+	private long gapSince;
+	private final TreeSet<Long> deliveredBeyondGap = new TreeSet<>();
+
+	public JdbcInvalidationTransport(JdbcTemplate jdbc,
+			@Value("${app.cache.invalidation.batch-size:500}") int batchSize,
+			@Value("${app.cache.invalidation.gap-grace-ms:5000}") long gapGraceMs,
+			@Value("${app.cache.invalidation.retention-minutes:60}") long retentionMinutes) {
+		this.jdbc = jdbc;
+		this.batchSize = batchSize;
+		this.gapGraceNanos = TimeUnit.MILLISECONDS.toNanos(gapGraceMs);
+		this.retentionMinutes = retentionMinutes;
+	}
+
+	@Override
+	public synchronized void start(Consumer<List<Invalidation>> receiver) {
+		jdbc.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+				+ "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+				+ "node VARCHAR(64) NOT NULL, "
+				+ "region VARCHAR(32) NOT NULL, "
+				+ "cache_key VARCHAR(255) NOT NULL, "
+				+ "created_at TIMESTAMP NOT NULL)");
+		// A starting node has nothing cached yet, so history before now is irrelevant
+		Long max = jdbc.queryForObject("SELECT MAX(id) FROM " + TABLE, Long.class);
+		watermark = max == null ? 0 : max;
+		this.receiver = receiver;
+	}
+
+	@Override
+	public void stop() {
+		receiver = null;
+	}
+
+	@Override
+	public void publish(List<Invalidation> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		Timestamp now = Timestamp.from(Instant.now());
+		jdbc.batchUpdate("INSERT INTO " + TABLE + " (node, region, cache_key, created_at) VALUES (?, ?, ?, ?)", batch,
+				batch.size(), (ps, event) -> {
+					ps.setString(1, event.node());
+					ps.setString(2, event.region());
+					ps.setString(3, truncate(event.key()));
+					ps.setTimestamp(4, now);
+				});
+	}
+
+	@Scheduled(fixedDelayString = "${app.cache.invalidation.poll-ms:500}")
+	public void poll() {
+		if (receiver != null) {
+			pollOnce();
+		}
+	}
+
+	// Returns the number of events handed to the receiver
+	public synchronized int pollOnce() {
+		Consumer<List<Invalidation>> target = receiver;
+		if (target == null) {
+			return 0;
+		}
+		List<Invalidation> rows = jdbc.query("SELECT id, node, region, cache_key FROM " + TABLE
+						+ " WHERE id > ? ORDER BY id LIMIT ?",
+				(rs, i) -> new Invalidation(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+				watermark, batchSize);
+
+		List<Invalidation> fresh = new ArrayList<>(rows.size());
+		for (Invalidation row : rows) {
+			if (!deliveredBeyondGap.contains(row.version())) {
+				fresh.add(row);
+			}
+		}
+		if (!fresh.isEmpty()) {
+			target.accept(fresh);
+		}
+		advance(rows);
+		return fresh.size();
+	}
+
+	public synchronized long getWatermark() {
+		return watermark;
+	}
+
+	@Scheduled(fixedDelayString = "${app.cache.invalidation.purge-ms:600000}")
+	public void purge() {
+		if (receiver == null) {
+			return;
+		}
+		Timestamp cutoff = Timestamp.from(Instant.now().minus(retentionMinutes, ChronoUnit.MINUTES));
+		int removed = jdbc.update("DELETE FROM " + TABLE + " WHERE created_at < ?", cutoff);
+		if (removed > 0) {
+			log.debug("Purged {} cache invalidation rows", removed);
+		}
+	}
+
+	private void advance(List<Invalidation> rows) {
+		for (Invalidation row : rows) {
+			long version = row.version();
+			if (version == watermark + 1) {
+				watermark = version;
+				gapSince = 0;
+				continue;
+			}
+			// Gap before this row: deliver it now but keep the watermark until the gap fills or times out
+			if (gapSince == 0) {
+				gapSince = System.nanoTime();
+			}
+			if (System.nanoTime() - gapSince > gapGraceNanos) {
+				watermark = version;
+				gapSince = 0;
+				continue;
+			}
+			rows.stream().filter(r -> r.version() >= version).forEach(r -> deliveredBeyondGap.add(r.version()));
+			break;
+		}
+		deliveredBeyondGap.headSet(watermark, true).clear();
+	}
+
+	private static String truncate(String key) {
+		return key.length() <= 255 ? key : key.substring(0, 255);
+	}
+}
@@ -0,0 +1,75 @@
+package com.examly.springapp.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monotonic counters bumped after every committed write. Readers capture the generation before querying,
+// so a response cached under generation N can only be served while no write has happened since.
+// The counters are per process and restart at 0, so anything handed to clients (ETags) must also carry
+// the epoch: another node, or this node after a restart, has a different one.
+// The time of the last bump lets reads avoid the replica while it may still lack that write (see
+// ReadYourWritesTracker): a replica read would otherwise be cached under a generation it does not reflect.
+@Component
+public class WriteGeneration {
+
+	private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+	private final AtomicLong feedback = new AtomicLong();
+	private final AtomicLong category = new AtomicLong();
+	private volatile long lastBumpNanos;
+	private volatile boolean bumped;
+
+	public String epoch() {
+		return epoch;
+	}
+
+	public long feedback() {
+		return feedback.get();
+	}
+
+	public long category() {
+		return category.get();
+	}
+
+	// Feedback rows embed their category, so feedback views depend on both counters
+	public long feedbackView() {
+		return feedback.get() + category.get();
+	}
+
+	public boolean changedWithin(long nanos) {
+		return bumped && System.nanoTime() - lastBumpNanos < nanos;
+	}
+
+	// Inside a transaction the bump is deferred to afterCommit; bumping earlier would let a concurrent reader
+	// cache pre-commit data under the new generation
+	public void bumpFeedback() {
+		afterCommit(feedback);
+	}
+
+	public void bumpCategory() {
+		afterCommit(category);
+	}
+
+	private void afterCommit(AtomicLong counter) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					bump(counter);
+				}
+			});
+		} else {
+			bump(counter);
+		}
+	}
+
+	// Timestamped first: a reader that sees the new generation must also see the write as recent
+	private void bump(AtomicLong counter) {
+		lastBumpNanos = System.nanoTime();
+		bumped = true;
+		counter.incrementAndGet();
+	}
+}
@@ -0,0 +1,33 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.monitoring.QueryTimingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlInstrumentationConfig {
+
+	// Static so the post-processor is registered before the DataSource bean is created. Only the primary
+	// "dataSource" bean is wrapped, so pools sitting behind a routing DataSource are not counted twice.
+	@Bean
+	public static BeanPostProcessor queryTimingDataSourcePostProcessor(Environment env) {
+		long slowThresholdMs = env.getProperty("app.sql.slow-threshold-ms", Long.class, 200L);
+		double sampleRate = env.getProperty("app.sql.sample-rate", Double.class, 0.0);
+		boolean enabled = env.getProperty("app.sql.timing-enabled", Boolean.class, true);
+
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (enabled && "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+						&& !(bean instanceof QueryTimingDataSource)) {
+					return new QueryTimingDataSource(dataSource, slowThresholdMs, sampleRate);
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,43 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.cache.ConditionalResponseCache;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.projection.FeedbackFieldSet;
+import com.examly.springapp.service.DashboardService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/dashboard")
+@CrossOrigin(origins = "*")
+public class AdminDashboardController {
+
+	private final DashboardService service;
+	private final ConditionalResponseCache responseCache;
+	private final WriteGeneration writeGeneration;
+
+	public AdminDashboardController(DashboardService service, ConditionalResponseCache responseCache,
+			WriteGeneration writeGeneration) {
+		this.service = service;
+		this.responseCache = responseCache;
+		this.writeGeneration = writeGeneration;
+	}
+
+	// Categories, first results page, per-status counts and rating distribution in one round trip. Keyed on the
+	// feedback and category generations, so repeated loads between writes are a cache hit or a 304.
+	@GetMapping
+	public ResponseEntity<byte[]> dashboard(
+			HttpServletRequest request,
+			@RequestParam(defaultValue = "10") int size,
+			@RequestParam(required = false, defaultValue = "createdAt") String sortBy,
+			@RequestParam(required = false, defaultValue = "desc") String sortOrder,
+			@RequestParam(required = false) String fields
+	) {
+		FeedbackFieldSet selected = FeedbackFieldSet.parse(fields);
+		String key = ConditionalResponseCache.key("admin-dashboard", size, sortBy, sortOrder.toLowerCase(),
+				selected == null ? null : selected.key());
+		return responseCache.respond(request, key, writeGeneration.feedbackView(),
+				() -> service.load(selected, size, sortBy, sortOrder));
+	}
+}
@@ -1,12 +1,21 @@
 package com.examly.springapp.controller;
 
+import com.examly.springapp.cache.ConditionalResponseCache;
+import com.examly.springapp.cache.WriteGeneration;
 import com.examly.springapp.model.Feedback;
 import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.pagination.CountMode;
+import com.examly.springapp.projection.FeedbackFieldSet;
 import com.examly.springapp.service.FeedbackService;
-import org.springframework.data.domain.Page;
+import com.examly.springapp.web.ResponseEncoding;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -16,14 +25,24 @@ import java.util.Map;
 public class AdminFeedbackController {
 
 	private final FeedbackService service;
+	private final ConditionalResponseCache responseCache;
+	private final WriteGeneration writeGeneration;
+	private final ResponseEncoding encoding;
 
-	public AdminFeedbackController(FeedbackService service) {
+	public AdminFeedbackController(FeedbackService service, ConditionalResponseCache responseCache, WriteGeneration writeGeneration,
+			ResponseEncoding encoding) {
 		this.service = service;
+		this.responseCache = responseCache;
+		this.writeGeneration = writeGeneration;
+		this.encoding = encoding;
 	}
 
-	// Paginated + filterable list
+	// Paginated + filterable list; unchanged polls are answered with 304 via the write-generation ETag.
+	// count=NONE returns a slice (no totals), CACHED accepts a recently computed total for the same filter.
+	// fields=id,rating,status,... selects only those columns (see FeedbackField for the whitelist)
 	@GetMapping
-	public ResponseEntity<Page<Feedback>> search(
+	public ResponseEntity<byte[]> search(
+			HttpServletRequest request,
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "10") int size,
 			@RequestParam(required = false, defaultValue = "createdAt") String sortBy,
@@ -32,16 +51,33 @@ public class AdminFeedbackController {
 			@RequestParam(required = false) String email,
 			@RequestParam(required = false) FeedbackStatus status,
 			@RequestParam(required = false) Integer rating,
-			@RequestParam(required = false) Long category
+			@RequestParam(required = false) Long category,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(defaultValue = "EXACT") CountMode count,
+			@RequestParam(required = false) String fields
 	) {
-		Page<Feedback> result = service.searchAdmin(page, size, sortBy, sortOrder, name, email, status, rating, category);
-		return ResponseEntity.ok(result);
+		FeedbackFieldSet selected = FeedbackFieldSet.parse(fields);
+		long generation = writeGeneration.feedbackView();
+		String key = ConditionalResponseCache.key("feedback-search", page, size, sortBy, sortOrder.toLowerCase(),
+				name == null ? null : name.toLowerCase(), email == null ? null : email.toLowerCase(), status, rating, category,
+				from, to, count, selected == null ? null : selected.key());
+		if (selected != null) {
+			return responseCache.respond(request, key, generation, () -> service.searchAdmin(selected, page, size, sortBy,
+					sortOrder, name, email, status, rating, category, from, to, count));
+		}
+		return responseCache.respond(request, key, generation,
+				() -> service.searchAdmin(page, size, sortBy, sortOrder, name, email, status, rating, category, from, to, count));
 	}
 
-	// Legacy non-paginated list (optional backward compatibility)
+	// Legacy non-paginated list / bulk export, streamed as JSON, Smile or CBOR depending on Accept
 	@GetMapping("/all")
-	public List<Feedback> getAllFeedback() {
-		return service.getAllFeedback();
+	public ResponseEntity<StreamingResponseBody> getAllFeedback(HttpServletRequest request,
+			@RequestParam(required = false) String fields) {
+		MediaType type = encoding.negotiate(request);
+		FeedbackFieldSet selected = FeedbackFieldSet.parse(fields);
+		List<?> rows = selected == null ? service.getAllFeedback() : service.getAllFeedback(selected);
+		return ResponseEntity.ok().contentType(type).body(encoding.streamArray(rows, type));
 	}
 
 	@PutMapping("/{id}/status")
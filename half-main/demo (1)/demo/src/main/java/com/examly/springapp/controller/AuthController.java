@@ -9,10 +9,12 @@ import com.examly.springapp.service.CategoryService;
 
 import java.util.Map;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -31,14 +33,13 @@ public class AuthController {
 	@PostMapping("/admin/register")
 	public ResponseEntity<Admin> registerAdmin(@RequestBody Admin admin) {
 		try {
-			System.out.println("Admin registration attempt for: " + admin.getEmail());
+			log.debug("Admin registration attempt for: {}", admin.getEmail());
 			admin.setRole(com.examly.springapp.model.Role.ADMIN);
 			Admin registeredAdmin = adminService.register(admin);
-			System.out.println("Admin registration successful for: " + registeredAdmin.getEmail());
+			log.info("Admin registration successful for: {}", registeredAdmin.getEmail());
 			return ResponseEntity.ok(registeredAdmin);
 		} catch (Exception e) {
-			System.err.println("Admin registration failed: " + e.getMessage());
-			e.printStackTrace();
+			log.warn("Admin registration failed for {}: {}", admin.getEmail(), e.getMessage());
 			return ResponseEntity.badRequest().build();
 		}
 	}
@@ -47,14 +48,13 @@ public class AuthController {
 	@PostMapping("/user/register")
 	public ResponseEntity<User> registerUser(@RequestBody User user) {
 		try {
-			System.out.println("User registration attempt for: " + user.getEmail());
+			log.debug("User registration attempt for: {}", user.getEmail());
 			user.setRole(com.examly.springapp.model.Role.USER);
 			User registeredUser = userService.register(user);
-			System.out.println("User registration successful for: " + registeredUser.getEmail());
+			log.info("User registration successful for: {}", registeredUser.getEmail());
 			return ResponseEntity.ok(registeredUser);
 		} catch (Exception e) {
-			System.err.println("User registration failed: " + e.getMessage());
-			e.printStackTrace();
+			log.warn("User registration failed for {}: {}", user.getEmail(), e.getMessage());
 			return ResponseEntity.badRequest().build();
 		}
 	}
@@ -126,16 +126,14 @@ public class AuthController {
 				usabilityCategory.setName("Usability");
 				categoryService.create(usabilityCategory);
 				
-				System.out.println("Default categories created successfully");
+				log.info("Default categories created successfully");
 			} catch (Exception e) {
-				System.err.println("Category initialization failed: " + e.getMessage());
-				e.printStackTrace();
+				log.warn("Category initialization failed: {}", e.getMessage());
 			}
 			
 			return ResponseEntity.ok(Map.of("message", "Default admin, user, and categories created successfully"));
 		} catch (Exception e) {
-			System.err.println("Initialization failed: " + e.getMessage());
-			e.printStackTrace();
+			log.error("Initialization failed", e);
 			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
 		}
 	}
@@ -1,8 +1,11 @@
 package com.examly.springapp.controller;
 
+import com.examly.springapp.cache.ConditionalResponseCache;
+import com.examly.springapp.cache.WriteGeneration;
 import com.examly.springapp.model.Category;
+import com.examly.springapp.pagination.CountMode;
 import com.examly.springapp.service.CategoryService;
-import org.springframework.data.domain.Page;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +21,13 @@ import java.util.List;
 public class CategoryController {
 
 	private final CategoryService service;
+	private final ConditionalResponseCache responseCache;
+	private final WriteGeneration writeGeneration;
 
-	public CategoryController(CategoryService service) {
+	public CategoryController(CategoryService service, ConditionalResponseCache responseCache, WriteGeneration writeGeneration) {
 		this.service = service;
+		this.responseCache = responseCache;
+		this.writeGeneration = writeGeneration;
 	}
 
 	@PostMapping
@@ -49,21 +56,27 @@ public class CategoryController {
 	}
 
 	@GetMapping
-	public ResponseEntity<Page<Category>> list(
+	public ResponseEntity<byte[]> list(
+			HttpServletRequest request,
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "10") int size,
-			@RequestParam(required = false) String name
+			@RequestParam(required = false) String name,
+			@RequestParam(defaultValue = "EXACT") CountMode count
 	) {
 		log.info("Listing categories - page: {}, size: {}, name filter: {}", page, size, name);
+		long generation = writeGeneration.category();
+		String key = ConditionalResponseCache.key("category-list", page, size, name == null ? null : name.toLowerCase(), count);
 		Pageable pageable = PageRequest.of(page, size);
-		return ResponseEntity.ok(service.search(name, pageable));
+		return responseCache.respond(request, key, generation, () -> service.search(name, pageable, count));
 	}
 
 	@GetMapping("/all")
-	public ResponseEntity<List<Category>> all() {
+	public ResponseEntity<byte[]> all(HttpServletRequest request) {
 		log.info("Getting all categories");
-		List<Category> categories = service.getAll();
-		log.info("Found {} categories", categories.size());
-		return ResponseEntity.ok(categories);
+		return responseCache.respond(request, "category-all", writeGeneration.category(), () -> {
+			List<Category> categories = service.getAll();
+			log.info("Found {} categories", categories.size());
+			return categories;
+		});
 	}
 }
@@ -1,9 +1,16 @@
 package com.examly.springapp.controller;
 
+import com.examly.springapp.history.UserHistoryPage;
 import com.examly.springapp.model.Feedback;
+import com.examly.springapp.projection.FeedbackFieldSet;
 import com.examly.springapp.service.FeedbackService;
+import com.examly.springapp.web.ResponseEncoding;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -13,9 +20,11 @@ import java.util.List;
 public class FeedbackController {
 
     private final FeedbackService service;
+    private final ResponseEncoding encoding;
 
-    public FeedbackController(FeedbackService service) {
+    public FeedbackController(FeedbackService service, ResponseEncoding encoding) {
         this.service = service;
+        this.encoding = encoding;
     }
 
     @PostMapping
@@ -23,8 +32,26 @@ public class FeedbackController {
         return ResponseEntity.status(201).body(service.submitFeedback(feedback));
     }
 
+    // Deprecated in favour of /history: full rows, newest first, capped at app.feedback.user-list.max-rows
+    @Deprecated
     @GetMapping("/user/{userId}")
-    public List<Feedback> getUserFeedback(@PathVariable String userId) {
-        return service.getFeedbackByUser(userId);
+    public ResponseEntity<StreamingResponseBody> getUserFeedback(@PathVariable String userId, HttpServletRequest request) {
+        MediaType type = encoding.negotiate(request);
+        List<Feedback> rows = service.getFeedbackByUser(userId);
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "<" + request.getRequestURI() + "/history>; rel=\"successor-version\"")
+                .contentType(type)
+                .body(encoding.streamArray(rows, type));
+    }
+
+    // Keyset pages of summaries, newest first: pass the previous page's `next` as `before`.
+    // fields=id,rating,... narrows each item; summary fields are still served from the history cache
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<UserHistoryPage> getUserHistory(@PathVariable String userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(service.getUserHistory(userId, before, size, FeedbackFieldSet.parse(fields)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.rating.ProductRatingStore;
+import com.examly.springapp.rating.ProductRatingSummary;
+import com.examly.springapp.rating.RankOrder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "*")
+public class ProductRatingController {
+
+	private final ProductRatingStore store;
+
+	public ProductRatingController(ProductRatingStore store) {
+		this.store = store;
+	}
+
+	// Count, average and 1-5 histogram; days=7 (or another configured window) for the trailing days, omitted for all time
+	@GetMapping("/{productId}/ratings")
+	public ProductRatingSummary ratings(@PathVariable String productId, @RequestParam(required = false) Integer days) {
+		return store.summary(productId, days);
+	}
+
+	// Best or worst rated products, e.g. ?order=WORST&days=7&limit=20 for the worst-rated 20 of the last week
+	@GetMapping("/leaderboard")
+	public List<ProductRatingSummary> leaderboard(
+			@RequestParam(defaultValue = "BEST") RankOrder order,
+			@RequestParam(required = false) Integer days,
+			@RequestParam(defaultValue = "20") int limit
+	) {
+		return store.leaderboard(order, days, limit);
+	}
+}
@@ -0,0 +1,11 @@
+package com.examly.springapp.dashboard;
+
+import com.examly.springapp.model.Category;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+// Everything the admin dashboard renders on load, in one response: categories for the filter bar, the first
+// results page (full rows, or FeedbackRow items for a sparse fieldset) and the status and rating breakdown
+public record AdminDashboard(List<Category> categories, Slice<?> feedback, FeedbackBreakdown breakdown) {
+}
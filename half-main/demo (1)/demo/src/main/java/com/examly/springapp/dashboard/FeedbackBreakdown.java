@@ -0,0 +1,39 @@
+package com.examly.springapp.dashboard;
+
+import com.examly.springapp.model.FeedbackStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Feedback totals per status and per rating. Every status and the ratings 1-5 are always present, zero or not,
+// so dashboard charts keep their axes when a bucket is empty.
+public record FeedbackBreakdown(Map<FeedbackStatus, Long> byStatus, Map<Integer, Long> byRating, long total) {
+
+	// Accumulates (status, rating, count) cells, as produced by a GROUP BY status, rating or a column-store scan
+	public static class Counter {
+		private final Map<FeedbackStatus, Long> byStatus = new EnumMap<>(FeedbackStatus.class);
+		private final Map<Integer, Long> byRating = new TreeMap<>();
+		private long total;
+
+		public Counter() {
+			for (FeedbackStatus status : FeedbackStatus.values()) {
+				byStatus.put(status, 0L);
+			}
+			for (int rating = 1; rating <= 5; rating++) {
+				byRating.put(rating, 0L);
+			}
+		}
+
+		public Counter add(FeedbackStatus status, int rating, long count) {
+			byStatus.merge(status == null ? FeedbackStatus.PENDING : status, count, Long::sum);
+			byRating.merge(rating, count, Long::sum);
+			total += count;
+			return this;
+		}
+
+		public FeedbackBreakdown build() {
+			return new FeedbackBreakdown(byStatus, byRating, total);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.examly.springapp.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Sends read-only transactions to the replica and everything else to the primary. Must sit behind a
+// LazyConnectionDataSourceProxy: the transaction manager only publishes the read-only flag after it has
+// begun the transaction, so the physical connection has to be fetched on the first statement.
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	public static final String PRIMARY = "primary";
+	public static final String REPLICA = "replica";
+
+	private final DataSource primary;
+	private final ReadYourWritesTracker readYourWrites;
+	private final long replicaRetryNanos;
+	private volatile long replicaDownUntil;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWrites,
+			long replicaRetryMs) {
+		this.primary = primary;
+		this.readYourWrites = readYourWrites;
+		this.replicaRetryNanos = TimeUnit.MILLISECONDS.toNanos(replicaRetryMs);
+		setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return PRIMARY;
+		}
+		if (replicaDownUntil != 0 && System.nanoTime() - replicaDownUntil < 0) {
+			return PRIMARY;
+		}
+		return readYourWrites.mustReadFromPrimary() ? PRIMARY : REPLICA;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		DataSource target = determineTargetDataSource();
+		if (target == primary) {
+			return primary.getConnection();
+		}
+		try {
+			Connection connection = target.getConnection();
+			replicaDownUntil = 0;
+			return connection;
+		} catch (SQLException e) {
+			log.warn("Replica unavailable, falling back to primary for {} ms: {}",
+					TimeUnit.NANOSECONDS.toMillis(replicaRetryNanos), e.getMessage());
+			replicaDownUntil = System.nanoTime() + replicaRetryNanos;
+			return primary.getConnection();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.examly.springapp.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import com.examly.springapp.cache.WriteGeneration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Remembers which clients wrote recently so their reads stay on the primary until the replica has caught up.
+// A client is the authenticated principal when there is one, otherwise the remote address.
+// Every read goes to the primary for the same window after any write generation moves, on this node or another:
+// responses, ETags and counts are cached under the current generation, and a replica read that predates the
+// write would be served as that generation until the next one.
+@Component
+public class ReadYourWritesTracker {
+
+	private static final int MAX_CLIENTS = 50_000;
+
+	private final ConcurrentHashMap<String, Long> recentWriters = new ConcurrentHashMap<>();
+	private final WriteGeneration writeGeneration;
+	private final long windowNanos;
+
+	public ReadYourWritesTracker(WriteGeneration writeGeneration,
+			@Value("${app.datasource.read-your-writes-ms:5000}") long windowMs) {
+		this.writeGeneration = writeGeneration;
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+	}
+
+	public void markWrite() {
+		String client = currentClient();
+		if (client == null || windowNanos <= 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		if (recentWriters.size() >= MAX_CLIENTS) {
+			recentWriters.entrySet().removeIf(e -> now - e.getValue() > 0);
+		}
+		recentWriters.put(client, now + windowNanos);
+	}
+
+	public boolean mustReadFromPrimary() {
+		if (writeGeneration.changedWithin(windowNanos)) {
+			return true;
+		}
+		if (recentWriters.isEmpty()) {
+			return false;
+		}
+		String client = currentClient();
+		if (client == null) {
+			return false;
+		}
+		Long until = recentWriters.get(client);
+		if (until == null) {
+			return false;
+		}
+		if (System.nanoTime() - until > 0) {
+			recentWriters.remove(client, until);
+			return false;
+		}
+		return true;
+	}
+
+	private static String currentClient() {
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken) && auth.getName() != null) {
+			return "user:" + auth.getName();
+		}
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes servletAttributes) {
+			HttpServletRequest request = servletAttributes.getRequest();
+			return "ip:" + request.getRemoteAddr();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,25 @@
+package com.examly.springapp.history;
+
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+// Dashboard row for a user's own feedback: the comment preview instead of the comment body, and the category
+// flattened to id and name. Selected by a constructor expression, so no entity or comment row is loaded.
+public record FeedbackSummary(Long id, String productId, int rating, String commentPreview, FeedbackStatus status,
+		Long categoryId, String categoryName, LocalDateTime createdAt) {
+
+	// History order: newest first, id breaking ties
+	static final Comparator<FeedbackSummary> NEWEST_FIRST = Comparator.comparing(FeedbackSummary::createdAt)
+			.thenComparing(FeedbackSummary::id)
+			.reversed();
+
+	// Call inside the writing transaction: the category name may need its lazy proxy initialised
+	public static FeedbackSummary of(Feedback fb) {
+		return new FeedbackSummary(fb.getId(), fb.getProductId(), fb.getRating(), fb.getCommentPreview(), fb.getStatus(),
+				fb.getCategory() == null ? null : fb.getCategory().getId(),
+				fb.getCategory() == null ? null : fb.getCategory().getName(), fb.getCreatedAt());
+	}
+}
@@ -0,0 +1,41 @@
+package com.examly.springapp.history;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Keyset position in a user's history: the (createdAt, id) of the last row of the previous page.
+// Encoded as "<createdAt in microseconds>_<id>", the precision the feedback table stores.
+public record HistoryCursor(LocalDateTime createdAt, long id) {
+
+	public static HistoryCursor after(FeedbackSummary row) {
+		return new HistoryCursor(row.createdAt(), row.id());
+	}
+
+	// Null for a blank token (the first page)
+	public static HistoryCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		int split = token.indexOf('_');
+		try {
+			long micros = Long.parseLong(token.substring(0, split));
+			long id = Long.parseLong(token.substring(split + 1));
+			LocalDateTime createdAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+					(int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+			return new HistoryCursor(createdAt, id);
+		} catch (RuntimeException e) {
+			throw new InvalidCursorException(token);
+		}
+	}
+
+	public String encode() {
+		long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + createdAt.getNano() / 1_000;
+		return micros + "_" + id;
+	}
+
+	// True if the row comes after this position in newest-first order
+	boolean precedes(FeedbackSummary row) {
+		int c = row.createdAt().compareTo(createdAt);
+		return c < 0 || (c == 0 && row.id() < id);
+	}
+}
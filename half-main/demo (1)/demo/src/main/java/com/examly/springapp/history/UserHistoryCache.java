@@ -0,0 +1,227 @@
+package com.examly.springapp.history;
+
+import com.examly.springapp.cache.InvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// The newest `entries-per-user` history rows of recently viewed users (LRU over `max-users`). A first-page miss
+// loads that whole prefix, so the following pages of a dashboard come from memory too. Feedback writes patch
+// the cached prefix in place after commit instead of dropping it; other nodes' writes evict the user via the
+// invalidation bus. A write that lands while a prefix is being loaded discards the load rather than race it.
+// The loader is expected to merge archived rows in, as FeedbackServiceImpl does, so the prefix is the full history.
+@Component
+public class UserHistoryCache {
+
+	public interface Loader {
+		// Up to `limit` rows after the cursor (from the newest row when null), newest first
+		List<FeedbackSummary> load(HistoryCursor cursor, int limit);
+	}
+
+	private final int entriesPerUser;
+	private final long ttlNanos;
+	private final Map<String, Entry> users;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public UserHistoryCache(InvalidationBus bus,
+			@Value("${app.history.cache.entries-per-user:40}") int entriesPerUser,
+			@Value("${app.history.cache.max-users:2000}") int maxUsers,
+			@Value("${app.history.cache.ttl-seconds:300}") long ttlSeconds) {
+		this.entriesPerUser = entriesPerUser;
+		this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+		this.users = new LinkedHashMap<>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxUsers;
+			}
+		};
+		bus.subscribe(InvalidationBus.USER_HISTORY, this::evict);
+		bus.subscribe(InvalidationBus.FEEDBACK, key -> {
+			if (InvalidationBus.ALL.equals(key)) {
+				clear();
+			}
+		});
+	}
+
+	// `limit` rows after the cursor, served from the cached prefix when it covers them
+	public List<FeedbackSummary> page(String userId, HistoryCursor cursor, int limit, Loader loader) {
+		Entry entry;
+		synchronized (users) {
+			entry = users.get(userId);
+		}
+		if (entry != null) {
+			List<FeedbackSummary> rows = entry.slice(cursor, limit, System.nanoTime());
+			if (rows != null) {
+				hits.incrementAndGet();
+				return rows;
+			}
+		}
+		misses.incrementAndGet();
+		if (cursor != null || entriesPerUser <= 0) {
+			return loader.load(cursor, limit);
+		}
+
+		Entry loading = new Entry();
+		synchronized (users) {
+			users.put(userId, loading);
+		}
+		// One row past the prefix tells whether the prefix is the user's whole history
+		List<FeedbackSummary> rows = loader.load(null, Math.max(limit, entriesPerUser + 1));
+		if (!loading.fill(rows, entriesPerUser, System.nanoTime() + ttlNanos)) {
+			synchronized (users) {
+				users.remove(userId, loading);
+			}
+		}
+		return rows.size() <= limit ? rows : List.copyOf(rows.subList(0, limit));
+	}
+
+	public void added(String userId, FeedbackSummary row) {
+		afterCommit(userId, entry -> entry.add(row, entriesPerUser));
+	}
+
+	public void replaced(String userId, FeedbackSummary row) {
+		afterCommit(userId, entry -> entry.replace(row));
+	}
+
+	public void removed(String userId, long id) {
+		afterCommit(userId, entry -> entry.remove(id));
+	}
+
+	public void evict(String userId) {
+		Entry entry;
+		synchronized (users) {
+			entry = users.remove(userId);
+		}
+		if (entry != null) {
+			entry.invalidate();
+		}
+	}
+
+	public void clear() {
+		synchronized (users) {
+			users.values().forEach(Entry::invalidate);
+			users.clear();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	private void afterCommit(String userId, Consumer<Entry> change) {
+		Runnable action = () -> {
+			Entry entry;
+			synchronized (users) {
+				entry = users.get(userId);
+			}
+			if (entry != null) {
+				change.accept(entry);
+			}
+		};
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	// Newest-first prefix of one user's history; `complete` when it holds every row the user has
+	private static final class Entry {
+		private List<FeedbackSummary> rows;
+		private boolean complete;
+		private boolean stale;
+		private long expiresAt;
+
+		synchronized List<FeedbackSummary> slice(HistoryCursor cursor, int limit, long now) {
+			if (rows == null || stale || now - expiresAt >= 0) {
+				return null;
+			}
+			int start = 0;
+			if (cursor != null) {
+				while (start < rows.size() && !cursor.precedes(rows.get(start))) {
+					start++;
+				}
+			}
+			if (start + limit <= rows.size()) {
+				return List.copyOf(rows.subList(start, start + limit));
+			}
+			return complete ? List.copyOf(rows.subList(start, rows.size())) : null;
+		}
+
+		// False when a write or eviction arrived during the load, which may then have missed it
+		synchronized boolean fill(List<FeedbackSummary> loaded, int capacity, long expiresAt) {
+			if (stale) {
+				return false;
+			}
+			this.rows = new ArrayList<>(loaded.subList(0, Math.min(capacity, loaded.size())));
+			this.complete = loaded.size() <= capacity;
+			this.expiresAt = expiresAt;
+			return true;
+		}
+
+		synchronized void add(FeedbackSummary row, int capacity) {
+			if (rows == null) {
+				stale = true;
+				return;
+			}
+			// Already loaded: the write committed before the prefix was read but its afterCommit ran after the fill
+			for (FeedbackSummary r : rows) {
+				if (r.id().equals(row.id())) {
+					return;
+				}
+			}
+			int at = 0;
+			while (at < rows.size() && FeedbackSummary.NEWEST_FIRST.compare(rows.get(at), row) < 0) {
+				at++;
+			}
+			// Older than everything cached and the prefix is partial: the row lies beyond it
+			if (at == rows.size() && !complete) {
+				return;
+			}
+			rows.add(at, row);
+			if (rows.size() > capacity) {
+				rows.remove(rows.size() - 1);
+				complete = false;
+			}
+		}
+
+		synchronized void replace(FeedbackSummary row) {
+			if (rows == null) {
+				stale = true;
+				return;
+			}
+			rows.replaceAll(r -> r.id().equals(row.id()) ? row : r);
+		}
+
+		synchronized void remove(long id) {
+			if (rows == null) {
+				stale = true;
+				return;
+			}
+			rows.removeIf(r -> r.id() == id);
+		}
+
+		synchronized void invalidate() {
+			stale = true;
+		}
+	}
+}
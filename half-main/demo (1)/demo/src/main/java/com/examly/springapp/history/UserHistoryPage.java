@@ -0,0 +1,8 @@
+package com.examly.springapp.history;
+
+import java.util.List;
+
+// One page of a user's history, as FeedbackSummary or, for a sparse fieldset, FeedbackRow items.
+// Pass `next` back as `before` for the following page (null on the last page).
+public record UserHistoryPage(List<?> items, String next) {
+}
@@ -0,0 +1,436 @@
+package com.examly.springapp.ingest;
+
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.model.FeedbackComment;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.rating.ProductRatingTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Offline loader for historical feedback. One thread streams the input file and cuts it into fixed-size chunks;
+// a pool of workers converts each chunk and writes it with multi-row INSERTs, recording the chunk in
+// bulk_load_chunk within the same transaction. Ids are assigned from the record's position (base + n), so the
+// comment and feedback rows link up without reading generated keys back, and a rerun after an interruption skips
+// recorded chunks and writes the rest to exactly the ids the first run would have used.
+//
+// Bypasses the JPA layer, the duplicate filter and the column store; running nodes are told to reload through a
+// single region-wide cache invalidation when the load finishes. The feedback table is shared with those nodes, so
+// its indexes stay in place while the load runs.
+@Slf4j
+@Component
+@Profile("bulk-load")
+public class BulkFeedbackLoader {
+
+	// Ids handed out by live inserts between reading the identity and moving it stay below the reserved range
+	private static final long ID_MARGIN = 1_000;
+	private static final int LOGGED_REJECTS = 20;
+
+	private static final String FEEDBACK_COLUMNS = "id, user_id, product_id, rating, comment_id, comment_preview, "
+			+ "submitter_name, submitter_email, status, category_id, created_at";
+
+	public record Result(long records, long loaded, long rejected, long skippedChunks, long millis) {
+	}
+
+	private final JdbcTemplate jdbc;
+	private final TransactionTemplate transactions;
+	private final InvalidationBus invalidationBus;
+	private final BulkLoadProperties properties;
+	private final BulkLoadCheckpoint checkpoint;
+	private final ProductRatingTable ratings;
+
+	public BulkFeedbackLoader(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+			InvalidationBus invalidationBus, BulkLoadProperties properties, ProductRatingTable ratings) {
+		this.jdbc = jdbc;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.invalidationBus = invalidationBus;
+		this.properties = properties;
+		this.ratings = ratings;
+		this.checkpoint = new BulkLoadCheckpoint(jdbc);
+	}
+
+	public Result load(Path file) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		String source = file.toAbsolutePath().normalize().toString();
+		long size = Files.size(file);
+		long modified = Files.getLastModifiedTime(file).toMillis();
+		checkpoint.createTables();
+		ratings.createTable();
+
+		BulkLoadCheckpoint.Job job = checkpoint.find(source);
+		if (job != null && job.finishedAt() != null) {
+			log.info("{} was already loaded at {}; delete its bulk_load_job and bulk_load_chunk rows to load it again",
+					source, job.finishedAt());
+			return new Result(job.totalRecords(), 0, 0, 0, 0);
+		}
+		if (job != null && (job.fileSize() != size || job.fileModified() != modified)) {
+			throw new IllegalStateException(source + " changed since its interrupted load started; restore the original "
+					+ "file or delete its bulk_load_job and bulk_load_chunk rows");
+		}
+		if (job == null) {
+			job = begin(file, source, size, modified);
+		} else {
+			log.info("Resuming bulk load of {} ({} records)", source, job.totalRecords());
+		}
+
+		long[] earlier = checkpoint.totals(source);
+		Counters counters = new Counters(earlier[1]);
+		long skipped = run(file, job, counters);
+
+		checkpoint.finish(source);
+		invalidationBus.publish(InvalidationBus.FEEDBACK, InvalidationBus.ALL);
+		invalidationBus.publish(InvalidationBus.PRODUCT_RATING, InvalidationBus.ALL);
+		if (counters.categories.getCreatedCount() > 0) {
+			invalidationBus.publish(InvalidationBus.CATEGORY, InvalidationBus.ALL);
+		}
+		invalidationBus.flush();
+
+		long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		long loaded = counters.loaded.get();
+		log.info("Bulk load of {} finished: {} rows loaded ({} earlier), {} rejected, {} chunks skipped as already loaded, "
+						+ "{} ms ({} rows/min)", source, loaded, earlier[0], counters.rejected.get(), skipped, millis,
+				millis == 0 ? loaded : loaded * 60_000 / millis);
+		return new Result(job.totalRecords(), loaded, counters.rejected.get(), skipped, millis);
+	}
+
+	private BulkLoadCheckpoint.Job begin(Path file, String source, long size, long modified) throws IOException {
+		long total = 0;
+		try (LegacyRecordReader reader = open(file)) {
+			while (reader.next() != null) {
+				total++;
+			}
+		}
+		String product = databaseProduct();
+		long feedbackBase = lastUsedId(product, "feedback") + ID_MARGIN;
+		long commentBase = lastUsedId(product, "feedback_comment") + ID_MARGIN;
+		reserveIds(product, "feedback", feedbackBase + total + 1);
+		reserveIds(product, "feedback_comment", commentBase + total + 1);
+
+		BulkLoadCheckpoint.Job job = new BulkLoadCheckpoint.Job(source, size, modified, Math.max(1, properties.getChunkSize()),
+				feedbackBase, commentBase, total, null);
+		checkpoint.start(job);
+		log.info("Bulk loading {} records from {} into feedback ids {}..{}", total, source, feedbackBase + 1,
+				feedbackBase + total);
+		return job;
+	}
+
+	private long run(Path file, BulkLoadCheckpoint.Job job, Counters counters) throws IOException, InterruptedException {
+		BitSet done = checkpoint.completedChunks(job.source());
+		int workers = properties.getWorkers() > 0 ? properties.getWorkers() : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threads = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+			Thread t = new Thread(r, "bulk-load-" + threads.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		// Bounds the parsed chunks held in memory while the workers are behind the reader
+		Semaphore inFlight = new Semaphore(workers * 2);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		long progressNanos = TimeUnit.SECONDS.toNanos(Math.max(1, properties.getProgressSeconds()));
+		long started = System.nanoTime();
+		long lastProgress = started;
+		int chunkSize = job.chunkSize();
+		long skipped = 0;
+		long chunk = 0;
+		long records = 0;
+		List<String[]> batch = new ArrayList<>(chunkSize);
+
+		try (LegacyRecordReader reader = open(file)) {
+			while (failure.get() == null) {
+				String[] record = reader.next();
+				if (record != null) {
+					if (++records > job.totalRecords()) {
+						throw new IllegalStateException(job.source() + " has more records than when its load started");
+					}
+					// Chunks already recorded are still read, to keep record positions, but not kept
+					if (!done.get((int) chunk)) {
+						batch.add(record);
+					}
+				}
+				long inChunk = records - chunk * chunkSize;
+				if (inChunk == chunkSize || (record == null && inChunk > 0)) {
+					if (done.get((int) chunk)) {
+						skipped++;
+					} else {
+						submit(pool, inFlight, failure, job, chunk, batch, counters);
+						batch = new ArrayList<>(chunkSize);
+					}
+					chunk++;
+				}
+				if (record == null) {
+					break;
+				}
+				if (System.nanoTime() - lastProgress > progressNanos) {
+					lastProgress = System.nanoTime();
+					long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(lastProgress - started));
+					log.info("Bulk load {}: read {} of {} records, {} rows written ({} rows/min), {} rejected", job.source(),
+							records, job.totalRecords(), counters.loaded.get(), counters.loaded.get() * 60_000 / elapsedMs,
+							counters.rejected.get());
+				}
+			}
+		} finally {
+			pool.shutdown();
+			if (!pool.awaitTermination(1, TimeUnit.HOURS)) {
+				pool.shutdownNow();
+			}
+		}
+		if (failure.get() != null) {
+			throw new IllegalStateException("Bulk load of " + job.source() + " stopped; loaded chunks are checkpointed "
+					+ "and a rerun resumes after them", failure.get());
+		}
+		return skipped;
+	}
+
+	private void submit(ExecutorService pool, Semaphore inFlight, AtomicReference<Throwable> failure,
+			BulkLoadCheckpoint.Job job, long chunk, List<String[]> records, Counters counters) throws InterruptedException {
+		inFlight.acquire();
+		try {
+			pool.execute(() -> {
+				try {
+					if (failure.get() == null) {
+						write(job, chunk, records, counters);
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					inFlight.release();
+				}
+			});
+		} catch (RuntimeException e) {
+			inFlight.release();
+			throw e;
+		}
+	}
+
+	private void write(BulkLoadCheckpoint.Job job, long chunk, List<String[]> records, Counters counters) {
+		long first = chunk * job.chunkSize();
+		List<Object[]> feedback = new ArrayList<>(records.size());
+		List<Object[]> comments = new ArrayList<>(records.size());
+		int rejected = 0;
+		for (int i = 0; i < records.size(); i++) {
+			long position = first + i;
+			try {
+				convert(records.get(i), job.feedbackBase() + position + 1, job.commentBase() + position + 1,
+						counters.categories, feedback, comments);
+			} catch (IllegalArgumentException e) {
+				rejected++;
+				reject(position, e.getMessage(), counters);
+			}
+		}
+		int rejectedInChunk = rejected;
+		// Product rating aggregates move in the chunk's transaction, so a resumed load never counts a row twice
+		ProductRatingTable.Changes rated = new ProductRatingTable.Changes();
+		for (Object[] row : feedback) {
+			rated.add((String) row[2], ((Timestamp) row[10]).toLocalDateTime().toLocalDate(), (Integer) row[3], 1);
+		}
+		transactions.executeWithoutResult(status -> {
+			insert("feedback_comment", "id, text", comments);
+			insert("feedback", FEEDBACK_COLUMNS, feedback);
+			ratings.apply(rated);
+			checkpoint.complete(job.source(), chunk, feedback.size(), rejectedInChunk);
+		});
+		counters.loaded.addAndGet(feedback.size());
+	}
+
+	private void convert(String[] r, long id, long commentId, CategoryLookup categories, List<Object[]> feedback,
+			List<Object[]> comments) {
+		String comment = optional(r[LegacyRecordReader.COMMENT], 500, "comment");
+		Object[] row = {
+				id,
+				required(r[LegacyRecordReader.USER_ID], "user_id"),
+				required(r[LegacyRecordReader.PRODUCT_ID], "product_id"),
+				rating(r[LegacyRecordReader.RATING]),
+				comment == null ? null : commentId,
+				FeedbackComment.preview(comment),
+				optional(r[LegacyRecordReader.SUBMITTER_NAME], 255, "submitter_name"),
+				optional(r[LegacyRecordReader.SUBMITTER_EMAIL], 255, "submitter_email"),
+				status(r[LegacyRecordReader.STATUS]).name(),
+				categories.resolve(r[LegacyRecordReader.CATEGORY]),
+				Timestamp.valueOf(createdAt(r[LegacyRecordReader.CREATED_AT]))
+		};
+		if (comment != null) {
+			comments.add(new Object[] {commentId, comment});
+		}
+		feedback.add(row);
+	}
+
+	private void insert(String table, String columns, List<Object[]> rows) {
+		if (rows.isEmpty()) {
+			return;
+		}
+		int width = rows.get(0).length;
+		int perStatement = Math.max(1, properties.getRowsPerStatement());
+		for (int from = 0; from < rows.size(); from += perStatement) {
+			List<Object[]> part = rows.subList(from, Math.min(rows.size(), from + perStatement));
+			StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (").append(columns).append(") VALUES ");
+			String tuple = "(" + "?, ".repeat(width - 1) + "?)";
+			for (int i = 0; i < part.size(); i++) {
+				sql.append(i == 0 ? "" : ", ").append(tuple);
+			}
+			jdbc.update(sql.toString(), ps -> {
+				int p = 1;
+				for (Object[] row : part) {
+					for (Object value : row) {
+						ps.setObject(p++, value);
+					}
+				}
+			});
+		}
+	}
+
+	private void reject(long position, String reason, Counters counters) {
+		long n = counters.rejected.incrementAndGet();
+		if (n <= LOGGED_REJECTS) {
+			log.warn("Rejected record {}: {}", position + 1, reason);
+		}
+		if (n > properties.getMaxRejects()) {
+			throw new IllegalStateException("More than " + properties.getMaxRejects() + " records rejected");
+		}
+	}
+
+	private LegacyRecordReader open(Path file) throws IOException {
+		return LegacyRecordReader.open(file, properties.getFormat(), properties.getCsvDelimiter());
+	}
+
+	private static String required(String value, String column) {
+		if (value == null || value.isBlank()) {
+			throw new IllegalArgumentException(column + " is missing");
+		}
+		return optional(value, 255, column);
+	}
+
+	private static String optional(String value, int maxLength, String column) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		String trimmed = value.trim();
+		if (trimmed.length() > maxLength) {
+			throw new IllegalArgumentException(column + " longer than " + maxLength + " characters");
+		}
+		return trimmed;
+	}
+
+	private static int rating(String value) {
+		try {
+			int rating = Integer.parseInt(value == null ? "" : value.trim());
+			if (rating >= 1 && rating <= 5) {
+				return rating;
+			}
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		throw new IllegalArgumentException("rating '" + value + "' is not 1-5");
+	}
+
+	private static FeedbackStatus status(String value) {
+		if (value == null || value.isBlank()) {
+			return FeedbackStatus.PENDING;
+		}
+		try {
+			return FeedbackStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("unknown status '" + value + "'");
+		}
+	}
+
+	// ISO local date-time (T or space separated), ISO with offset (converted to server time) or a bare date
+	static LocalDateTime createdAt(String value) {
+		if (value == null || value.isBlank()) {
+			return LocalDateTime.now();
+		}
+		String text = value.trim();
+		try {
+			if (text.length() == 10) {
+				return LocalDate.parse(text).atStartOfDay();
+			}
+			String iso = text.replace(' ', 'T');
+			if (iso.endsWith("Z") || iso.lastIndexOf('+') > 10 || iso.lastIndexOf('-') > 10) {
+				return OffsetDateTime.parse(iso).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+			}
+			return LocalDateTime.parse(iso);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("created_at '" + value + "' is not an ISO date-time");
+		}
+	}
+
+	// Ids of deleted or rolled-back rows are never handed out again, so the identity can be ahead of MAX(id)
+	private long lastUsedId(String product, String table) {
+		Long max = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+		Long next = nextIdentity(product, table);
+		return Math.max(max == null ? 0 : max, next == null ? 0 : next - 1);
+	}
+
+	private Long nextIdentity(String product, String table) {
+		if ("H2".equalsIgnoreCase(product)) {
+			return jdbc.queryForObject("SELECT IDENTITY_BASE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = SCHEMA() "
+					+ "AND UPPER(TABLE_NAME) = UPPER(?) AND UPPER(COLUMN_NAME) = 'ID'", Long.class, table);
+		}
+		if (!isMySql(product)) {
+			return null;
+		}
+		return jdbc.execute((ConnectionCallback<Long>) con -> {
+			JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+			if ("MySQL".equalsIgnoreCase(product)) {
+				// MySQL 8 otherwise answers from cached table statistics that can be a day old
+				session.execute("SET SESSION information_schema_stats_expiry = 0");
+			}
+			return session.queryForObject("SELECT AUTO_INCREMENT FROM information_schema.TABLES "
+					+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+		});
+	}
+
+	private String databaseProduct() {
+		return jdbc.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+	}
+
+	private static boolean isMySql(String product) {
+		return "MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product);
+	}
+
+	// Moves the identity past the reserved range so rows inserted by the running application cannot collide
+	private void reserveIds(String product, String table, long next) {
+		if (isMySql(product)) {
+			jdbc.execute("ALTER TABLE " + table + " AUTO_INCREMENT = " + next);
+		} else if ("H2".equalsIgnoreCase(product)) {
+			jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+		} else {
+			log.warn("Cannot move the {} identity on {}; avoid inserting feedback while the load runs", table, product);
+		}
+	}
+
+	private class Counters {
+		final AtomicLong loaded = new AtomicLong();
+		final AtomicLong rejected;
+		final CategoryLookup categories = new CategoryLookup(jdbc, properties.isCreateMissingCategories());
+
+		Counters(long rejectedEarlier) {
+			this.rejected = new AtomicLong(rejectedEarlier);
+		}
+	}
+}
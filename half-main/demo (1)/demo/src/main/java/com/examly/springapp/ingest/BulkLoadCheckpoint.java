@@ -0,0 +1,83 @@
+package com.examly.springapp.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+
+// Progress of bulk loads, kept in the target database. bulk_load_job fixes the id ranges and chunking of a load
+// so a rerun maps every record to the same ids; a bulk_load_chunk row is inserted in the same transaction as the
+// chunk's data, so a chunk is either fully loaded and recorded or neither.
+class BulkLoadCheckpoint {
+
+	record Job(String source, long fileSize, long fileModified, int chunkSize, long feedbackBase, long commentBase,
+			long totalRecords, Timestamp finishedAt) {
+	}
+
+	private final JdbcTemplate jdbc;
+
+	BulkLoadCheckpoint(JdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	void createTables() {
+		jdbc.execute("CREATE TABLE IF NOT EXISTS bulk_load_job ("
+				+ "source VARCHAR(512) NOT NULL PRIMARY KEY, "
+				+ "file_size BIGINT NOT NULL, "
+				+ "file_modified BIGINT NOT NULL, "
+				+ "chunk_size INT NOT NULL, "
+				+ "feedback_base BIGINT NOT NULL, "
+				+ "comment_base BIGINT NOT NULL, "
+				+ "total_records BIGINT NOT NULL, "
+				+ "started_at TIMESTAMP NOT NULL, "
+				+ "finished_at TIMESTAMP)");
+		jdbc.execute("CREATE TABLE IF NOT EXISTS bulk_load_chunk ("
+				+ "source VARCHAR(512) NOT NULL, "
+				+ "chunk BIGINT NOT NULL, "
+				+ "loaded INT NOT NULL, "
+				+ "rejected INT NOT NULL, "
+				+ "completed_at TIMESTAMP NOT NULL, "
+				+ "PRIMARY KEY (source, chunk))");
+	}
+
+	Job find(String source) {
+		List<Job> jobs = jdbc.query("SELECT source, file_size, file_modified, chunk_size, feedback_base, comment_base, "
+						+ "total_records, finished_at FROM bulk_load_job WHERE source = ?",
+				(rs, i) -> new Job(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getLong(5),
+						rs.getLong(6), rs.getLong(7), rs.getTimestamp(8)),
+				source);
+		return jobs.isEmpty() ? null : jobs.get(0);
+	}
+
+	void start(Job job) {
+		jdbc.update("INSERT INTO bulk_load_job (source, file_size, file_modified, chunk_size, feedback_base, comment_base, "
+						+ "total_records, started_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+				job.source(), job.fileSize(), job.fileModified(), job.chunkSize(), job.feedbackBase(), job.commentBase(),
+				job.totalRecords(), Timestamp.from(Instant.now()));
+	}
+
+	void finish(String source) {
+		jdbc.update("UPDATE bulk_load_job SET finished_at = ? WHERE source = ?", Timestamp.from(Instant.now()), source);
+	}
+
+	// Must run inside the transaction that wrote the chunk
+	void complete(String source, long chunk, int loaded, int rejected) {
+		jdbc.update("INSERT INTO bulk_load_chunk (source, chunk, loaded, rejected, completed_at) VALUES (?, ?, ?, ?, ?)",
+				source, chunk, loaded, rejected, Timestamp.from(Instant.now()));
+	}
+
+	BitSet completedChunks(String source) {
+		BitSet done = new BitSet();
+		jdbc.query("SELECT chunk FROM bulk_load_chunk WHERE source = ?", rs -> {
+			done.set((int) rs.getLong(1));
+		}, source);
+		return done;
+	}
+
+	long[] totals(String source) {
+		return jdbc.queryForObject("SELECT COALESCE(SUM(loaded), 0), COALESCE(SUM(rejected), 0) FROM bulk_load_chunk "
+				+ "WHERE source = ?", (rs, i) -> new long[] {rs.getLong(1), rs.getLong(2)}, source);
+	}
+}
@@ -0,0 +1,35 @@
+package com.examly.springapp.ingest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.bulk-load")
+public class BulkLoadProperties {
+
+	// Input file; the first non-option command line argument is used when this is blank
+	private String file = "";
+
+	// csv, ndjson, or auto (by file extension)
+	private String format = "auto";
+
+	private char csvDelimiter = ',';
+
+	// 0 = one worker per CPU; each worker holds a pooled connection while it writes a chunk
+	private int workers = 0;
+
+	// Records per chunk; a chunk is written and checkpointed in one transaction
+	private int chunkSize = 10_000;
+
+	// Rows per multi-row INSERT statement
+	private int rowsPerStatement = 500;
+
+	private boolean createMissingCategories = true;
+
+	// The load stops once more records than this have been rejected
+	private long maxRejects = 1_000;
+
+	private int progressSeconds = 10;
+}
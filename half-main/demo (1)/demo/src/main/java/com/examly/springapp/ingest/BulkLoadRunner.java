@@ -0,0 +1,40 @@
+package com.examly.springapp.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Command line mode: java -jar app.jar --spring.profiles.active=bulk-load /data/feedback-2019.csv
+// Loads the file (or app.bulk-load.file) and exits; a failed load exits non-zero and the same command resumes it.
+@Slf4j
+@Component
+@Profile("bulk-load")
+public class BulkLoadRunner implements ApplicationRunner {
+
+	private final BulkFeedbackLoader loader;
+	private final BulkLoadProperties properties;
+	private final ConfigurableApplicationContext context;
+
+	public BulkLoadRunner(BulkFeedbackLoader loader, BulkLoadProperties properties, ConfigurableApplicationContext context) {
+		this.loader = loader;
+		this.properties = properties;
+		this.context = context;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		String file = properties.getFile().isBlank()
+				? args.getNonOptionArgs().stream().findFirst()
+						.orElseThrow(() -> new IllegalArgumentException("No input file: pass a path or set app.bulk-load.file"))
+				: properties.getFile();
+		loader.load(Path.of(file));
+		// The scheduler's threads would otherwise keep the JVM running after the load
+		System.exit(SpringApplication.exit(context));
+	}
+}
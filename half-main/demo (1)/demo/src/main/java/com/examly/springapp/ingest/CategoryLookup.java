@@ -0,0 +1,86 @@
+package com.examly.springapp.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Category name -> id for the bulk loader, preloaded in one query so records resolve their category without a
+// lookup per row. Names compare case-insensitively, as the category table's unique index does on MySQL.
+@Slf4j
+class CategoryLookup {
+
+	private final JdbcTemplate jdbc;
+	private final boolean createMissing;
+	private final ConcurrentHashMap<String, Long> ids = new ConcurrentHashMap<>();
+	private final AtomicInteger created = new AtomicInteger();
+
+	CategoryLookup(JdbcTemplate jdbc, boolean createMissing) {
+		this.jdbc = jdbc;
+		this.createMissing = createMissing;
+		jdbc.query("SELECT id, name FROM category", rs -> {
+			ids.put(key(rs.getString(2)), rs.getLong(1));
+		});
+	}
+
+	// Null for a blank name. Called outside the chunk transactions, so a created category survives a failed chunk.
+	Long resolve(String name) {
+		if (name == null || name.isBlank()) {
+			return null;
+		}
+		String key = key(name);
+		Long id = ids.get(key);
+		if (id != null) {
+			return id;
+		}
+		if (!createMissing) {
+			throw new IllegalArgumentException("unknown category '" + name.trim() + "'");
+		}
+		synchronized (this) {
+			id = ids.get(key);
+			if (id == null) {
+				id = create(name.trim());
+				ids.put(key, id);
+			}
+		}
+		return id;
+	}
+
+	int getCreatedCount() {
+		return created.get();
+	}
+
+	private Long create(String name) {
+		if (name.length() > 255) {
+			throw new IllegalArgumentException("category name longer than 255 characters");
+		}
+		KeyHolder keys = new GeneratedKeyHolder();
+		try {
+			jdbc.update(con -> {
+				PreparedStatement ps = con.prepareStatement("INSERT INTO category (name, created_at) VALUES (?, ?)",
+						new String[] {"id"});
+				ps.setString(1, name);
+				ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+				return ps;
+			}, keys);
+		} catch (DuplicateKeyException e) {
+			// Created by the application since the preload
+			return jdbc.queryForObject("SELECT id FROM category WHERE name = ?", Long.class, name);
+		}
+		created.incrementAndGet();
+		log.info("Created category '{}' for bulk loaded feedback", name);
+		return keys.getKey().longValue();
+	}
+
+	private static String key(String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,111 @@
+package com.examly.springapp.ingest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 reader: a header row, then records whose fields may be quoted ("" escapes a quote) and span lines.
+// Hand-rolled over a char buffer so the loader's single reader thread keeps up with its writer pool.
+class CsvRecordReader implements LegacyRecordReader {
+
+	private final Reader in;
+	private final char delimiter;
+	private final char[] buf = new char[1 << 16];
+	private int pos;
+	private int limit;
+	private final List<String> fields = new ArrayList<>();
+	private final StringBuilder field = new StringBuilder();
+	private final int[] columnOf;
+	private long records;
+
+	CsvRecordReader(Reader in, char delimiter) throws IOException {
+		this.in = in;
+		this.delimiter = delimiter;
+		if (!readRecord()) {
+			throw new IllegalArgumentException("CSV input has no header row");
+		}
+		columnOf = new int[fields.size()];
+		for (int i = 0; i < fields.size(); i++) {
+			String name = fields.get(i);
+			columnOf[i] = LegacyRecordReader.column(i == 0 && name.startsWith("\uFEFF") ? name.substring(1) : name);
+		}
+	}
+
+	@Override
+	public String[] next() throws IOException {
+		while (readRecord()) {
+			records++;
+			if (fields.size() == 1 && fields.get(0).isEmpty()) {
+				continue;
+			}
+			String[] record = new String[COLUMNS.length];
+			int n = Math.min(fields.size(), columnOf.length);
+			for (int i = 0; i < n; i++) {
+				if (columnOf[i] >= 0) {
+					record[columnOf[i]] = fields.get(i);
+				}
+			}
+			return record;
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private boolean readRecord() throws IOException {
+		fields.clear();
+		field.setLength(0);
+		int c = read();
+		if (c == -1) {
+			return false;
+		}
+		boolean quoted = false;
+		boolean fieldStart = true;
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IllegalArgumentException("Unterminated quoted field after record " + records);
+				}
+				if (c == '"') {
+					c = read();
+					if (c != '"') {
+						quoted = false;
+						continue;
+					}
+				}
+				field.append((char) c);
+			} else if (c == '"' && fieldStart) {
+				quoted = true;
+				fieldStart = false;
+			} else if (c == delimiter) {
+				fields.add(field.toString());
+				field.setLength(0);
+				fieldStart = true;
+			} else if (c == '\n' || c == -1) {
+				break;
+			} else if (c != '\r') {
+				field.append((char) c);
+				fieldStart = false;
+			}
+			c = read();
+		}
+		fields.add(field.toString());
+		return true;
+	}
+
+	private int read() throws IOException {
+		if (pos == limit) {
+			limit = in.read(buf);
+			pos = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buf[pos++];
+	}
+}
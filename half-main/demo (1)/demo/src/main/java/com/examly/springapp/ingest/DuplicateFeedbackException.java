@@ -0,0 +1,11 @@
+package com.examly.springapp.ingest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateFeedbackException extends RuntimeException {
+	public DuplicateFeedbackException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,197 @@
+package com.examly.springapp.ingest;
+
+import com.examly.springapp.model.Feedback;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ingest-time near-duplicate check for public feedback. Keeps the SimHash of the last few comments per
+// product/submitter (small edits typically land within 6-8 bits), plus windowed counts per 16-bit SimHash band
+// across all submitters: two hashes within Hamming distance 3 must agree on at least one of the four bands, so a
+// templated flood from rotating e-mail addresses still lands in the same band buckets. A submission is only
+// remembered once its transaction commits, so a failed save can be retried without matching itself.
+@Slf4j
+@Component
+public class DuplicateSubmissionFilter {
+
+	public enum Verdict { ACCEPT, DUPLICATE, FLOOD }
+
+	private static final int RECENT_PER_KEY = 16;
+	private static final int MAX_KEYS = 200_000;
+
+	private final boolean enabled;
+	private final int maxDistance;
+	private final int floodThreshold;
+	private final int floodMinTokens;
+	private final long windowNanos;
+
+	private final ConcurrentHashMap<String, Recent> recentByKey = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, BandCount> bands = new ConcurrentHashMap<>();
+	private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+	public DuplicateSubmissionFilter(
+			@Value("${app.ingest.duplicate.enabled:true}") boolean enabled,
+			@Value("${app.ingest.duplicate.max-distance:6}") int maxDistance,
+			@Value("${app.ingest.duplicate.flood-threshold:50}") int floodThreshold,
+			@Value("${app.ingest.duplicate.flood-min-tokens:8}") int floodMinTokens,
+			@Value("${app.ingest.duplicate.window-minutes:60}") long windowMinutes) {
+		this.enabled = enabled;
+		this.maxDistance = maxDistance;
+		this.floodThreshold = floodThreshold;
+		this.floodMinTokens = floodMinTokens;
+		this.windowNanos = TimeUnit.MINUTES.toNanos(windowMinutes);
+	}
+
+	// Call inside the transaction that saves the feedback; the submission is recorded after it commits
+	public Verdict check(Feedback feedback) {
+		if (!enabled || feedback.getComment() == null || feedback.getComment().isBlank()) {
+			return Verdict.ACCEPT;
+		}
+		long now = System.nanoTime();
+		maybeSweep(now);
+
+		long hash = SimHash.of(feedback.getComment());
+		String key = feedback.getProductId() + "|" + submitter(feedback);
+		// Short comments ("great product") are legitimately common, so only longer text counts towards floods
+		boolean floodCandidate = SimHash.tokens(feedback.getComment()).size() >= floodMinTokens;
+		Verdict verdict = verdict(key, hash, floodCandidate, now);
+		afterCommit(() -> record(key, hash, floodCandidate, System.nanoTime()));
+		return verdict;
+	}
+
+	private Verdict verdict(String key, long hash, boolean floodCandidate, long now) {
+		Recent recent = recentByKey.get(key);
+		if (recent != null && recent.seen(hash, now, windowNanos, maxDistance)) {
+			return Verdict.DUPLICATE;
+		}
+		if (floodCandidate) {
+			int worst = 0;
+			for (int band = 0; band < 4; band++) {
+				BandCount count = bands.get(bandKey(band, hash));
+				if (count != null) {
+					worst = Math.max(worst, count.current(now, windowNanos));
+				}
+			}
+			// Including this submission
+			if (worst + 1 > floodThreshold) {
+				return Verdict.FLOOD;
+			}
+		}
+		return Verdict.ACCEPT;
+	}
+
+	private void record(String key, long hash, boolean floodCandidate, long now) {
+		Recent recent = recentByKey.get(key);
+		if (recent == null && recentByKey.size() < MAX_KEYS) {
+			recent = recentByKey.computeIfAbsent(key, k -> new Recent());
+		}
+		if (recent != null) {
+			recent.add(hash, now);
+		}
+		if (floodCandidate) {
+			for (int band = 0; band < 4; band++) {
+				bands.computeIfAbsent(bandKey(band, hash), k -> new BandCount()).increment(now, windowNanos);
+			}
+		}
+	}
+
+	private static long bandKey(int band, long hash) {
+		return ((long) band << 16) | ((hash >>> (band * 16)) & 0xFFFF);
+	}
+
+	// Anonymous submitters are told apart by address, so one visitor's repeats never block another's first review
+	private static String submitter(Feedback feedback) {
+		if (feedback.getSubmitterEmail() != null && !feedback.getSubmitterEmail().isBlank()) {
+			return feedback.getSubmitterEmail().trim().toLowerCase();
+		}
+		if (feedback.getUserId() != null) {
+			return feedback.getUserId();
+		}
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes servletAttributes) {
+			HttpServletRequest request = servletAttributes.getRequest();
+			return "ip:" + request.getRemoteAddr();
+		}
+		return "anonymous";
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	private void maybeSweep(long now) {
+		long due = nextSweep.get();
+		if (now - due >= 0 && nextSweep.compareAndSet(due, now + windowNanos / 4)) {
+			recentByKey.entrySet().removeIf(e -> e.getValue().idleSince(now, windowNanos));
+			bands.entrySet().removeIf(e -> e.getValue().expired(now, windowNanos));
+		}
+	}
+
+	private static final class Recent {
+		private final long[] hashes = new long[RECENT_PER_KEY];
+		private final long[] times = new long[RECENT_PER_KEY];
+		private int next;
+		private int filled;
+
+		synchronized boolean seen(long hash, long now, long windowNanos, int maxDistance) {
+			for (int i = 0; i < filled; i++) {
+				if (now - times[i] <= windowNanos && SimHash.distance(hashes[i], hash) <= maxDistance) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		synchronized void add(long hash, long now) {
+			hashes[next] = hash;
+			times[next] = now;
+			next = (next + 1) % RECENT_PER_KEY;
+			filled = Math.min(filled + 1, RECENT_PER_KEY);
+		}
+
+		synchronized boolean idleSince(long now, long windowNanos) {
+			int last = (next + RECENT_PER_KEY - 1) % RECENT_PER_KEY;
+			return filled == 0 || now - times[last] > windowNanos;
+		}
+	}
+
+	private static final class BandCount {
+		private long windowStart;
+		private int count;
+
+		synchronized int current(long now, long windowNanos) {
+			return now - windowStart > windowNanos ? 0 : count;
+		}
+
+		synchronized int increment(long now, long windowNanos) {
+			if (count == 0 || now - windowStart > windowNanos) {
+				windowStart = now;
+				count = 0;
+			}
+			return ++count;
+		}
+
+		synchronized boolean expired(long now, long windowNanos) {
+			return now - windowStart > windowNanos;
+		}
+	}
+}
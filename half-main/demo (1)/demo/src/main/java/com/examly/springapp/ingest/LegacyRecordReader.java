@@ -0,0 +1,66 @@
+package com.examly.springapp.ingest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Streams historical feedback records, one String[] per record in COLUMNS order (missing fields are null).
+// Field names are matched ignoring case, underscores and dashes, so user_id, userId and USER-ID are the same column.
+interface LegacyRecordReader extends Closeable {
+
+	String[] COLUMNS = {"user_id", "product_id", "rating", "comment", "submitter_name", "submitter_email", "status",
+			"category", "created_at"};
+
+	int USER_ID = 0;
+	int PRODUCT_ID = 1;
+	int RATING = 2;
+	int COMMENT = 3;
+	int SUBMITTER_NAME = 4;
+	int SUBMITTER_EMAIL = 5;
+	int STATUS = 6;
+	int CATEGORY = 7;
+	int CREATED_AT = 8;
+
+	// Next record, or null at end of input
+	String[] next() throws IOException;
+
+	static LegacyRecordReader open(Path file, String format, char csvDelimiter) throws IOException {
+		String resolved = format;
+		if (format == null || format.isBlank() || "auto".equalsIgnoreCase(format)) {
+			String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+			resolved = name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? "ndjson" : "csv";
+		}
+		InputStream in = Files.newInputStream(file);
+		try {
+			if ("ndjson".equalsIgnoreCase(resolved)) {
+				return new NdjsonRecordReader(in);
+			}
+			if ("csv".equalsIgnoreCase(resolved)) {
+				return new CsvRecordReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16),
+						csvDelimiter);
+			}
+		} catch (IOException | RuntimeException e) {
+			in.close();
+			throw e;
+		}
+		in.close();
+		throw new IllegalArgumentException("Unsupported bulk load format: " + format);
+	}
+
+	// Index into COLUMNS for a header or JSON field name, or -1 when the field is not loaded
+	static int column(String name) {
+		String key = name.replace("_", "").replace("-", "").trim().toLowerCase(Locale.ROOT);
+		for (int i = 0; i < COLUMNS.length; i++) {
+			if (COLUMNS[i].replace("_", "").equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
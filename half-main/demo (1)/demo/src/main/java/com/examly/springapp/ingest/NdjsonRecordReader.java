@@ -0,0 +1,64 @@
+package com.examly.springapp.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// One JSON object per line, read with the streaming parser so no tree or Map is built per record.
+// A nested category object contributes its name ({"category":{"name":"Delivery"}}); other nested values are skipped.
+class NdjsonRecordReader implements LegacyRecordReader {
+
+	private static final JsonFactory FACTORY = new JsonFactory();
+
+	private final JsonParser parser;
+
+	NdjsonRecordReader(InputStream in) throws IOException {
+		this.parser = FACTORY.createParser(in);
+	}
+
+	@Override
+	public String[] next() throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == null) {
+			return null;
+		}
+		if (token != JsonToken.START_OBJECT) {
+			throw new IllegalArgumentException("Expected a JSON object at line " + parser.currentLocation().getLineNr());
+		}
+		String[] record = new String[COLUMNS.length];
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			int column = LegacyRecordReader.column(parser.currentName());
+			JsonToken value = parser.nextToken();
+			if (value == JsonToken.START_OBJECT && column == CATEGORY) {
+				record[column] = categoryName();
+			} else if (value.isStructStart()) {
+				parser.skipChildren();
+			} else if (column >= 0 && value != JsonToken.VALUE_NULL) {
+				record[column] = parser.getText();
+			}
+		}
+		return record;
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+
+	private String categoryName() throws IOException {
+		String name = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (value.isStructStart()) {
+				parser.skipChildren();
+			} else if ("name".equals(field) && value != JsonToken.VALUE_NULL) {
+				name = parser.getText();
+			}
+		}
+		return name;
+	}
+}
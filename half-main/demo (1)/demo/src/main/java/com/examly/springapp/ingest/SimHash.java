@@ -0,0 +1,79 @@
+package com.examly.springapp.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 64-bit SimHash over words and word pairs: near-identical texts differ in only a few bits, so similarity
+// becomes a Hamming distance check on a single long.
+public final class SimHash {
+
+	private SimHash() {
+	}
+
+	public static long of(String text) {
+		List<String> tokens = tokens(text);
+		if (tokens.isEmpty()) {
+			return 0;
+		}
+		int[] weights = new int[64];
+		for (int i = 0; i < tokens.size(); i++) {
+			long unigram = fnv(0xcbf29ce484222325L, tokens.get(i));
+			accumulate(weights, mix(unigram));
+			if (i + 1 < tokens.size()) {
+				accumulate(weights, mix(fnv(fnv(unigram, " "), tokens.get(i + 1))));
+			}
+		}
+		long hash = 0;
+		for (int bit = 0; bit < 64; bit++) {
+			if (weights[bit] > 0) {
+				hash |= 1L << bit;
+			}
+		}
+		return hash;
+	}
+
+	private static void accumulate(int[] weights, long h) {
+		for (int bit = 0; bit < 64; bit++) {
+			weights[bit] += ((h >>> bit) & 1) == 1 ? 1 : -1;
+		}
+	}
+
+	public static int distance(long a, long b) {
+		return Long.bitCount(a ^ b);
+	}
+
+	static List<String> tokens(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		String lower = text.toLowerCase(Locale.ROOT);
+		int start = -1;
+		for (int i = 0; i <= lower.length(); i++) {
+			boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+			if (word && start < 0) {
+				start = i;
+			} else if (!word && start >= 0) {
+				tokens.add(lower.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	private static long fnv(long h, String s) {
+		for (int i = 0; i < s.length(); i++) {
+			h ^= s.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return h;
+	}
+
+	// Final avalanche so neighbouring shingles do not share low-bit patterns
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return z ^ (z >>> 33);
+	}
+}
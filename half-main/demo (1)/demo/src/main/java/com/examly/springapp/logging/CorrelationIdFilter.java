@@ -0,0 +1,71 @@
+package com.examly.springapp.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Tags every log event of a request with a correlation id (taken from X-Correlation-Id when the caller sent a
+// sane one, generated otherwise) and echoes it back. Runs first so the limiter and SQL warnings carry the id too.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "X-Correlation-Id";
+	public static final String MDC_KEY = "correlationId";
+
+	private static final int MAX_LENGTH = 64;
+
+	private final DebugSampling sampling;
+
+	public CorrelationIdFilter(DebugSampling sampling) {
+		this.sampling = sampling;
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain
+	) throws ServletException, IOException {
+		String id = request.getHeader(HEADER);
+		if (!isValid(id)) {
+			id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+		}
+		response.setHeader(HEADER, id);
+		MDC.put(MDC_KEY, id);
+		if (sampling.sample()) {
+			MDC.put(DebugSampling.MDC_KEY, "true");
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			MDC.remove(MDC_KEY);
+			MDC.remove(DebugSampling.MDC_KEY);
+		}
+	}
+
+	// Client-supplied ids end up in every log line, so only short token-like values are accepted
+	private static boolean isValid(String id) {
+		if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < id.length(); i++) {
+			char c = id.charAt(i);
+			boolean token = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_' || c == '.';
+			if (!token) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
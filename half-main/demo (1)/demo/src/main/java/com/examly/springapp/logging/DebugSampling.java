@@ -0,0 +1,92 @@
+package com.examly.springapp.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Enables DEBUG output for a random fraction of requests instead of for all of them. CorrelationIdFilter marks
+// a sampled request in the MDC; for those threads this turbo filter accepts DEBUG events from the configured
+// logger prefixes regardless of their level. Rate and prefixes can be changed at runtime (DebugSamplingEndpoint).
+@Component
+public class DebugSampling extends TurboFilter {
+
+	public static final String MDC_KEY = "debugSampled";
+
+	private volatile double rate;
+	private volatile List<String> loggers;
+	private LoggerContext loggerContext;
+
+	public DebugSampling(@Value("${app.logging.debug-sample-rate:0.0}") double rate,
+			@Value("${app.logging.debug-sample-loggers:com.examly.springapp}") String loggers) {
+		update(rate, loggers);
+	}
+
+	@PostConstruct
+	void register() {
+		if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+			loggerContext = context;
+			setContext(context);
+			setName("debug-sampling");
+			start();
+			context.addTurboFilter(this);
+		}
+	}
+
+	@PreDestroy
+	void unregister() {
+		if (loggerContext != null) {
+			loggerContext.getTurboFilterList().remove(this);
+			stop();
+		}
+	}
+
+	// Decided once per request, so every debug line of a sampled request is kept and none of the others
+	public boolean sample() {
+		double r = rate;
+		return r > 0 && (r >= 1 || ThreadLocalRandom.current().nextDouble() < r);
+	}
+
+	public void update(Double rate, String loggers) {
+		if (rate != null) {
+			this.rate = Math.min(Math.max(rate, 0), 1);
+		}
+		if (loggers != null) {
+			this.loggers = Arrays.stream(loggers.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+		}
+	}
+
+	public double getRate() {
+		return rate;
+	}
+
+	public List<String> getLoggers() {
+		return loggers;
+	}
+
+	@Override
+	public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+		if (level != Level.DEBUG || MDC.get(MDC_KEY) == null) {
+			return FilterReply.NEUTRAL;
+		}
+		String name = logger.getName();
+		for (String prefix : loggers) {
+			if (name.startsWith(prefix)) {
+				return FilterReply.ACCEPT;
+			}
+		}
+		return FilterReply.NEUTRAL;
+	}
+}
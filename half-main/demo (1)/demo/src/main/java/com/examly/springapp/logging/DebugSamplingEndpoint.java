@@ -0,0 +1,33 @@
+package com.examly.springapp.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/debugsampling shows the current sampling; POST {"rate": 0.01, "loggers": "com.examly.springapp"}
+// changes it without a restart. A rate of 0 turns sampled debug logging off.
+@Component
+@Endpoint(id = "debugsampling")
+public class DebugSamplingEndpoint {
+
+	private final DebugSampling sampling;
+
+	public DebugSamplingEndpoint(DebugSampling sampling) {
+		this.sampling = sampling;
+	}
+
+	@ReadOperation
+	public Map<String, Object> state() {
+		return Map.of("rate", sampling.getRate(), "loggers", sampling.getLoggers());
+	}
+
+	@WriteOperation
+	public Map<String, Object> update(@Nullable Double rate, @Nullable String loggers) {
+		sampling.update(rate, loggers);
+		return state();
+	}
+}
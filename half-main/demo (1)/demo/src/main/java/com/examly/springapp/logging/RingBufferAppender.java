@@ -0,0 +1,194 @@
+package com.examly.springapp.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Hands log events to a single writer thread through a fixed, preallocated ring. Request threads only claim a
+// slot with one CAS and never block: once the ring is `discardThreshold`% full, events below WARN are dropped,
+// and when it is full everything is dropped. Drops are counted and reported by the writer thread.
+//
+//   <appender name="ASYNC" class="com.examly.springapp.logging.RingBufferAppender">
+//       <capacity>8192</capacity>
+//       <appender-ref ref="CONSOLE"/>
+//   </appender>
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+	private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+	private final AtomicLong tail = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+
+	private int capacity = 8192;
+	private int discardThreshold = 80;
+	private long idleParkMicros = 1000;
+	private long shutdownFlushMillis = 1000;
+
+	private AtomicReferenceArray<ILoggingEvent> ring;
+	private int mask;
+	private long discardAt;
+	private volatile long head;
+	private volatile boolean running;
+	private Thread writer;
+
+	@Override
+	public void start() {
+		if (isStarted()) {
+			return;
+		}
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		ring = new AtomicReferenceArray<>(size);
+		mask = size - 1;
+		discardAt = (long) size * Math.min(Math.max(discardThreshold, 0), 100) / 100;
+		running = true;
+		writer = new Thread(this::drain, "log-ring-" + getName());
+		writer.setDaemon(true);
+		writer.start();
+		super.start();
+	}
+
+	@Override
+	public void stop() {
+		if (!isStarted()) {
+			return;
+		}
+		super.stop();
+		running = false;
+		LockSupport.unpark(writer);
+		try {
+			writer.join(shutdownFlushMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		appenders.detachAndStopAllAppenders();
+	}
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		boolean important = event.getLevel().toInt() >= Level.WARN_INT;
+		long slot;
+		do {
+			slot = tail.get();
+			long used = slot - head;
+			if (used > mask || (!important && used >= discardAt)) {
+				dropped.increment();
+				return;
+			}
+		} while (!tail.compareAndSet(slot, slot + 1));
+
+		// Freeze MDC, thread name and the formatted message while still on the caller's thread
+		event.prepareForDeferredProcessing();
+		ring.set((int) (slot & mask), event);
+	}
+
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	public int getQueuedCount() {
+		return (int) (tail.get() - head);
+	}
+
+	private void drain() {
+		long reportedDrops = 0;
+		long lastReport = System.nanoTime();
+		while (true) {
+			long next = head;
+			int index = (int) (next & mask);
+			ILoggingEvent event = ring.get(index);
+			if (event == null) {
+				// Either empty, or a producer has claimed the slot but not yet published into it
+				if (!running && next == tail.get()) {
+					return;
+				}
+				long drops = dropped.sum();
+				if (drops != reportedDrops && System.nanoTime() - lastReport > DROP_REPORT_INTERVAL_NANOS) {
+					reportDrops(drops - reportedDrops);
+					reportedDrops = drops;
+					lastReport = System.nanoTime();
+				}
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleParkMicros));
+				continue;
+			}
+			ring.lazySet(index, null);
+			head = next + 1;
+			try {
+				appenders.appendLoopOnAppenders(event);
+			} catch (RuntimeException e) {
+				addError("Downstream appender failed", e);
+			}
+		}
+	}
+
+	private void reportDrops(long count) {
+		Logger logger = ((LoggerContext) getContext()).getLogger(RingBufferAppender.class);
+		LoggingEvent event = new LoggingEvent(RingBufferAppender.class.getName(), logger, Level.WARN,
+				"Log ring buffer full: dropped {} events", null, new Object[]{count});
+		appenders.appendLoopOnAppenders(event);
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public void setDiscardThreshold(int discardThreshold) {
+		this.discardThreshold = discardThreshold;
+	}
+
+	public void setIdleParkMicros(long idleParkMicros) {
+		this.idleParkMicros = idleParkMicros;
+	}
+
+	public void setShutdownFlushMillis(long shutdownFlushMillis) {
+		this.shutdownFlushMillis = shutdownFlushMillis;
+	}
+
+	@Override
+	public void addAppender(Appender<ILoggingEvent> appender) {
+		appenders.addAppender(appender);
+	}
+
+	@Override
+	public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+		return appenders.iteratorForAppenders();
+	}
+
+	@Override
+	public Appender<ILoggingEvent> getAppender(String name) {
+		return appenders.getAppender(name);
+	}
+
+	@Override
+	public boolean isAttached(Appender<ILoggingEvent> appender) {
+		return appenders.isAttached(appender);
+	}
+
+	@Override
+	public void detachAndStopAllAppenders() {
+		appenders.detachAndStopAllAppenders();
+	}
+
+	@Override
+	public boolean detachAppender(Appender<ILoggingEvent> appender) {
+		return appenders.detachAppender(appender);
+	}
+
+	@Override
+	public boolean detachAppender(String name) {
+		return appenders.detachAppender(name);
+	}
+}
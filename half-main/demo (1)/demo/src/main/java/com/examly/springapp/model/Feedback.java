@@ -1,9 +1,17 @@
 package com.examly.springapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_feedback_created_at", columnList = "createdAt"),
+		@Index(name = "idx_feedback_user_history", columnList = "userId, createdAt, id")
+})
 public class Feedback {
 
 	@Id
@@ -14,25 +22,48 @@ public class Feedback {
 	private String productId;
 	private int rating;
 
-	@Column(length = 500)
-	private String comment;
+	// Full comment text lives in feedback_comment so list/count scans of this table stay narrow.
+	// It is loaded lazily (batch-fetched per page, see FeedbackComment) and exposed through getComment().
+	// Many-to-one only so that comment_id carries no unique key, which would block partitioning (see
+	// FeedbackPartitionManager); each comment still belongs to one row.
+	@JsonIgnore
+	@ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+	@JoinColumn(name = "comment_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+	private FeedbackComment commentBody;
+
+	@JsonIgnore
+	@Column(length = FeedbackComment.PREVIEW_LENGTH)
+	private String commentPreview;
+
+	// The inline column feedback_comment replaced, read through until FeedbackCommentMigration has copied the row;
+	// nodes of the previous release keep writing it during a rolling deploy. Never written by this version.
+	@JsonIgnore
+	@Column(name = "comment", length = 500, insertable = false, updatable = false)
+	private String legacyComment;
 
 	// New fields aligned with SRS filters
 	private String submitterName;
 	private String submitterEmail;
 
+	// A VARCHAR rather than MySQL's native enum, which needs DDL for every new status (see
+	// FeedbackStatusColumnMigration)
 	@Enumerated(EnumType.STRING)
+	@JdbcTypeCode(SqlTypes.VARCHAR)
+	@Column(length = 20)
 	private FeedbackStatus status;
 	
+	// No FK constraint: MySQL cannot partition a table that has foreign keys (see FeedbackPartitionManager)
 	@ManyToOne(fetch = FetchType.LAZY)
-	@JoinColumn(name = "category_id")
+	@JoinColumn(name = "category_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
 	private Category category;
   
+	@Column(nullable = false)
 	private LocalDateTime createdAt;
 
 	@PrePersist
 	public void onCreate() {
-		this.createdAt = LocalDateTime.now();
+		// Microseconds, as stored, so history cursors taken from a just-saved row match the database
+		this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 		if (this.status == null) {
 			this.status = FeedbackStatus.PENDING;
 		}
@@ -46,7 +77,7 @@ public class Feedback {
 		this.userId = userId;
 		this.productId = productId;
 		this.rating = rating;
-		this.comment = comment;
+		setComment(comment);
 		this.status = status;
 		this.createdAt = createdAt;
 	}
@@ -85,11 +116,22 @@ public class Feedback {
 	}
 
 	public String getComment() {
-		return comment;
+		return commentBody == null ? legacyComment : commentBody.getText();
 	}
 
 	public void setComment(String comment) {
-		this.comment = comment;
+		if (comment == null) {
+			this.commentBody = null;
+		} else if (this.commentBody == null) {
+			this.commentBody = new FeedbackComment(comment);
+		} else {
+			this.commentBody.setText(comment);
+		}
+		this.commentPreview = FeedbackComment.preview(comment);
+	}
+
+	public String getCommentPreview() {
+		return commentPreview != null ? commentPreview : FeedbackComment.preview(legacyComment);
 	}
 
 	public String getSubmitterName() {
@@ -0,0 +1,49 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
+// Cold half of a feedback row. BatchSize lets Hibernate initialise all comment proxies of a page in one query.
+@Entity
+@Table(name = "feedback_comment")
+@BatchSize(size = 100)
+public class FeedbackComment {
+
+	public static final int PREVIEW_LENGTH = 80;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(length = 500)
+	private String text;
+
+	public FeedbackComment() {}
+
+	public FeedbackComment(String text) {
+		this.text = text;
+	}
+
+	public static String preview(String text) {
+		if (text == null) {
+			return null;
+		}
+		return text.length() <= PREVIEW_LENGTH ? text : text.substring(0, PREVIEW_LENGTH);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public void setText(String text) {
+		this.text = text;
+	}
+}
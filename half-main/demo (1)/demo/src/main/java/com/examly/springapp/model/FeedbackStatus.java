@@ -1,5 +1,8 @@
 package com.examly.springapp.model;
 
 public enum FeedbackStatus {
-     PENDING, APPROVED, REJECTED;
+     PENDING, APPROVED, REJECTED,
+     // Held for moderation by the duplicate/flood check (app.ingest.duplicate.action=flag); appended last, archive
+     // segments store the ordinal
+     FLAGGED;
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.examly.springapp.monitoring;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-thread tally of the SQL statements executed while a request (or a test) is in scope.
+// Opened by QueryInspectionFilter for every request; tests can open their own to assert a query budget:
+//
+//   try (QueryContext ctx = QueryContext.begin()) {
+//       mockMvc.perform(get("/api/v1/admin/feedback"));
+//       ctx.assertAtMost(2);
+//   }
+public final class QueryContext implements AutoCloseable {
+
+	private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+	// Caps the number of distinct statement shapes tracked, so a pathological request cannot grow the map unbounded
+	private static final int MAX_SHAPES = 256;
+
+	private final QueryContext parent;
+	private final Map<String, Integer> shapes = new HashMap<>();
+	private int count;
+	private long totalNanos;
+
+	private QueryContext(QueryContext parent) {
+		this.parent = parent;
+	}
+
+	public static QueryContext begin() {
+		QueryContext ctx = new QueryContext(CURRENT.get());
+		CURRENT.set(ctx);
+		return ctx;
+	}
+
+	public static QueryContext current() {
+		return CURRENT.get();
+	}
+
+	// Lets `task` run on another thread while its statements still count against the context current here
+	public static Runnable inheritedBy(Runnable task) {
+		QueryContext ctx = CURRENT.get();
+		if (ctx == null) {
+			return task;
+		}
+		return () -> {
+			QueryContext previous = CURRENT.get();
+			CURRENT.set(ctx);
+			try {
+				task.run();
+			} finally {
+				if (previous == null) {
+					CURRENT.remove();
+				} else {
+					CURRENT.set(previous);
+				}
+			}
+		};
+	}
+
+	// Synchronized: worker threads running inherited tasks record into the same context as the request thread
+	synchronized void record(String sql, long nanos) {
+		count++;
+		totalNanos += nanos;
+		if (sql != null && (shapes.size() < MAX_SHAPES || shapes.containsKey(sql))) {
+			shapes.merge(sql, 1, Integer::sum);
+		}
+		if (parent != null) {
+			parent.record(sql, nanos);
+		}
+	}
+
+	public synchronized int getCount() {
+		return count;
+	}
+
+	public synchronized long getTotalNanos() {
+		return totalNanos;
+	}
+
+	// Statements executed at least `threshold` times, the usual signature of an N+1 lazy load
+	public synchronized Map<String, Integer> repeatedStatements(int threshold) {
+		Map<String, Integer> repeated = new LinkedHashMap<>();
+		shapes.forEach((sql, n) -> {
+			if (n >= threshold) {
+				repeated.put(sql, n);
+			}
+		});
+		return repeated;
+	}
+
+	public synchronized void assertAtMost(int maxStatements) {
+		if (count > maxStatements) {
+			throw new AssertionError("Expected at most " + maxStatements + " SQL statements but " + count
+					+ " were executed: " + shapes);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (CURRENT.get() == this) {
+			if (parent == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(parent);
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.examly.springapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Opens a QueryContext around each request and warns when the same statement repeats (N+1) or the budget is exceeded
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryInspectionFilter extends OncePerRequestFilter {
+
+	@Value("${app.sql.n-plus-one-threshold:5}")
+	private int nPlusOneThreshold;
+
+	@Value("${app.sql.request-budget:20}")
+	private int requestBudget;
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain
+	) throws ServletException, IOException {
+		try (QueryContext ctx = QueryContext.begin()) {
+			filterChain.doFilter(request, response);
+
+			if (ctx.getCount() == 0) {
+				return;
+			}
+			Map<String, Integer> repeated = ctx.repeatedStatements(nPlusOneThreshold);
+			if (!repeated.isEmpty()) {
+				log.warn("Possible N+1 on {} {}: {}", request.getMethod(), request.getRequestURI(), repeated);
+			}
+			if (ctx.getCount() > requestBudget) {
+				log.warn("{} {} executed {} SQL statements in {} ms (budget {})", request.getMethod(),
+						request.getRequestURI(), ctx.getCount(), TimeUnit.NANOSECONDS.toMillis(ctx.getTotalNanos()),
+						requestBudget);
+			}
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.examly.springapp.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Times every JDBC execute call with two nanoTime reads and logs only the slow ones (plus an optional random sample).
+// Replaces spring.jpa.show-sql / org.hibernate.SQL=DEBUG, which format and write every statement synchronously.
+@Slf4j
+public class QueryTimingDataSource extends DelegatingDataSource {
+
+	private final long slowThresholdNanos;
+	private final double sampleRate;
+
+	private final LongAdder statements = new LongAdder();
+	private final LongAdder slowStatements = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+
+	public QueryTimingDataSource(DataSource target, long slowThresholdMs, double sampleRate) {
+		super(target);
+		this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+		this.sampleRate = sampleRate;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrap(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(super.getConnection(username, password));
+	}
+
+	public long getStatementCount() {
+		return statements.sum();
+	}
+
+	public long getSlowStatementCount() {
+		return slowStatements.sum();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	private Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+				new ConnectionHandler(connection));
+	}
+
+	private void recordExecution(String sql, long nanos) {
+		statements.increment();
+		totalNanos.add(nanos);
+
+		QueryContext ctx = QueryContext.current();
+		if (ctx != null) {
+			ctx.record(sql, nanos);
+		}
+
+		if (nanos >= slowThresholdNanos) {
+			slowStatements.increment();
+			log.warn("Slow SQL ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql);
+		} else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+			log.info("Sampled SQL ({} us): {}", TimeUnit.NANOSECONDS.toMicros(nanos), sql);
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private class ConnectionHandler implements InvocationHandler {
+		private final Connection target;
+
+		ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = QueryTimingDataSource.invoke(target, method, args);
+			if (result instanceof Statement statement) {
+				String sql = (method.getName().startsWith("prepare") && args != null && args.length > 0)
+						? (String) args[0] : null;
+				Class<?> type = (statement instanceof CallableStatement) ? CallableStatement.class
+						: (statement instanceof PreparedStatement) ? PreparedStatement.class : Statement.class;
+				return Proxy.newProxyInstance(QueryTimingDataSource.class.getClassLoader(), new Class<?>[]{type},
+						new StatementHandler(statement, sql));
+			}
+			return result;
+		}
+	}
+
+	private class StatementHandler implements InvocationHandler {
+		private final Statement target;
+		private final String preparedSql;
+
+		StatementHandler(Statement target, String preparedSql) {
+			this.target = target;
+			this.preparedSql = preparedSql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (!method.getName().startsWith("execute")) {
+				return QueryTimingDataSource.invoke(target, method, args);
+			}
+			String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : preparedSql;
+			long start = System.nanoTime();
+			try {
+				return QueryTimingDataSource.invoke(target, method, args);
+			} finally {
+				recordExecution(sql, System.nanoTime() - start);
+			}
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package com.examly.springapp.pagination;
+
+// How a paginated endpoint obtains its total:
+//   EXACT  - count(*) run alongside the page query, reused only while no write has happened since
+//   CACHED - a count for the same filter is reused for a while even across writes (totals may lag slightly)
+//   NONE   - slice semantics: no count at all, the response only says whether a next page exists
+public enum CountMode {
+	EXACT,
+	CACHED,
+	NONE
+}
@@ -0,0 +1,235 @@
+package com.examly.springapp.pagination;
+
+import com.examly.springapp.datasource.ReadYourWritesTracker;
+import com.examly.springapp.monitoring.QueryContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Runs the count(*) of a paginated query on a worker thread (and so on its own pooled connection) while the
+// caller fetches the page, so latency is max(page, count) rather than their sum. Counts are remembered per
+// filter key: EXACT reuses one only under the same write generation, CACHED also within a short TTL.
+// Callers usually hold a pooled connection themselves, so they never wait for a worker that has no connection yet:
+// a worker claims a task only once its transaction holds one, and a task still unclaimed when the caller needs it
+// runs inline on the caller's connection (see Pending). A saturated pool therefore slows counts down, never hangs.
+// Workers inherit the caller's QueryContext, so their statements count against the request's budget.
+@Component
+public class ParallelPageLoader {
+
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	private final TransactionTemplate readOnly;
+	private final TransactionTemplate primary;
+	private final ReadYourWritesTracker readYourWrites;
+	private final long cachedTtlNanos;
+	private final Map<String, CachedCount> counts;
+
+	public ParallelPageLoader(PlatformTransactionManager transactionManager, ReadYourWritesTracker readYourWrites,
+			@Value("${app.pagination.count-threads:4}") int threads,
+			@Value("${app.pagination.count-cache-entries:512}") int maxEntries,
+			@Value("${app.pagination.cached-count-ttl-seconds:60}") long cachedTtlSeconds) {
+		this.readYourWrites = readYourWrites;
+		this.cachedTtlNanos = TimeUnit.SECONDS.toNanos(cachedTtlSeconds);
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+		this.primary = new TransactionTemplate(transactionManager);
+		this.counts = new LinkedHashMap<>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+				return size() > maxEntries;
+			}
+		};
+
+		// Bounded so counts never take more than `threads` connections; when saturated the caller counts inline
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(threads * 4);
+		executor.setThreadNamePrefix("page-count-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setTaskDecorator(task -> withMdc(QueryContext.inheritedBy(task)));
+		executor.initialize();
+	}
+
+	// `content` must return a Slice built from size + 1 rows so hasNext() is known without a count
+	public <T> Slice<T> load(Pageable pageable, CountMode mode, String countKey, long generation,
+			Supplier<Slice<T>> content, LongSupplier count) {
+		if (mode == CountMode.NONE) {
+			return content.get();
+		}
+		Long cached = cachedCount(countKey, generation, mode);
+		if (cached != null) {
+			return new PageImpl<>(content.get().getContent(), pageable, cached);
+		}
+
+		// Routing is decided on the caller's thread: the worker has no request or security context
+		TransactionTemplate template = readYourWrites.mustReadFromPrimary() ? primary : readOnly;
+		Pending<Long> pending = start(template, count::getAsLong);
+		Slice<T> slice;
+		try {
+			slice = content.get();
+		} catch (RuntimeException e) {
+			pending.cancel();
+			throw e;
+		}
+
+		long total;
+		if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+			// Last page: the total follows from the offset, so an unstarted count is dropped
+			pending.cancel();
+			total = pageable.getOffset() + slice.getNumberOfElements();
+		} else {
+			total = pending.join();
+		}
+		remember(countKey, generation, total);
+		return new PageImpl<>(slice.getContent(), pageable, total);
+	}
+
+	// Runs an independent read on a worker connection, routed as the caller's own reads would be. Only for leaf
+	// queries: a task that itself waited on this pool could starve it.
+	public <T> Pending<T> submit(Supplier<T> query) {
+		TransactionTemplate template = readYourWrites.mustReadFromPrimary() ? primary : readOnly;
+		return start(template, query);
+	}
+
+	// A read handed to the workers that whoever claims it first runs: a worker, or the caller in join(). Claiming
+	// happens inside the transaction, so a worker still waiting for a connection never holds up the caller.
+	public static final class Pending<T> {
+		private final TransactionTemplate template;
+		private final Supplier<T> query;
+		private final AtomicBoolean claimed = new AtomicBoolean();
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+
+		private Pending(TransactionTemplate template, Supplier<T> query) {
+			this.template = template;
+			this.query = query;
+		}
+
+		// Runs the query here (joining the caller's transaction if it has one) unless a worker already claimed it
+		public T join() {
+			run(true);
+			try {
+				return result.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException cause) {
+					throw cause;
+				}
+				throw e;
+			}
+		}
+
+		// Drops the query unless a worker is already running it
+		public void cancel() {
+			if (claimed.compareAndSet(false, true)) {
+				result.cancel(false);
+			}
+		}
+
+		private void run(boolean inline) {
+			if (claimed.get()) {
+				return;
+			}
+			boolean[] mine = new boolean[1];
+			try {
+				T value = template.execute(s -> {
+					if (!claimed.compareAndSet(false, true)) {
+						return null;
+					}
+					mine[0] = true;
+					return query.get();
+				});
+				if (mine[0]) {
+					result.complete(value);
+				}
+			} catch (RuntimeException | Error e) {
+				if (mine[0]) {
+					result.completeExceptionally(e);
+				} else if (inline) {
+					throw e;
+				}
+				// A worker that got no connection leaves the task to its caller
+			}
+		}
+	}
+
+	// Honours slice semantics for sources whose total comes for free (in-memory indexes, scans)
+	public static <T> Slice<T> asRequested(Page<T> page, CountMode mode) {
+		if (mode != CountMode.NONE) {
+			return page;
+		}
+		return new SliceImpl<>(page.getContent(), page.getPageable(), page.hasNext());
+	}
+
+	public void clear() {
+		synchronized (counts) {
+			counts.clear();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <T> Pending<T> start(TransactionTemplate template, Supplier<T> query) {
+		Pending<T> pending = new Pending<>(template, query);
+		executor.execute(() -> pending.run(false));
+		return pending;
+	}
+
+	private Long cachedCount(String key, long generation, CountMode mode) {
+		CachedCount entry;
+		synchronized (counts) {
+			entry = counts.get(key);
+		}
+		if (entry == null) {
+			return null;
+		}
+		if (entry.generation() == generation
+				|| (mode == CountMode.CACHED && System.nanoTime() - entry.computedAt() < cachedTtlNanos)) {
+			return entry.total();
+		}
+		return null;
+	}
+
+	private void remember(String key, long generation, long total) {
+		synchronized (counts) {
+			counts.put(key, new CachedCount(generation, total, System.nanoTime()));
+		}
+	}
+
+	// Carries the correlation id over, so slow-count warnings can be traced back to their request
+	private static Runnable withMdc(Runnable task) {
+		Map<String, String> mdc = MDC.getCopyOfContextMap();
+		return () -> {
+			if (mdc != null) {
+				MDC.setContextMap(mdc);
+			}
+			try {
+				task.run();
+			} finally {
+				MDC.clear();
+			}
+		};
+	}
+
+	private record CachedCount(long generation, long total, long computedAt) {
+	}
+}
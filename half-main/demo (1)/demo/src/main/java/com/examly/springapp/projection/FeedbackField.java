@@ -0,0 +1,75 @@
+package com.examly.springapp.projection;
+
+import com.examly.springapp.history.FeedbackSummary;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackComment;
+
+import java.util.function.Function;
+
+// Whitelist of feedback fields a client may request with `fields=`, each with the JPQL path it selects.
+// Category fields come from a left join on f.category (alias c), the comment body from f.commentBody (alias b).
+// Comment fields fall back to the legacy inline column for rows not migrated yet (see Feedback.legacyComment).
+public enum FeedbackField {
+
+	ID("id", "f.id", Feedback::getId, FeedbackSummary::id),
+	USER_ID("userId", "f.userId", Feedback::getUserId, null),
+	PRODUCT_ID("productId", "f.productId", Feedback::getProductId, FeedbackSummary::productId),
+	RATING("rating", "f.rating", Feedback::getRating, FeedbackSummary::rating),
+	STATUS("status", "f.status", Feedback::getStatus, FeedbackSummary::status),
+	CREATED_AT("createdAt", "f.createdAt", Feedback::getCreatedAt, FeedbackSummary::createdAt),
+	SUBMITTER_NAME("submitterName", "f.submitterName", Feedback::getSubmitterName, null),
+	SUBMITTER_EMAIL("submitterEmail", "f.submitterEmail", Feedback::getSubmitterEmail, null),
+	COMMENT_PREVIEW("commentPreview", FeedbackField.PREVIEW_PATH, Feedback::getCommentPreview,
+			FeedbackSummary::commentPreview),
+	COMMENT("comment", "coalesce(b.text, f.legacyComment)", Feedback::getComment, null),
+	CATEGORY_ID("categoryId", "c.id", fb -> fb.getCategory() == null ? null : fb.getCategory().getId(),
+			FeedbackSummary::categoryId),
+	CATEGORY_NAME("categoryName", "c.name", fb -> fb.getCategory() == null ? null : fb.getCategory().getName(),
+			FeedbackSummary::categoryName);
+
+	public static final String PREVIEW_PATH = "coalesce(f.commentPreview, substring(f.legacyComment, 1, "
+			+ FeedbackComment.PREVIEW_LENGTH + "))";
+
+	private final String jsonName;
+	private final String path;
+	private final Function<Feedback, Object> fromEntity;
+	private final Function<FeedbackSummary, Object> fromSummary;
+
+	FeedbackField(String jsonName, String path, Function<Feedback, Object> fromEntity,
+			Function<FeedbackSummary, Object> fromSummary) {
+		this.jsonName = jsonName;
+		this.path = path;
+		this.fromEntity = fromEntity;
+		this.fromSummary = fromSummary;
+	}
+
+	public String getJsonName() {
+		return jsonName;
+	}
+
+	String path() {
+		return path;
+	}
+
+	Object of(Feedback fb) {
+		return fromEntity.apply(fb);
+	}
+
+	// Null extractor: the field is not part of the history summary
+	Object of(FeedbackSummary summary) {
+		return fromSummary.apply(summary);
+	}
+
+	boolean inSummary() {
+		return fromSummary != null;
+	}
+
+	static FeedbackField byJsonName(String name) {
+		for (FeedbackField field : values()) {
+			if (field.jsonName.equals(name)) {
+				return field;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,126 @@
+package com.examly.springapp.projection;
+
+import com.examly.springapp.history.FeedbackSummary;
+import com.examly.springapp.model.Feedback;
+import jakarta.persistence.Tuple;
+
+import java.util.EnumSet;
+import java.util.List;
+
+// A validated `fields=` selection. Fields are kept in FeedbackField order whatever order the client listed them in,
+// so equal selections share one JPQL statement and one response-cache key. id is always selected.
+public final class FeedbackFieldSet {
+
+	private final FeedbackField[] fields;
+	private final int mask;
+
+	private FeedbackFieldSet(EnumSet<FeedbackField> selected) {
+		this.fields = selected.toArray(new FeedbackField[0]);
+		int bits = 0;
+		for (FeedbackField field : fields) {
+			bits |= 1 << field.ordinal();
+		}
+		this.mask = bits;
+	}
+
+	// Null when the parameter is absent or blank: the endpoint keeps returning full rows
+	public static FeedbackFieldSet parse(String fields) {
+		if (fields == null || fields.isBlank()) {
+			return null;
+		}
+		EnumSet<FeedbackField> selected = EnumSet.of(FeedbackField.ID);
+		for (String name : fields.split(",")) {
+			String trimmed = name.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			FeedbackField field = FeedbackField.byJsonName(trimmed);
+			if (field == null) {
+				throw new InvalidFieldsException(trimmed);
+			}
+			selected.add(field);
+		}
+		return new FeedbackFieldSet(selected);
+	}
+
+	public FeedbackFieldSet with(FeedbackField field) {
+		if (indexOf(field) >= 0) {
+			return this;
+		}
+		EnumSet<FeedbackField> selected = EnumSet.of(field, fields);
+		return new FeedbackFieldSet(selected);
+	}
+
+	FeedbackField[] fields() {
+		return fields;
+	}
+
+	public int indexOf(FeedbackField field) {
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i] == field) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Stable identifier of the selection, for statement names and cache keys
+	public String key() {
+		return Integer.toHexString(mask);
+	}
+
+	// True when every field is present in a history summary, so cached summaries can answer
+	public boolean inSummary() {
+		for (FeedbackField field : fields) {
+			if (!field.inSummary()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// SELECT and FROM clauses; joins are added only for the category and comment fields actually requested
+	public String selectFrom() {
+		StringBuilder jpql = new StringBuilder("SELECT ");
+		boolean category = false;
+		boolean comment = false;
+		for (int i = 0; i < fields.length; i++) {
+			jpql.append(i == 0 ? "" : ", ").append(fields[i].path());
+			category |= fields[i] == FeedbackField.CATEGORY_ID || fields[i] == FeedbackField.CATEGORY_NAME;
+			comment |= fields[i] == FeedbackField.COMMENT;
+		}
+		jpql.append(" FROM Feedback f");
+		if (category) {
+			jpql.append(" LEFT JOIN f.category c");
+		}
+		if (comment) {
+			jpql.append(" LEFT JOIN f.commentBody b");
+		}
+		return jpql.toString();
+	}
+
+	public FeedbackRow row(Tuple tuple) {
+		return new FeedbackRow(this, tuple.toArray());
+	}
+
+	public List<FeedbackRow> rows(List<Tuple> tuples) {
+		return tuples.stream().map(this::row).toList();
+	}
+
+	// For rows that are already in memory (archive segments, cached summaries)
+	public FeedbackRow row(Feedback fb) {
+		Object[] values = new Object[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			values[i] = fields[i].of(fb);
+		}
+		return new FeedbackRow(this, values);
+	}
+
+	public FeedbackRow row(FeedbackSummary summary) {
+		Object[] values = new Object[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			values[i] = fields[i].of(summary);
+		}
+		return new FeedbackRow(this, values);
+	}
+}
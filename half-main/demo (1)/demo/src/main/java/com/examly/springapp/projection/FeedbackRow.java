@@ -0,0 +1,32 @@
+package com.examly.springapp.projection;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+
+// One row of a sparse fieldset: the selected values in FeedbackFieldSet order, written as a flat JSON object
+// with only those properties
+@JsonSerialize(using = FeedbackRow.Serializer.class)
+public record FeedbackRow(FeedbackFieldSet fields, Object[] values) {
+
+	public Object get(FeedbackField field) {
+		int i = fields.indexOf(field);
+		return i < 0 ? null : values[i];
+	}
+
+	static class Serializer extends JsonSerializer<FeedbackRow> {
+		@Override
+		public void serialize(FeedbackRow row, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			gen.writeStartObject();
+			FeedbackField[] fields = row.fields().fields();
+			for (int i = 0; i < fields.length; i++) {
+				gen.writeFieldName(fields[i].getJsonName());
+				provider.defaultSerializeValue(row.values()[i], gen);
+			}
+			gen.writeEndObject();
+		}
+	}
+}
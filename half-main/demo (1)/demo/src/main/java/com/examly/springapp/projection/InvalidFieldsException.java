@@ -0,0 +1,11 @@
+package com.examly.springapp.projection;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFieldsException extends RuntimeException {
+	public InvalidFieldsException(String field) {
+		super("Unsupported field: " + field);
+	}
+}
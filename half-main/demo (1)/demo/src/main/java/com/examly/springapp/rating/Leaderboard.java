@@ -0,0 +1,67 @@
+package com.examly.springapp.rating;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// One window's per-product counts plus a sorted index over the products with enough ratings to rank. An update
+// is O(log N) and the best or worst K are read off either end of the index, so no query scans every product.
+// Not thread-safe; ProductRatingStore guards it.
+final class Leaderboard {
+
+	private record Ranked(String productId, RatingCounts counts) {
+	}
+
+	// Higher average first (compared as cross products, so no rounding), then more ratings, then product id
+	private static final Comparator<Ranked> BEST_FIRST = (a, b) -> {
+		int byAverage = Long.compare(b.counts.sum() * a.counts.count(), a.counts.sum() * b.counts.count());
+		if (byAverage != 0) {
+			return byAverage;
+		}
+		int byCount = Long.compare(b.counts.count(), a.counts.count());
+		return byCount != 0 ? byCount : a.productId.compareTo(b.productId);
+	};
+
+	private final int minRatings;
+	private final Map<String, Ranked> byProduct = new HashMap<>();
+	private final TreeSet<Ranked> ranking = new TreeSet<>(BEST_FIRST);
+
+	Leaderboard(int minRatings) {
+		this.minRatings = Math.max(1, minRatings);
+	}
+
+	void put(String productId, RatingCounts counts) {
+		Ranked current = counts.isEmpty() ? null : new Ranked(productId, counts.copy());
+		Ranked previous = current == null ? byProduct.remove(productId) : byProduct.put(productId, current);
+		if (previous != null) {
+			ranking.remove(previous);
+		}
+		if (current != null && counts.count() >= minRatings) {
+			ranking.add(current);
+		}
+	}
+
+	RatingCounts get(String productId) {
+		Ranked ranked = byProduct.get(productId);
+		return ranked == null ? new RatingCounts() : ranked.counts.copy();
+	}
+
+	void clear() {
+		byProduct.clear();
+		ranking.clear();
+	}
+
+	List<Map.Entry<String, RatingCounts>> top(RankOrder order, int k) {
+		List<Map.Entry<String, RatingCounts>> top = new ArrayList<>(Math.min(k, ranking.size()));
+		Iterator<Ranked> it = order == RankOrder.BEST ? ranking.iterator() : ranking.descendingIterator();
+		while (top.size() < k && it.hasNext()) {
+			Ranked ranked = it.next();
+			top.add(Map.entry(ranked.productId, ranked.counts.copy()));
+		}
+		return top;
+	}
+}
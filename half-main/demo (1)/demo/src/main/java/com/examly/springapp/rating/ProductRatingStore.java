@@ -0,0 +1,267 @@
+package com.examly.springapp.rating;
+
+import com.examly.springapp.archive.FeedbackArchive;
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.model.Feedback;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Rating count, average and histogram per product, all time and over trailing day windows (app.product-ratings.windows),
+// answered from memory. The durable copy is product_rating_daily, incremented inside each feedback write; after
+// commit the product's rows are re-read, so this node never applies a delta twice or out of order. Day buckets
+// inside the longest window are kept per product and the windows move forward when the date changes.
+@Slf4j
+@Component
+public class ProductRatingStore {
+
+	private final ProductRatingTable table;
+	private final FeedbackArchive archive;
+	private final TransactionTemplate primary;
+	private final int[] windows;
+	private final int retainDays;
+	private final int maxK;
+	private final Clock clock;
+
+	// Serialises the read-and-apply of one product, so an older read never overwrites a newer one
+	private final Object[] stripes = new Object[64];
+
+	private final Leaderboard allTime;
+	private final Map<Integer, Leaderboard> byWindow = new TreeMap<>();
+	private final Map<String, TreeMap<LocalDate, RatingCounts>> recent = new HashMap<>();
+	private final Set<String> changedWhileLoading = new HashSet<>();
+	private LocalDate today;
+	private boolean ready;
+
+	@Autowired
+	public ProductRatingStore(ProductRatingTable table, FeedbackArchive archive, InvalidationBus bus,
+			PlatformTransactionManager transactionManager,
+			@Value("${app.product-ratings.windows:1,7,30}") int[] windows,
+			@Value("${app.product-ratings.leaderboard-min-ratings:5}") int minRatings,
+			@Value("${app.product-ratings.max-k:100}") int maxK) {
+		this(table, archive, bus, transactionManager, windows, minRatings, maxK, Clock.systemDefaultZone());
+	}
+
+	ProductRatingStore(ProductRatingTable table, FeedbackArchive archive, InvalidationBus bus,
+			PlatformTransactionManager transactionManager, int[] windows, int minRatings, int maxK, Clock clock) {
+		this.table = table;
+		this.archive = archive;
+		this.primary = new TransactionTemplate(transactionManager);
+		this.windows = Arrays.stream(windows).filter(days -> days > 0).distinct().sorted().toArray();
+		this.retainDays = this.windows.length == 0 ? 0 : this.windows[this.windows.length - 1];
+		this.maxK = maxK;
+		this.clock = clock;
+		this.today = LocalDate.now(clock);
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new Object();
+		}
+		this.allTime = new Leaderboard(minRatings);
+		for (int days : this.windows) {
+			byWindow.put(days, new Leaderboard(minRatings));
+		}
+		bus.subscribe(InvalidationBus.PRODUCT_RATING, key -> {
+			if (InvalidationBus.ALL.equals(key)) {
+				load();
+			} else {
+				refresh(key);
+			}
+		});
+	}
+
+	// After the archive has opened its segments, which the first seed counts too
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+	public void load() {
+		synchronized (this) {
+			ready = false;
+		}
+		long start = System.nanoTime();
+		table.createTable();
+		if (!table.isSeeded()) {
+			seed();
+		}
+		LocalDate now = LocalDate.now(clock);
+		Map<String, RatingCounts> totals = table.totals();
+		Map<String, TreeMap<LocalDate, RatingCounts>> days = new HashMap<>();
+		if (retainDays > 0) {
+			table.forEachDaySince(now.minusDays(retainDays - 1),
+					(productId, day, counts) -> days.computeIfAbsent(productId, p -> new TreeMap<>()).put(day, counts));
+		}
+
+		List<String> changed;
+		synchronized (this) {
+			allTime.clear();
+			byWindow.values().forEach(Leaderboard::clear);
+			recent.clear();
+			today = now;
+			totals.forEach(allTime::put);
+			recent.putAll(days);
+			days.keySet().forEach(this::rank);
+			ready = true;
+			changed = List.copyOf(changedWhileLoading);
+			changedWhileLoading.clear();
+		}
+		// Writes committed while the table was being read
+		changed.forEach(this::refresh);
+		log.info("Product ratings loaded for {} products ({} rated in the last {} days) in {} ms", totals.size(),
+				days.size(), retainDays, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// Called inside the feedback write's transaction; this node's view follows after commit
+	public void recorded(Feedback fb) {
+		change(fb, 1);
+	}
+
+	public void removed(Feedback fb) {
+		change(fb, -1);
+	}
+
+	// Re-reads one product's day rows (a primary-key prefix range) and re-ranks it in every window
+	public void refresh(String productId) {
+		synchronized (stripes[Math.floorMod(productId.hashCode(), stripes.length)]) {
+			synchronized (this) {
+				if (!ready) {
+					changedWhileLoading.add(productId);
+					return;
+				}
+			}
+			LocalDate from = LocalDate.now(clock).minusDays(Math.max(retainDays - 1, 0));
+			RatingCounts total = new RatingCounts();
+			TreeMap<LocalDate, RatingCounts> days = new TreeMap<>();
+			table.forEachDay(productId, (p, day, counts) -> {
+				total.add(counts);
+				if (retainDays > 0 && !day.isBefore(from)) {
+					days.put(day, counts);
+				}
+			});
+			synchronized (this) {
+				roll();
+				allTime.put(productId, total);
+				if (days.isEmpty()) {
+					recent.remove(productId);
+				} else {
+					recent.put(productId, days);
+				}
+				rank(productId);
+			}
+		}
+	}
+
+	// O(1): a map lookup in the window's board
+	public synchronized ProductRatingSummary summary(String productId, Integer days) {
+		roll();
+		return ProductRatingSummary.of(productId, days, board(days).get(productId));
+	}
+
+	// The k best or worst products with at least leaderboard-min-ratings ratings in the window
+	public synchronized List<ProductRatingSummary> leaderboard(RankOrder order, Integer days, int k) {
+		roll();
+		int limit = Math.min(Math.max(k, 1), maxK);
+		return board(days).top(order, limit).stream()
+				.map(e -> ProductRatingSummary.of(e.getKey(), days, e.getValue()))
+				.toList();
+	}
+
+	@Scheduled(cron = "${app.product-ratings.rollover-cron:1 0 0 * * *}")
+	public synchronized void rollover() {
+		roll();
+	}
+
+	private Leaderboard board(Integer days) {
+		if (days == null) {
+			return allTime;
+		}
+		Leaderboard board = byWindow.get(days);
+		if (board == null) {
+			throw new UnknownWindowException(days, windows);
+		}
+		return board;
+	}
+
+	private void change(Feedback fb, int n) {
+		String productId = fb.getProductId();
+		if (productId == null) {
+			return;
+		}
+		table.apply(new ProductRatingTable.Changes().add(productId, ProductRatingTable.dayOf(fb.getCreatedAt()), fb.getRating(), n));
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					refresh(productId);
+				}
+			});
+		} else {
+			refresh(productId);
+		}
+	}
+
+	// Moves every window forward once the date has changed since the last ranking. Caller holds the monitor.
+	private void roll() {
+		LocalDate now = LocalDate.now(clock);
+		if (now.equals(today)) {
+			return;
+		}
+		today = now;
+		for (String productId : List.copyOf(recent.keySet())) {
+			rank(productId);
+		}
+	}
+
+	// Recomputes one product's window counts from its day buckets. Caller holds the monitor.
+	private void rank(String productId) {
+		TreeMap<LocalDate, RatingCounts> days = recent.get(productId);
+		if (days != null) {
+			days.headMap(today.minusDays(retainDays - 1)).clear();
+			if (days.isEmpty()) {
+				recent.remove(productId);
+				days = null;
+			}
+		}
+		for (Map.Entry<Integer, Leaderboard> window : byWindow.entrySet()) {
+			RatingCounts counts = new RatingCounts();
+			if (days != null) {
+				days.tailMap(today.minusDays(window.getKey() - 1)).values().forEach(counts::add);
+			}
+			window.getValue().put(productId, counts);
+		}
+	}
+
+	// Nodes starting together queue on the marker row; the first seeds and the rest find it done
+	// After the live feedback rows older than `cutoff` were removed outside the request path. Only this node's view
+	// follows; the caller publishes the reload for the others.
+	public void expireBefore(LocalDate cutoff) {
+		int rows = primary.execute(status -> table.recountBefore(cutoff, archive));
+		if (rows >= 0) {
+			log.info("Recounted {} before {}: {} product-day rows left", ProductRatingTable.TABLE, cutoff, rows);
+			load();
+		}
+	}
+
+	private void seed() {
+		int rows = primary.execute(status -> table.seed(archive));
+		if (rows >= 0) {
+			log.info("Seeded {} with {} product-day rows", ProductRatingTable.TABLE, rows);
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.examly.springapp.rating;
+
+import java.util.Map;
+
+// One product's ratings over a window (days = null for all time)
+public record ProductRatingSummary(String productId, Integer days, long count, double average, Map<Integer, Long> histogram) {
+
+	static ProductRatingSummary of(String productId, Integer days, RatingCounts counts) {
+		return new ProductRatingSummary(productId, days, counts.count(), Math.round(counts.average() * 100) / 100.0,
+				counts.histogram());
+	}
+}
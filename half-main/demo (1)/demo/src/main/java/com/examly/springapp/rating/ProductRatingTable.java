@@ -0,0 +1,237 @@
+package com.examly.springapp.rating;
+
+import com.examly.springapp.archive.FeedbackArchive;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Per-product, per-day rating aggregates. After the one-time seed, rows are only ever incremented, in the same
+// transaction as the feedback write they account for, so the table agrees with feedback plus the archive without
+// recounting either. Increments start once product_rating_seed records a finished seed; until then writers drop
+// their deltas and the seed counts their rows instead.
+@Component
+public class ProductRatingTable {
+
+	static final String TABLE = "product_rating_daily";
+	static final String SEED_TABLE = "product_rating_seed";
+
+	private static final String COUNTS = "rating_count, rating_sum, r1, r2, r3, r4, r5";
+
+	private static final int SEED_BATCH = 500;
+
+	// Legacy rows without a creation time count towards all-time totals on this day, outside every window
+	public static final LocalDate UNDATED = LocalDate.EPOCH;
+	private static final String DAY = "COALESCE(CAST(created_at AS DATE), DATE '" + UNDATED + "')";
+
+	private final JdbcTemplate jdbc;
+
+	// Never reset once a finished seed has been read
+	private volatile boolean seeded;
+
+	public ProductRatingTable(JdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	public interface DayCallback {
+		void accept(String productId, LocalDate day, RatingCounts counts);
+	}
+
+	// Deltas of one transaction, applied in (product, day) order so concurrent writers lock rows in the same order
+	public static final class Changes {
+		private final TreeMap<String, TreeMap<LocalDate, RatingCounts>> deltas = new TreeMap<>();
+
+		public Changes add(String productId, LocalDate day, int rating, long n) {
+			if (productId != null) {
+				deltas.computeIfAbsent(productId, p -> new TreeMap<>())
+						.computeIfAbsent(day, d -> new RatingCounts())
+						.add(rating, n);
+			}
+			return this;
+		}
+
+		public boolean isEmpty() {
+			return deltas.isEmpty();
+		}
+	}
+
+	public void createTable() {
+		jdbc.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+				+ "product_id VARCHAR(255) NOT NULL, "
+				+ "rating_day DATE NOT NULL, "
+				+ "rating_count BIGINT NOT NULL, "
+				+ "rating_sum BIGINT NOT NULL, "
+				+ "r1 BIGINT NOT NULL, r2 BIGINT NOT NULL, r3 BIGINT NOT NULL, r4 BIGINT NOT NULL, r5 BIGINT NOT NULL, "
+				+ "PRIMARY KEY (product_id, rating_day))");
+		jdbc.execute("CREATE TABLE IF NOT EXISTS " + SEED_TABLE + " (id INT NOT NULL PRIMARY KEY, seeded_at TIMESTAMP NULL)");
+		// A table without the marker row is seeded again, which also replaces one a failed seed left partial
+		if (jdbc.queryForList("SELECT id FROM " + SEED_TABLE, Integer.class).isEmpty()) {
+			try {
+				jdbc.update("INSERT INTO " + SEED_TABLE + " (id, seeded_at) VALUES (1, NULL)");
+			} catch (DuplicateKeyException e) {
+				// Another node created it
+			}
+		}
+	}
+
+	// Without locking; seed() checks again while holding the marker
+	public boolean isSeeded() {
+		if (!seeded) {
+			seeded = !jdbc.queryForList("SELECT id FROM " + SEED_TABLE + " WHERE seeded_at IS NOT NULL", Integer.class)
+					.isEmpty();
+		}
+		return seeded;
+	}
+
+	// Must run inside the transaction that writes the feedback rows. Until the table is seeded the deltas are
+	// dropped: the marker row stays locked to the end of this transaction, so a seed has either committed before
+	// it or waits for it and then counts its rows from feedback.
+	public void apply(Changes changes) {
+		if (changes.isEmpty() || !lockSeeded()) {
+			return;
+		}
+		for (Map.Entry<String, TreeMap<LocalDate, RatingCounts>> product : changes.deltas.entrySet()) {
+			for (Map.Entry<LocalDate, RatingCounts> day : product.getValue().entrySet()) {
+				increment(product.getKey(), day.getKey(), day.getValue());
+			}
+		}
+	}
+
+	// Recounts the table from the live feedback rows and the archive segments committed in the same snapshot, then
+	// marks it seeded. The marker row is held throughout, so no increment runs meanwhile and other nodes wait to find
+	// it done. Must run inside a transaction; returns the product-day rows written, or -1 if it was already seeded.
+	public int seed(FeedbackArchive archive) {
+		if (lockSeeded()) {
+			return -1;
+		}
+		Set<String> segments = archive.committedSegments();
+		jdbc.update("DELETE FROM " + TABLE);
+		int rows = recount(segments, archive, null);
+		jdbc.update("UPDATE " + SEED_TABLE + " SET seeded_at = CURRENT_TIMESTAMP WHERE id = 1");
+		return rows;
+	}
+
+	// Recounts the days before `cutoff` after the live rows of those days were removed in bulk, such as by dropping
+	// partitions, so no increment can touch them any more. Must run inside a transaction; returns the product-day
+	// rows written, or -1 if the table is not seeded yet, in which case the seed counts what is left.
+	public int recountBefore(LocalDate cutoff, FeedbackArchive archive) {
+		if (!lockSeeded()) {
+			return -1;
+		}
+		Set<String> segments = archive.committedSegments();
+		jdbc.update("DELETE FROM " + TABLE + " WHERE rating_day < ?", Date.valueOf(cutoff));
+		return recount(segments, archive, cutoff);
+	}
+
+	// Writes the counts of the days before `cutoff`, or of every day when it is null, into rows the caller emptied
+	private int recount(Set<String> segments, FeedbackArchive archive, LocalDate cutoff) {
+		// A plain read, so writers holding feedback rows are not waited on; their deltas follow once this commits
+		String insert = "INSERT INTO " + TABLE + " (product_id, rating_day, " + COUNTS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+		List<Object[]> batch = new ArrayList<>();
+		int[] rows = {0};
+		String where = "WHERE product_id IS NOT NULL" + (cutoff == null ? "" : " AND " + DAY + " < ?");
+		jdbc.query("SELECT product_id, " + DAY + ", COUNT(*), SUM(rating), "
+				+ "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), "
+				+ "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), "
+				+ "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) "
+				+ "FROM feedback " + where + " GROUP BY product_id, " + DAY,
+				(RowCallbackHandler) rs -> {
+					batch.add(new Object[] {rs.getString(1), rs.getDate(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+							rs.getLong(6), rs.getLong(7), rs.getLong(8), rs.getLong(9)});
+					if (batch.size() == SEED_BATCH) {
+						rows[0] += jdbc.batchUpdate(insert, batch).length;
+						batch.clear();
+					}
+				}, cutoff == null ? new Object[0] : new Object[] {Date.valueOf(cutoff)});
+		rows[0] += jdbc.batchUpdate(insert, batch).length;
+		// Archived days may share a row with live ones
+		Changes archived = new Changes();
+		archive.scan(segments, row -> {
+			LocalDate day = row.createdAt().toLocalDate();
+			if (cutoff == null || day.isBefore(cutoff)) {
+				archived.add(row.productId(), day, row.rating(), 1);
+			}
+		});
+		for (Map.Entry<String, TreeMap<LocalDate, RatingCounts>> product : archived.deltas.entrySet()) {
+			for (Map.Entry<LocalDate, RatingCounts> day : product.getValue().entrySet()) {
+				rows[0] += increment(product.getKey(), day.getKey(), day.getValue()) ? 1 : 0;
+			}
+		}
+		return rows[0];
+	}
+
+	public static LocalDate dayOf(LocalDateTime createdAt) {
+		return createdAt == null ? UNDATED : createdAt.toLocalDate();
+	}
+
+	public Map<String, RatingCounts> totals() {
+		Map<String, RatingCounts> totals = new HashMap<>();
+		jdbc.query("SELECT product_id, SUM(rating_count), SUM(rating_sum), SUM(r1), SUM(r2), SUM(r3), SUM(r4), SUM(r5) "
+				+ "FROM " + TABLE + " GROUP BY product_id", (RowCallbackHandler) rs -> {
+			RatingCounts counts = counts(rs, 2);
+			if (!counts.isEmpty()) {
+				totals.put(rs.getString(1), counts);
+			}
+		});
+		return totals;
+	}
+
+	public void forEachDaySince(LocalDate from, DayCallback callback) {
+		jdbc.query("SELECT product_id, rating_day, " + COUNTS + " FROM " + TABLE + " WHERE rating_day >= ?",
+				(RowCallbackHandler) rs -> callback.accept(rs.getString(1), rs.getDate(2).toLocalDate(), counts(rs, 3)),
+				Date.valueOf(from));
+	}
+
+	public void forEachDay(String productId, DayCallback callback) {
+		jdbc.query("SELECT product_id, rating_day, " + COUNTS + " FROM " + TABLE + " WHERE product_id = ?",
+				(RowCallbackHandler) rs -> callback.accept(rs.getString(1), rs.getDate(2).toLocalDate(), counts(rs, 3)),
+				productId);
+	}
+
+	// Locks the marker row for the rest of the caller's transaction unless a finished seed was already seen
+	private boolean lockSeeded() {
+		if (!seeded) {
+			seeded = jdbc.queryForObject("SELECT seeded_at FROM " + SEED_TABLE + " WHERE id = 1 FOR UPDATE",
+					Timestamp.class) != null;
+		}
+		return seeded;
+	}
+
+	// True when it created the row
+	private boolean increment(String productId, LocalDate day, RatingCounts delta) {
+		Object[] args = {delta.count(), delta.sum(), delta.stars(1), delta.stars(2), delta.stars(3), delta.stars(4),
+				delta.stars(5), productId, Date.valueOf(day)};
+		String update = "UPDATE " + TABLE + " SET rating_count = rating_count + ?, rating_sum = rating_sum + ?, "
+				+ "r1 = r1 + ?, r2 = r2 + ?, r3 = r3 + ?, r4 = r4 + ?, r5 = r5 + ? WHERE product_id = ? AND rating_day = ?";
+		if (jdbc.update(update, args) > 0) {
+			return false;
+		}
+		try {
+			jdbc.update("INSERT INTO " + TABLE + " (" + COUNTS + ", product_id, rating_day) "
+					+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", args);
+			return true;
+		} catch (DuplicateKeyException e) {
+			// Another transaction created the row since the update
+			jdbc.update(update, args);
+			return false;
+		}
+	}
+
+	private static RatingCounts counts(ResultSet rs, int first) throws SQLException {
+		return RatingCounts.of(rs.getLong(first), rs.getLong(first + 1), rs.getLong(first + 2), rs.getLong(first + 3),
+				rs.getLong(first + 4), rs.getLong(first + 5), rs.getLong(first + 6));
+	}
+}
@@ -0,0 +1,6 @@
+package com.examly.springapp.rating;
+
+public enum RankOrder {
+	BEST,
+	WORST
+}
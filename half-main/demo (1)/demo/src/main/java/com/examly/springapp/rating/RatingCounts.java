@@ -0,0 +1,74 @@
+package com.examly.springapp.rating;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Count, sum and 1-5 star histogram of a set of ratings. Mutable, as it is used as an accumulator; copy() before
+// handing one to another structure.
+public final class RatingCounts {
+
+	public static final int STARS = 5;
+
+	private long count;
+	private long sum;
+	private final long[] stars = new long[STARS];
+
+	public static RatingCounts of(long count, long sum, long... stars) {
+		RatingCounts counts = new RatingCounts();
+		counts.count = count;
+		counts.sum = sum;
+		System.arraycopy(stars, 0, counts.stars, 0, Math.min(STARS, stars.length));
+		return counts;
+	}
+
+	// Ratings outside 1-5 count towards the total and the average but have no histogram bucket
+	public RatingCounts add(int rating, long n) {
+		count += n;
+		sum += rating * n;
+		if (rating >= 1 && rating <= STARS) {
+			stars[rating - 1] += n;
+		}
+		return this;
+	}
+
+	public RatingCounts add(RatingCounts other) {
+		count += other.count;
+		sum += other.sum;
+		for (int i = 0; i < STARS; i++) {
+			stars[i] += other.stars[i];
+		}
+		return this;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public long sum() {
+		return sum;
+	}
+
+	public long stars(int rating) {
+		return stars[rating - 1];
+	}
+
+	public double average() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	public boolean isEmpty() {
+		return count <= 0;
+	}
+
+	public RatingCounts copy() {
+		return of(count, sum, stars);
+	}
+
+	public Map<Integer, Long> histogram() {
+		Map<Integer, Long> histogram = new TreeMap<>();
+		for (int rating = 1; rating <= STARS; rating++) {
+			histogram.put(rating, stars[rating - 1]);
+		}
+		return histogram;
+	}
+}
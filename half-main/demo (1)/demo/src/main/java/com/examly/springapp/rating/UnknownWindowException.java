@@ -0,0 +1,13 @@
+package com.examly.springapp.rating;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Arrays;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownWindowException extends RuntimeException {
+	public UnknownWindowException(int days, int[] windows) {
+		super("No " + days + "-day rating window; use one of " + Arrays.toString(windows) + " or omit days for all time");
+	}
+}
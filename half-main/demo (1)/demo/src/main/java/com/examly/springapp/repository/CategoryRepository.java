@@ -1,10 +1,17 @@
 package com.examly.springapp.repository;
 
 import com.examly.springapp.model.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {
 	Optional<Category> findByName(String name);
+
+	// Slice-returning finders fetch size + 1 rows and never issue a count; totals come from the count methods
+	Slice<Category> findAllBy(Pageable pageable);
+	Slice<Category> findByNameContainingIgnoreCase(String name, Pageable pageable);
+	long countByNameContainingIgnoreCase(String name);
 } 
\ No newline at end of file
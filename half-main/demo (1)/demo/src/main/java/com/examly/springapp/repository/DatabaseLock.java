@@ -0,0 +1,56 @@
+package com.examly.springapp.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// Cluster-wide mutual exclusion for the schema and data jobs every node runs (startup migrations, scheduled DDL),
+// using MySQL named locks. GET_LOCK belongs to the session, so the work is handed a JdbcTemplate bound to the very
+// connection holding it. Databases without named locks (H2 in tests and local runs) are single-node: the work runs
+// unguarded on one connection.
+@Component
+public class DatabaseLock {
+
+	private final JdbcTemplate jdbc;
+	private final Boolean namedLocks;
+
+	@Autowired
+	public DatabaseLock(JdbcTemplate jdbc) {
+		this(jdbc, null);
+	}
+
+	// namedLocks null detects support from the database product
+	DatabaseLock(JdbcTemplate jdbc, Boolean namedLocks) {
+		this.jdbc = jdbc;
+		this.namedLocks = namedLocks;
+	}
+
+	// Runs work while holding the named lock; false when another session held it for the whole wait
+	public boolean runLocked(String name, Duration wait, Consumer<JdbcTemplate> work) {
+		Boolean ran = jdbc.execute((ConnectionCallback<Boolean>) con -> {
+			JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+			boolean supported = namedLocks != null ? namedLocks
+					: con.getMetaData().getDatabaseProductName().toLowerCase().matches(".*(mysql|mariadb).*");
+			if (!supported) {
+				work.accept(session);
+				return true;
+			}
+			Integer acquired = session.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class, name, wait.toSeconds());
+			if (acquired == null || acquired != 1) {
+				return false;
+			}
+			try {
+				work.accept(session);
+			} finally {
+				session.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, name);
+			}
+			return true;
+		});
+		return Boolean.TRUE.equals(ran);
+	}
+}
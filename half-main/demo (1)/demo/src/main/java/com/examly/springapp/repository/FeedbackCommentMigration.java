@@ -0,0 +1,121 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.FeedbackComment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Move of the legacy inline feedback.comment column into feedback_comment. Runs in id-range batches so it never
+// holds long locks; each batch locks its rows, inserts their comments with generated ids and links them, all in
+// one transaction, so a run interrupted at any point resumes cleanly.
+// Every node runs it at startup, so it holds a cluster-wide DatabaseLock; the others wait and then find nothing
+// left to copy. The old column is kept: reads fall back to it until a row is copied (Feedback.legacyComment), and
+// nodes of the previous release keep writing it during a rolling deploy, so every startup copies what they wrote
+// since. Dropping it belongs to a later release that no longer maps it, after one more catch-up run of this copy.
+@Slf4j
+@Component
+public class FeedbackCommentMigration {
+
+	static final String LOCK = "feedback_comment_migration";
+
+	private final DatabaseLock lock;
+	private final int batchSize;
+	private final Duration lockWait;
+
+	public FeedbackCommentMigration(DatabaseLock lock,
+			@Value("${app.feedback.comment-migration.batch-size:5000}") int batchSize,
+			@Value("${app.feedback.comment-migration.lock-wait:10m}") Duration lockWait) {
+		this.lock = lock;
+		this.batchSize = batchSize;
+		this.lockWait = lockWait;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void migrate() {
+		if (!lock.runLocked(LOCK, lockWait, this::migrate)) {
+			log.warn("Feedback comment migration skipped: lock {} still held after {}", LOCK, lockWait);
+		}
+	}
+
+	private void migrate(JdbcTemplate session) {
+		Integer legacyColumn = session.queryForObject(
+				"SELECT COUNT(*) FROM information_schema.COLUMNS "
+						+ "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'feedback' AND COLUMN_NAME = 'comment'",
+				Integer.class);
+		if (legacyColumn == null || legacyColumn == 0) {
+			return;
+		}
+
+		Long minId = session.queryForObject(
+				"SELECT MIN(id) FROM feedback WHERE comment IS NOT NULL AND comment_id IS NULL", Long.class);
+		if (minId == null) {
+			return;
+		}
+		Long maxId = session.queryForObject("SELECT MAX(id) FROM feedback", Long.class);
+
+		// Transactions on the lock-holding connection itself
+		TransactionTemplate batch = new TransactionTemplate(new DataSourceTransactionManager(session.getDataSource()));
+		long moved = 0;
+		for (long low = minId - 1; low <= maxId; low += batchSize) {
+			long from = low;
+			long to = low + batchSize;
+			moved += batch.execute(status -> {
+				List<Object[]> rows = session.query("SELECT id, comment FROM feedback "
+						+ "WHERE id > ? AND id <= ? AND comment IS NOT NULL AND comment_id IS NULL FOR UPDATE",
+						(rs, i) -> new Object[] {rs.getLong(1), rs.getString(2)}, from, to);
+				if (rows.isEmpty()) {
+					return 0;
+				}
+				List<Long> commentIds = insertComments(session, rows);
+				List<Object[]> links = new ArrayList<>(rows.size());
+				for (int i = 0; i < rows.size(); i++) {
+					links.add(new Object[] {commentIds.get(i), FeedbackComment.preview((String) rows.get(i)[1]), rows.get(i)[0]});
+				}
+				session.batchUpdate("UPDATE feedback SET comment_id = ?, comment_preview = ? WHERE id = ?", links);
+				return rows.size();
+			});
+		}
+
+		log.info("Moved {} feedback comments into feedback_comment", moved);
+	}
+
+	// Generated ids in row order
+	private static List<Long> insertComments(JdbcTemplate session, List<Object[]> rows) {
+		return session.execute((ConnectionCallback<List<Long>>) con -> {
+			try (PreparedStatement insert = con.prepareStatement("INSERT INTO feedback_comment (text) VALUES (?)",
+					Statement.RETURN_GENERATED_KEYS)) {
+				for (Object[] row : rows) {
+					insert.setString(1, (String) row[1]);
+					insert.addBatch();
+				}
+				insert.executeBatch();
+				List<Long> ids = new ArrayList<>(rows.size());
+				try (ResultSet keys = insert.getGeneratedKeys()) {
+					while (keys.next()) {
+						ids.add(keys.getLong(1));
+					}
+				}
+				if (ids.size() != rows.size()) {
+					throw new IllegalStateException("Expected " + rows.size() + " generated comment ids, got " + ids.size());
+				}
+				return ids;
+			}
+		});
+	}
+}
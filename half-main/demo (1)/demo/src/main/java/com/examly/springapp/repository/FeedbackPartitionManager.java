@@ -0,0 +1,191 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.history.UserHistoryCache;
+import com.examly.springapp.rating.ProductRatingStore;
+import com.examly.springapp.search.FeedbackColumnStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Keeps the MySQL feedback table RANGE-partitioned by month on created_at, so createdAt range filters prune to
+// the matching partitions and retention is a metadata-only DROP PARTITION instead of a DELETE scan.
+// Partitions are named pYYYYMM plus a trailing pmax catch-all; the entity and FeedbackRepository are unchanged.
+// Every node schedules the DDL, so it runs under a cluster-wide DatabaseLock and re-reads the partition list inside it.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.feedback.partitioning", name = "enabled", havingValue = "true")
+public class FeedbackPartitionManager {
+
+	static final String LOCK = "feedback_partitioning";
+
+	private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+	private final DatabaseLock lock;
+	private final WriteGeneration writeGeneration;
+	private final FeedbackColumnStore columnStore;
+	private final UserHistoryCache userHistory;
+	private final ProductRatingStore productRatings;
+	private final InvalidationBus invalidationBus;
+	private final int monthsAhead;
+	private final int retentionMonths;
+	private final Duration startupWait;
+
+	public FeedbackPartitionManager(DatabaseLock lock, WriteGeneration writeGeneration, FeedbackColumnStore columnStore,
+			UserHistoryCache userHistory, ProductRatingStore productRatings, InvalidationBus invalidationBus,
+			@Value("${app.feedback.partitioning.months-ahead:3}") int monthsAhead,
+			@Value("${app.feedback.partitioning.retention-months:0}") int retentionMonths,
+			@Value("${app.feedback.partitioning.startup-lock-wait:10m}") Duration startupWait) {
+		this.lock = lock;
+		this.writeGeneration = writeGeneration;
+		this.columnStore = columnStore;
+		this.userHistory = userHistory;
+		this.productRatings = productRatings;
+		this.invalidationBus = invalidationBus;
+		this.monthsAhead = monthsAhead;
+		this.retentionMonths = retentionMonths;
+		this.startupWait = startupWait;
+	}
+
+	// Nodes starting together queue on the lock; the first partitions the table and the rest find it done
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void initialise() {
+		boolean ran = lock.runLocked(LOCK, startupWait, session -> {
+			if (existingPartitions(session).isEmpty() && !partitionTable(session)) {
+				return;
+			}
+			maintain(session);
+		});
+		if (!ran) {
+			log.warn("Feedback partitioning skipped at startup: lock {} still held after {}", LOCK, startupWait);
+		}
+	}
+
+	// Daily: add upcoming months ahead of time and apply the retention window. Only the node that gets the lock
+	// changes the table; every node prunes its own column store.
+	@Scheduled(cron = "${app.feedback.partitioning.cron:0 15 3 * * *}")
+	public void maintain() {
+		if (!lock.runLocked(LOCK, Duration.ZERO, this::maintain)) {
+			log.debug("Feedback partition maintenance running on another node");
+		}
+		if (retentionMonths > 0) {
+			columnStore.removeCreatedBefore(YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay());
+		}
+	}
+
+	private void maintain(JdbcTemplate session) {
+		ensurePartitionsUntil(session, YearMonth.now().plusMonths(monthsAhead));
+		if (retentionMonths > 0) {
+			dropPartitionsBefore(session, YearMonth.now().minusMonths(retentionMonths));
+		}
+	}
+
+	private void ensurePartitionsUntil(JdbcTemplate session, YearMonth last) {
+		List<String> partitions = existingPartitions(session);
+		YearMonth next = partitions.stream()
+				.filter(p -> !p.equals("pmax"))
+				.map(p -> YearMonth.parse(p.substring(1), DateTimeFormatter.ofPattern("yyyyMM")))
+				.max(YearMonth::compareTo)
+				.map(m -> m.plusMonths(1))
+				.orElse(YearMonth.now());
+		if (next.isAfter(last)) {
+			return;
+		}
+		StringBuilder sql = new StringBuilder("ALTER TABLE feedback REORGANIZE PARTITION pmax INTO (");
+		for (YearMonth m = next; !m.isAfter(last); m = m.plusMonths(1)) {
+			sql.append(definition(m)).append(", ");
+		}
+		sql.append("PARTITION pmax VALUES LESS THAN MAXVALUE)");
+		session.execute(sql.toString());
+		log.info("Added feedback partitions {}..{}", next, last);
+	}
+
+	// Drops whole months older than the cutoff; cost is independent of how many rows they hold
+	private void dropPartitionsBefore(JdbcTemplate session, YearMonth cutoff) {
+		List<String> expired = existingPartitions(session).stream()
+				.filter(p -> !p.equals("pmax"))
+				.filter(p -> YearMonth.parse(p.substring(1), DateTimeFormatter.ofPattern("yyyyMM")).isBefore(cutoff))
+				.toList();
+		if (expired.isEmpty()) {
+			return;
+		}
+		session.execute("ALTER TABLE feedback DROP PARTITION " + String.join(", ", expired));
+		log.info("Dropped feedback partitions {}", expired);
+		// The rows went without passing the delete path, so every view of them follows here. This node's column
+		// store is pruned by maintain(); other nodes reload theirs, their user histories and their ratings.
+		writeGeneration.bumpFeedback();
+		userHistory.clear();
+		productRatings.expireBefore(cutoff.atDay(1));
+		invalidationBus.publish(InvalidationBus.FEEDBACK, InvalidationBus.ALL);
+		invalidationBus.publish(InvalidationBus.PRODUCT_RATING, InvalidationBus.ALL);
+		invalidationBus.flush();
+	}
+
+	// created_at becomes part of the primary key, so it cannot stay nullable. Rows without one are left for an
+	// operator to date rather than stamped with the migration time; the table stays unpartitioned until then.
+	private boolean partitionTable(JdbcTemplate session) {
+		Long undated = session.queryForObject("SELECT COUNT(*) FROM feedback WHERE created_at IS NULL", Long.class);
+		if (undated != null && undated > 0) {
+			log.error("Not partitioning feedback: {} rows have no created_at. Set it on those rows and restart.", undated);
+			return false;
+		}
+		Timestamp oldest = session.queryForObject("SELECT MIN(created_at) FROM feedback", Timestamp.class);
+		YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest.toLocalDateTime());
+		YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+
+		// Partitioned InnoDB tables allow no foreign keys, and the partition column must be part of every unique key
+		List<String> foreignKeys = session.queryForList(
+				"SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS "
+						+ "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'feedback'", String.class);
+		for (String fk : foreignKeys) {
+			session.execute("ALTER TABLE feedback DROP FOREIGN KEY " + fk);
+		}
+		// Such as the unique comment_id key an earlier one-to-one mapping left behind
+		List<String> uniqueKeys = session.queryForList(
+				"SELECT INDEX_NAME FROM information_schema.STATISTICS "
+						+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'feedback' AND NON_UNIQUE = 0 AND INDEX_NAME <> 'PRIMARY' "
+						+ "GROUP BY INDEX_NAME HAVING SUM(COLUMN_NAME = 'created_at') = 0", String.class);
+		for (String key : uniqueKeys) {
+			session.execute("ALTER TABLE feedback DROP INDEX " + key);
+		}
+		session.execute("ALTER TABLE feedback MODIFY created_at DATETIME(6) NOT NULL, "
+				+ "DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at)");
+
+		StringBuilder sql = new StringBuilder("ALTER TABLE feedback PARTITION BY RANGE (TO_DAYS(created_at)) (");
+		for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+			sql.append(definition(m)).append(", ");
+		}
+		sql.append("PARTITION pmax VALUES LESS THAN MAXVALUE)");
+		session.execute(sql.toString());
+		log.info("Partitioned feedback by month from {} to {}", first, last);
+		return true;
+	}
+
+	private static List<String> existingPartitions(JdbcTemplate session) {
+		return session.queryForList(
+				"SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+						+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'feedback' AND PARTITION_NAME IS NOT NULL "
+						+ "ORDER BY PARTITION_ORDINAL_POSITION", String.class);
+	}
+
+	private static String definition(YearMonth month) {
+		LocalDate upper = month.plusMonths(1).atDay(1);
+		return "PARTITION " + month.format(NAME) + " VALUES LESS THAN (TO_DAYS('" + upper + "'))";
+	}
+}
@@ -1,10 +1,42 @@
 package com.examly.springapp.repository;
 
+import com.examly.springapp.history.FeedbackSummary;
 import com.examly.springapp.model.Feedback;
+import com.examly.springapp.projection.FeedbackField;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface FeedbackRepository extends JpaRepository<Feedback, Long>, JpaSpecificationExecutor<Feedback> {
-	List<Feedback> findByUserId(String userId);
+	// Newest first; pass PageRequest.of(0, limit) to bound it, no count query runs
+	@EntityGraph(attributePaths = "category")
+	List<Feedback> findByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+	// Hydrates a page of ids in one statement, category included, so serialising the page never meets a lazy proxy
+	@EntityGraph(attributePaths = "category")
+	List<Feedback> findByIdIn(Collection<Long> ids);
+
+	// Dashboard breakdown: one scan yields both the per-status and the per-rating totals
+	@Query("select f.status, f.rating, count(f) from Feedback f group by f.status, f.rating")
+	List<Object[]> countByStatusAndRating();
+
+	// User history, newest first, walked by (createdAt, id) keyset over idx_feedback_user_history instead of OFFSET.
+	// Pass PageRequest.of(0, limit): only the size is used and no count query runs.
+	@Query("select new com.examly.springapp.history.FeedbackSummary(f.id, f.productId, f.rating, "
+			+ FeedbackField.PREVIEW_PATH + ", f.status, c.id, c.name, f.createdAt) from Feedback f left join f.category c "
+			+ "where f.userId = :userId order by f.createdAt desc, f.id desc")
+	List<FeedbackSummary> findHistory(@Param("userId") String userId, Pageable limit);
+
+	@Query("select new com.examly.springapp.history.FeedbackSummary(f.id, f.productId, f.rating, "
+			+ FeedbackField.PREVIEW_PATH + ", f.status, c.id, c.name, f.createdAt) from Feedback f left join f.category c "
+			+ "where f.userId = :userId and (f.createdAt < :createdAt or (f.createdAt = :createdAt and f.id < :id)) "
+			+ "order by f.createdAt desc, f.id desc")
+	List<FeedbackSummary> findHistoryBefore(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt,
+			@Param("id") Long id, Pageable limit);
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.history.HistoryCursor;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.projection.FeedbackFieldSet;
+import com.examly.springapp.projection.FeedbackRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+// Admin search as a fixed set of named JPQL statements, one per (filter bitmask, sort key, direction) plus one
+// count per bitmask. Each statement is parsed once and registered as a named query, so repeat searches skip
+// Criteria building and HQL interpretation, and the generated SQL text is stable for the JDBC statement cache.
+// Page and count are separate calls so ParallelPageLoader can run them on different connections.
+// The *Fields variants select only a client's sparse fieldset as tuples, so neither entities nor the comment and
+// category rows are loaded unless those fields were asked for.
+@Repository
+public class FeedbackSearchQueries {
+
+	static final int NAME = 1, EMAIL = 1 << 1, STATUS = 1 << 2, RATING = 1 << 3, CATEGORY = 1 << 4, FROM = 1 << 5, TO = 1 << 6;
+	private static final int MASKS = 1 << 7;
+	// Field selections multiply the statement space, so only this many tuple statements are kept as named queries
+	private static final int MAX_TUPLE_QUERIES = 512;
+
+	// Legal sort keys mapped to their JPQL path; anything else is rejected before a query is built
+	public static final Map<String, String> SORT_PATHS = Map.of(
+			"createdAt", "f.createdAt",
+			"rating", "f.rating",
+			"id", "f.id",
+			"status", "f.status",
+			"productId", "f.productId",
+			"submitterName", "f.submitterName",
+			"submitterEmail", "f.submitterEmail");
+	private static final List<String> SORT_KEYS = List.copyOf(SORT_PATHS.keySet());
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final EntityManagerFactory emf;
+	private final AtomicReferenceArray<String> selectNames = new AtomicReferenceArray<>(MASKS * SORT_KEYS.size() * 2);
+	private final AtomicReferenceArray<String> countNames = new AtomicReferenceArray<>(MASKS);
+	private final Set<String> tupleNames = ConcurrentHashMap.newKeySet();
+
+	public FeedbackSearchQueries(EntityManagerFactory emf) {
+		this.emf = emf;
+	}
+
+	public static String requireSortKey(String sortBy) {
+		if (!SORT_PATHS.containsKey(sortBy)) {
+			throw new UnsupportedSortException(sortBy);
+		}
+		return sortBy;
+	}
+
+	// One page plus a look-ahead row, so the caller knows whether a next page exists without counting
+	public Slice<Feedback> slice(Pageable pageable, String sortKey, boolean descending, String name, String email,
+			FeedbackStatus status, Integer rating, Long categoryId, LocalDateTime from, LocalDateTime to) {
+		requireSortKey(sortKey);
+		int mask = mask(name, email, status, rating, categoryId, from, to);
+		TypedQuery<Feedback> select = em.createNamedQuery(selectName(mask, sortKey, descending), Feedback.class);
+		bind(select, mask, name, email, status, rating, categoryId, from, to);
+		select.setFirstResult((int) pageable.getOffset());
+		select.setMaxResults(pageable.getPageSize() + 1);
+		List<Feedback> content = select.getResultList();
+
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	public Slice<FeedbackRow> sliceFields(FeedbackFieldSet fields, Pageable pageable, String sortKey, boolean descending,
+			String name, String email, FeedbackStatus status, Integer rating, Long categoryId, LocalDateTime from,
+			LocalDateTime to) {
+		requireSortKey(sortKey);
+		int mask = mask(name, email, status, rating, categoryId, from, to);
+		String direction = descending ? " DESC" : " ASC";
+		TypedQuery<Tuple> select = tupleQuery("Feedback.fields." + fields.key() + "." + mask + "." + sortKey
+						+ (descending ? ".desc" : ".asc"),
+				() -> fields.selectFrom() + where(mask) + " ORDER BY " + SORT_PATHS.get(sortKey) + direction + ", f.id" + direction);
+		bind(select, mask, name, email, status, rating, categoryId, from, to);
+		select.setFirstResult((int) pageable.getOffset());
+		select.setMaxResults(pageable.getPageSize() + 1);
+		List<FeedbackRow> content = fields.rows(select.getResultList());
+
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	// Rows for ids picked by the column store, in no particular order
+	public List<FeedbackRow> fieldsByIds(FeedbackFieldSet fields, Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			// An empty IN list is not valid SQL on every database, and there is nothing to read
+			return List.of();
+		}
+		TypedQuery<Tuple> select = tupleQuery("Feedback.fields." + fields.key() + ".ids",
+				() -> fields.selectFrom() + " WHERE f.id IN :ids");
+		select.setParameter("ids", ids);
+		return fields.rows(select.getResultList());
+	}
+
+	public List<FeedbackRow> allFields(FeedbackFieldSet fields) {
+		return fields.rows(tupleQuery("Feedback.fields." + fields.key() + ".all",
+				() -> fields.selectFrom() + " ORDER BY f.id").getResultList());
+	}
+
+	// User history keyset (see FeedbackRepository.findHistory) with a sparse fieldset
+	public List<FeedbackRow> historyFields(FeedbackFieldSet fields, String userId, HistoryCursor cursor, int limit) {
+		String order = " ORDER BY f.createdAt DESC, f.id DESC";
+		TypedQuery<Tuple> select;
+		if (cursor == null) {
+			select = tupleQuery("Feedback.fields." + fields.key() + ".history",
+					() -> fields.selectFrom() + " WHERE f.userId = :userId" + order);
+		} else {
+			select = tupleQuery("Feedback.fields." + fields.key() + ".history.before",
+					() -> fields.selectFrom() + " WHERE f.userId = :userId AND (f.createdAt < :createdAt "
+							+ "OR (f.createdAt = :createdAt AND f.id < :id))" + order);
+			select.setParameter("createdAt", cursor.createdAt());
+			select.setParameter("id", cursor.id());
+		}
+		select.setParameter("userId", userId);
+		select.setMaxResults(limit);
+		return fields.rows(select.getResultList());
+	}
+
+	public long count(String name, String email, FeedbackStatus status, Integer rating, Long categoryId,
+			LocalDateTime from, LocalDateTime to) {
+		int mask = mask(name, email, status, rating, categoryId, from, to);
+		TypedQuery<Long> count = em.createNamedQuery(countName(mask), Long.class);
+		bind(count, mask, name, email, status, rating, categoryId, from, to);
+		return count.getSingleResult();
+	}
+
+	private static int mask(String name, String email, FeedbackStatus status, Integer rating, Long categoryId,
+			LocalDateTime from, LocalDateTime to) {
+		return (isSet(name) ? NAME : 0) | (isSet(email) ? EMAIL : 0) | (status != null ? STATUS : 0)
+				| (rating != null ? RATING : 0) | (categoryId != null ? CATEGORY : 0)
+				| (from != null ? FROM : 0) | (to != null ? TO : 0);
+	}
+
+	private String selectName(int mask, String sortKey, boolean descending) {
+		int slot = (mask * SORT_KEYS.size() + SORT_KEYS.indexOf(sortKey)) * 2 + (descending ? 1 : 0);
+		String registered = selectNames.get(slot);
+		if (registered != null) {
+			return registered;
+		}
+		String direction = descending ? " DESC" : " ASC";
+		String jpql = "SELECT f FROM Feedback f LEFT JOIN FETCH f.category" + where(mask)
+				+ " ORDER BY " + SORT_PATHS.get(sortKey) + direction + ", f.id" + direction;
+		String queryName = "Feedback.search." + mask + "." + sortKey + (descending ? ".desc" : ".asc");
+		return register(selectNames, slot, queryName, jpql, Feedback.class);
+	}
+
+	private String countName(int mask) {
+		String registered = countNames.get(mask);
+		if (registered != null) {
+			return registered;
+		}
+		return register(countNames, mask, "Feedback.count." + mask, "SELECT COUNT(f) FROM Feedback f" + where(mask), Long.class);
+	}
+
+	private TypedQuery<Tuple> tupleQuery(String queryName, Supplier<String> jpql) {
+		if (!tupleNames.contains(queryName)) {
+			TypedQuery<Tuple> query = em.createQuery(jpql.get(), Tuple.class);
+			if (tupleNames.size() >= MAX_TUPLE_QUERIES) {
+				return query;
+			}
+			emf.addNamedQuery(queryName, query);
+			tupleNames.add(queryName);
+		}
+		return em.createNamedQuery(queryName, Tuple.class);
+	}
+
+	private <T> String register(AtomicReferenceArray<String> names, int slot, String queryName, String jpql, Class<T> type) {
+		emf.addNamedQuery(queryName, em.createQuery(jpql, type));
+		names.compareAndSet(slot, null, queryName);
+		return queryName;
+	}
+
+	private static String where(int mask) {
+		StringBuilder where = new StringBuilder();
+		append(where, mask, NAME, "LOWER(f.submitterName) LIKE :name");
+		append(where, mask, EMAIL, "LOWER(f.submitterEmail) LIKE :email");
+		append(where, mask, STATUS, "f.status = :status");
+		append(where, mask, RATING, "f.rating = :rating");
+		append(where, mask, CATEGORY, "f.category.id = :categoryId");
+		append(where, mask, FROM, "f.createdAt >= :from");
+		append(where, mask, TO, "f.createdAt < :to");
+		return where.toString();
+	}
+
+	private static void append(StringBuilder where, int mask, int bit, String predicate) {
+		if ((mask & bit) != 0) {
+			where.append(where.length() == 0 ? " WHERE " : " AND ").append(predicate);
+		}
+	}
+
+	private static void bind(TypedQuery<?> query, int mask, String name, String email, FeedbackStatus status,
+			Integer rating, Long categoryId, LocalDateTime from, LocalDateTime to) {
+		if ((mask & NAME) != 0) query.setParameter("name", "%" + name.toLowerCase() + "%");
+		if ((mask & EMAIL) != 0) query.setParameter("email", "%" + email.toLowerCase() + "%");
+		if ((mask & STATUS) != 0) query.setParameter("status", status);
+		if ((mask & RATING) != 0) query.setParameter("rating", rating);
+		if ((mask & CATEGORY) != 0) query.setParameter("categoryId", categoryId);
+		if ((mask & FROM) != 0) query.setParameter("from", from);
+		if ((mask & TO) != 0) query.setParameter("to", to);
+	}
+
+	private static boolean isSet(String value) {
+		return value != null && !value.isBlank();
+	}
+}
@@ -0,0 +1,52 @@
+package com.examly.springapp.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Schemas created before FLAGGED existed hold feedback.status as a native MySQL enum of the first three statuses,
+// which rejects the new value, and ddl-auto=update never alters an existing column. The column is turned into a
+// VARCHAR, as Feedback now maps it, so statuses appended later need no DDL and sort by name on every tier.
+// The ALTER copies the table once; nodes of the previous release keep writing their statuses into it unchanged.
+@Slf4j
+@Component
+public class FeedbackStatusColumnMigration {
+
+	static final String LOCK = "feedback_status_column_migration";
+
+	private final DatabaseLock lock;
+	private final Duration lockWait;
+
+	public FeedbackStatusColumnMigration(DatabaseLock lock,
+			@Value("${app.feedback.status-migration.lock-wait:10m}") Duration lockWait) {
+		this.lock = lock;
+		this.lockWait = lockWait;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void migrate() {
+		if (!lock.runLocked(LOCK, lockWait, this::migrate)) {
+			log.warn("Feedback status column migration skipped: lock {} still held after {}", LOCK, lockWait);
+		}
+	}
+
+	private void migrate(JdbcTemplate session) {
+		Integer enumColumn = session.queryForObject(
+				"SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = SCHEMA() "
+						+ "AND TABLE_NAME = 'feedback' AND COLUMN_NAME = 'status' AND UPPER(DATA_TYPE) = 'ENUM'",
+				Integer.class);
+		if (enumColumn == null || enumColumn == 0) {
+			return;
+		}
+		session.execute("ALTER TABLE feedback MODIFY status VARCHAR(20)");
+		log.info("Changed feedback.status from an enum to VARCHAR(20)");
+	}
+}
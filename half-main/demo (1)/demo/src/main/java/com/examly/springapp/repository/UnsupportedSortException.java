@@ -0,0 +1,11 @@
+package com.examly.springapp.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedSortException extends RuntimeException {
+	public UnsupportedSortException(String sortBy) {
+		super("Unsupported sort field: " + sortBy);
+	}
+}
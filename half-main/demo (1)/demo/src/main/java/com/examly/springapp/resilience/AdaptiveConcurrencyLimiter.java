@@ -0,0 +1,92 @@
+package com.examly.springapp.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// AIMD concurrency limit driven by observed latency: grows by ~1 per limit's worth of healthy samples while
+// the limit is actually being used, and shrinks multiplicatively when latency drifts above the baseline
+// or a request fails. The baseline is a windowed minimum RTT, so an unrepresentatively fast request ages
+// out after at most two windows instead of pinning the limit at the minimum.
+// Requests served without the database (see ConcurrencyLimitFilter) are released without a sample.
+// Admission is a CAS on the in-flight count; only the limit update takes the monitor.
+public class AdaptiveConcurrencyLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final double backoff;
+	private final int window;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder rejected = new LongAdder();
+
+	private volatile double limit;
+	private long windowMinNanos = Long.MAX_VALUE;
+	private long previousMinNanos = Long.MAX_VALUE;
+	private int windowSamples;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoff,
+			int baselineWindow) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.backoff = backoff;
+		this.window = Math.max(1, baselineWindow);
+		this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+	}
+
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= (int) limit) {
+				rejected.increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void release(long rttNanos, boolean failed) {
+		int active = inFlight.getAndDecrement();
+		update(rttNanos, failed, active);
+	}
+
+	public void releaseWithoutSample() {
+		inFlight.decrementAndGet();
+	}
+
+	private synchronized void update(long rttNanos, boolean failed, int active) {
+		// Failures are often fast (rejected early), so they never lower the baseline
+		if (!failed) {
+			windowMinNanos = Math.min(windowMinNanos, rttNanos);
+		}
+		if (++windowSamples >= window) {
+			previousMinNanos = windowMinNanos;
+			windowMinNanos = Long.MAX_VALUE;
+			windowSamples = 0;
+		}
+		long baselineNanos = Math.min(previousMinNanos, windowMinNanos);
+		boolean congested = failed || (baselineNanos != Long.MAX_VALUE && rttNanos > baselineNanos * tolerance);
+		if (congested) {
+			limit = Math.max(minLimit, limit * backoff);
+		} else {
+			if (active * 2 >= limit) {
+				limit = Math.min(maxLimit, limit + 1.0 / limit);
+			}
+		}
+	}
+
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getRejected() {
+		return rejected.sum();
+	}
+}
@@ -0,0 +1,111 @@
+package com.examly.springapp.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import com.examly.springapp.monitoring.QueryContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Sheds DB-bound requests with a fast 503 once a route class reaches its adaptive concurrency limit,
+// so a slow database stalls only those routes instead of exhausting Tomcat threads for everything.
+// Only requests that ran SQL feed the limiter's latency baseline: 304s and cache hits answer in microseconds and
+// would drag the baseline far below what a DB-bound request can reach, decaying the limit to its minimum.
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 2)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final ConcurrencyLimitProperties properties;
+	private final Map<String, AdaptiveConcurrencyLimiter> limiters = new LinkedHashMap<>();
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	// Without SQL timing QueryContext never counts a statement, so only 304s can be told apart
+	private final boolean statementsCounted;
+
+	public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry registry,
+			@Value("${app.sql.timing-enabled:true}") boolean statementsCounted) {
+		this.properties = properties;
+		this.statementsCounted = statementsCounted;
+		for (ConcurrencyLimitProperties.RouteClass route : properties.getRoutes()) {
+			AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getName(), name ->
+					new AdaptiveConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+							properties.getMaxLimit(), properties.getTolerance(), properties.getBackoff(),
+							properties.getBaselineWindow()));
+			if (registry.find("app.concurrency.limit").tag("route", route.getName()).gauge() == null) {
+				Gauge.builder("app.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+						.tag("route", route.getName()).register(registry);
+				Gauge.builder("app.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+						.tag("route", route.getName()).register(registry);
+				FunctionCounter.builder("app.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+						.tag("route", route.getName()).register(registry);
+			}
+		}
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain
+	) throws ServletException, IOException {
+		AdaptiveConcurrencyLimiter limiter = properties.isEnabled() ? limiterFor(request) : null;
+		if (limiter == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		if (!limiter.tryAcquire()) {
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.getWriter().write("{\"error\":\"Server busy, please retry\"}");
+			return;
+		}
+
+		long start = System.nanoTime();
+		boolean failed = true;
+		try (QueryContext ctx = QueryContext.begin()) {
+			try {
+				filterChain.doFilter(request, response);
+				failed = response.getStatus() >= 500;
+			} finally {
+				// Failures always count: a database that refuses connections fails before running any statement
+				boolean reachedDatabase = statementsCounted ? ctx.getCount() > 0
+						: response.getStatus() != HttpServletResponse.SC_NOT_MODIFIED;
+				if (failed || reachedDatabase) {
+					limiter.release(System.nanoTime() - start, failed);
+				} else {
+					limiter.releaseWithoutSample();
+				}
+			}
+		}
+	}
+
+	private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+		String path = request.getServletPath();
+		for (ConcurrencyLimitProperties.RouteClass route : properties.getRoutes()) {
+			if (route.getMethod() != null && !route.getMethod().equalsIgnoreCase(request.getMethod())) {
+				continue;
+			}
+			if (pathMatcher.match(route.getPattern(), path)) {
+				return limiters.get(route.getName());
+			}
+		}
+		return null;
+	}
+}
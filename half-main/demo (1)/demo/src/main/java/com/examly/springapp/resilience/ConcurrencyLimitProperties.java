@@ -0,0 +1,37 @@
+package com.examly.springapp.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.concurrency")
+public class ConcurrencyLimitProperties {
+
+	private boolean enabled = true;
+	private int initialLimit = 20;
+	private int minLimit = 2;
+	private int maxLimit = 200;
+
+	// A sample slower than tolerance x the baseline latency counts as congestion
+	private double tolerance = 2.0;
+
+	// The baseline is the fastest successful request of the last one to two windows of this many samples
+	private int baselineWindow = 100;
+
+	// Multiplicative decrease applied on congestion or server error
+	private double backoff = 0.9;
+
+	private List<RouteClass> routes = new ArrayList<>();
+
+	@Data
+	public static class RouteClass {
+		private String name;
+		private String pattern;
+		private String method;
+	}
+}
@@ -0,0 +1,472 @@
+package com.examly.springapp.search;
+
+import com.examly.springapp.dashboard.FeedbackBreakdown;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+// Columnar mirror of the structured feedback columns used by admin filtering: one primitive array per column,
+// a bitmap per status and per category, and a live bitmap for tombstoned slots. Filter, sort, page and exact
+// count run entirely in memory; callers hydrate the returned ids from the database. createdAt is kept in epoch
+// microseconds, the precision of the DATETIME(6) column, so range filters and sorts agree with SQL.
+// Every sort key keeps its slots presorted, updated on write, so a page is read by walking that order against the
+// filter until the page fills; nothing is sorted or copied per query. Tombstoned slots are compacted away once
+// they make up a quarter of the store.
+@Slf4j
+@Component
+public class FeedbackColumnStore {
+
+	public static final List<String> SORT_KEYS = List.of("createdAt", "rating", "id");
+
+	private static final FeedbackStatus[] STATUSES = FeedbackStatus.values();
+	private static final int CREATED_AT = 0, RATING = 1, ID = 2;
+	private static final int COMPACT_MIN_DEAD = 1024;
+
+	private final JdbcTemplate jdbc;
+	private final boolean enabled;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private long[] ids = new long[1024];
+	private byte[] ratings = new byte[1024];
+	private byte[] statuses = new byte[1024];
+	private long[] categoryIds = new long[1024];
+	private long[] createdAt = new long[1024];
+	private int size;
+
+	// Slots by SORT_KEYS position, each ascending by its column, then id, then slot; tombstones stay until compacted
+	private final int[][] orders = new int[SORT_KEYS.size()][1024];
+
+	private final BitSet live = new BitSet();
+	private final BitSet[] byStatus = new BitSet[STATUSES.length];
+	private final Map<Long, BitSet> byCategory = new HashMap<>();
+	private final Map<Long, Integer> slotById = new HashMap<>();
+
+	private volatile boolean ready;
+
+	public FeedbackColumnStore(JdbcTemplate jdbc, @Value("${app.feedback.column-store.enabled:false}") boolean enabled) {
+		this.jdbc = jdbc;
+		this.enabled = enabled;
+		for (int i = 0; i < byStatus.length; i++) {
+			byStatus[i] = new BitSet();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public record Result(List<Long> ids, long total) {
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void load() {
+		if (!enabled) {
+			return;
+		}
+		long start = System.nanoTime();
+		lock.writeLock().lock();
+		try {
+			jdbc.query("SELECT id, rating, status, category_id, created_at FROM feedback ORDER BY id", rs -> {
+				String status = rs.getString(3);
+				long categoryId = rs.getLong(4);
+				Timestamp ts = rs.getTimestamp(5);
+				put(rs.getLong(1), rs.getInt(2),
+						status == null ? FeedbackStatus.PENDING : FeedbackStatus.valueOf(status),
+						categoryId,
+						ts == null ? 0 : micros(ts.toLocalDateTime()), false);
+			});
+			// Sorted once here rather than inserted row by row
+			for (int key = 0; key < orders.length; key++) {
+				for (int slot = 0; slot < size; slot++) {
+					orders[key][slot] = slot;
+				}
+				sort(orders[key], size, key);
+			}
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("Feedback column store loaded {} rows in {} ms", slotById.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// Applied after commit so the mirror never shows a write the database rolled back
+	public void upsert(Feedback fb) {
+		if (!enabled) {
+			return;
+		}
+		long categoryId = fb.getCategory() == null || fb.getCategory().getId() == null ? 0 : fb.getCategory().getId();
+		long epoch = fb.getCreatedAt() == null ? 0 : micros(fb.getCreatedAt());
+		FeedbackStatus status = fb.getStatus() == null ? FeedbackStatus.PENDING : fb.getStatus();
+		long id = fb.getId();
+		int rating = fb.getRating();
+		afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				put(id, rating, status, categoryId, epoch, true);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public void remove(long id) {
+		if (!enabled) {
+			return;
+		}
+		afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				Integer slot = slotById.remove(id);
+				if (slot != null) {
+					clearIndexes(slot);
+					compactIfSparse();
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	// Used after bulk deletes that bypass the service layer, such as dropping expired partitions
+	public void removeCreatedBefore(LocalDateTime cutoff) {
+		if (!enabled) {
+			return;
+		}
+		long cutoffEpoch = micros(cutoff);
+		lock.writeLock().lock();
+		try {
+			for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+				if (createdAt[slot] < cutoffEpoch) {
+					slotById.remove(ids[slot]);
+					clearIndexes(slot);
+				}
+			}
+			compactIfSparse();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Adds every live row to a status/rating breakdown, without a database round trip
+	public void countInto(FeedbackBreakdown.Counter counter) {
+		lock.readLock().lock();
+		try {
+			countLive(counter);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Live rows, then `others` (the archive) with a filter passing only ids this store does not hold, all under one
+	// read lock. A row being archived is in the store until its segment is visible, so it is counted exactly once.
+	public void countInto(FeedbackBreakdown.Counter counter, Consumer<LongPredicate> others) {
+		lock.readLock().lock();
+		try {
+			countLive(counter);
+			others.accept(id -> !slotById.containsKey(id));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public Result query(FeedbackStatus status, Integer rating, Long categoryId, LocalDateTime from, LocalDateTime to,
+			String sortBy, boolean descending, int page, int pageSize) {
+		lock.readLock().lock();
+		try {
+			// Counted over the narrowest bitmap; the other filters are checked against the columns
+			BitSet candidates = live;
+			if (categoryId != null) {
+				candidates = byCategory.get(categoryId);
+				if (candidates == null) {
+					return new Result(List.of(), 0);
+				}
+			} else if (status != null) {
+				candidates = byStatus[status.ordinal()];
+			}
+			Filter filter = new Filter(status == null ? -1 : status.ordinal(),
+					categoryId == null ? Long.MIN_VALUE : categoryId, rating == null ? -1 : rating,
+					from == null ? Long.MIN_VALUE : micros(from), to == null ? Long.MAX_VALUE : micros(to));
+			long total = 0;
+			for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+				if (matches(slot, filter)) {
+					total++;
+				}
+			}
+
+			long first = (long) page * pageSize;
+			if (first >= total) {
+				return new Result(List.of(), total);
+			}
+			int[] order = orders[sortKey(sortBy)];
+			List<Long> pageIds = new ArrayList<>((int) Math.min(pageSize, total - first));
+			long skipped = 0;
+			for (int i = 0; i < size && pageIds.size() < pageSize; i++) {
+				int slot = order[descending ? size - 1 - i : i];
+				if (!matches(slot, filter) || skipped++ < first) {
+					continue;
+				}
+				pageIds.add(ids[slot]);
+			}
+			return new Result(pageIds, total);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private record Filter(int status, long categoryId, int rating, long fromEpoch, long toEpoch) {
+	}
+
+	private boolean matches(int slot, Filter filter) {
+		return live.get(slot)
+				&& (filter.status() < 0 || statuses[slot] == filter.status())
+				&& (filter.categoryId() == Long.MIN_VALUE || categoryIds[slot] == filter.categoryId())
+				&& (filter.rating() < 0 || ratings[slot] == filter.rating())
+				&& createdAt[slot] >= filter.fromEpoch() && createdAt[slot] < filter.toEpoch();
+	}
+
+	private static int sortKey(String sortBy) {
+		return switch (sortBy) {
+			case "rating" -> RATING;
+			case "id" -> ID;
+			default -> CREATED_AT;
+		};
+	}
+
+	// Bottom-up merge sort of slots by a sort key, used when the orders are built in one go after a load.
+	// Primitive, no boxing.
+	private void sort(int[] slots, int n, int key) {
+		int[] buffer = new int[n];
+		for (int width = 1; width < n; width *= 2) {
+			for (int lo = 0; lo < n - width; lo += 2 * width) {
+				int mid = lo + width;
+				int hi = Math.min(lo + 2 * width, n);
+				int i = lo;
+				int j = mid;
+				int k = lo;
+				while (i < mid && j < hi) {
+					buffer[k++] = compare(key, slots[j], slots[i]) < 0 ? slots[j++] : slots[i++];
+				}
+				while (i < mid) {
+					buffer[k++] = slots[i++];
+				}
+				while (j < hi) {
+					buffer[k++] = slots[j++];
+				}
+				System.arraycopy(buffer, lo, slots, lo, hi - lo);
+			}
+		}
+	}
+
+	// Slot order is not id order: rows commit out of id order and bulk loads append in file order, so id is always
+	// compared explicitly. The slot settles ties between a tombstone and a later row with the same id.
+	private int compare(int key, int a, int b) {
+		int c = switch (key) {
+			case RATING -> Byte.compare(ratings[a], ratings[b]);
+			case CREATED_AT -> Long.compare(createdAt[a], createdAt[b]);
+			default -> 0;
+		};
+		if (c == 0) {
+			c = Long.compare(ids[a], ids[b]);
+		}
+		return c != 0 ? c : Integer.compare(a, b);
+	}
+
+	// First position among the first n entries of order that sorts at or after slot
+	private int position(int[] order, int n, int key, int slot) {
+		int lo = 0;
+		int hi = n;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (compare(key, order[mid], slot) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	// New rows mostly sort last by createdAt and id, so these inserts are usually appends
+	private void order(int slot, int n) {
+		for (int key = 0; key < orders.length; key++) {
+			int[] order = orders[key];
+			int at = position(order, n, key, slot);
+			System.arraycopy(order, at, order, at + 1, n - at);
+			order[at] = slot;
+		}
+	}
+
+	private void unorder(int slot, int n) {
+		for (int key = 0; key < orders.length; key++) {
+			int[] order = orders[key];
+			int at = position(order, n, key, slot);
+			System.arraycopy(order, at + 1, order, at, n - at - 1);
+		}
+	}
+
+	private void compactIfSparse() {
+		int dead = size - slotById.size();
+		if (dead >= COMPACT_MIN_DEAD && dead * 4 >= size) {
+			compact();
+		}
+	}
+
+	// Moves live rows down over the tombstones, keeping their relative slot order so every presorted order stays
+	// sorted once its slots are renumbered
+	void compact() {
+		int[] moved = new int[size];
+		int n = 0;
+		for (int slot = 0; slot < size; slot++) {
+			if (!live.get(slot)) {
+				moved[slot] = -1;
+				continue;
+			}
+			moved[slot] = n;
+			ids[n] = ids[slot];
+			ratings[n] = ratings[slot];
+			statuses[n] = statuses[slot];
+			categoryIds[n] = categoryIds[slot];
+			createdAt[n] = createdAt[slot];
+			n++;
+		}
+		for (int[] order : orders) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (moved[order[i]] >= 0) {
+					order[kept++] = moved[order[i]];
+				}
+			}
+		}
+		live.clear();
+		for (BitSet bits : byStatus) {
+			bits.clear();
+		}
+		byCategory.clear();
+		slotById.clear();
+		size = n;
+		for (int slot = 0; slot < size; slot++) {
+			index(slot);
+		}
+	}
+
+	int slots() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static long micros(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+	}
+
+	// ordered is false only while load() fills the store and sorts the orders afterwards
+	private void put(long id, int rating, FeedbackStatus status, long categoryId, long epoch, boolean ordered) {
+		Integer existing = slotById.get(id);
+		int slot;
+		if (existing != null) {
+			slot = existing;
+			clearIndexes(slot);
+			if (ordered) {
+				unorder(slot, size);
+			}
+		} else {
+			if (size == ids.length) {
+				grow();
+			}
+			slot = size++;
+		}
+		ids[slot] = id;
+		ratings[slot] = (byte) rating;
+		statuses[slot] = (byte) status.ordinal();
+		categoryIds[slot] = categoryId;
+		createdAt[slot] = epoch;
+		index(slot);
+		if (ordered) {
+			order(slot, size - 1);
+		}
+	}
+
+	private void index(int slot) {
+		slotById.put(ids[slot], slot);
+		live.set(slot);
+		byStatus[statuses[slot]].set(slot);
+		if (categoryIds[slot] != 0) {
+			byCategory.computeIfAbsent(categoryIds[slot], k -> new BitSet()).set(slot);
+		}
+	}
+
+	private void clearIndexes(int slot) {
+		live.clear(slot);
+		byStatus[statuses[slot]].clear(slot);
+		BitSet bits = byCategory.get(categoryIds[slot]);
+		if (bits != null) {
+			bits.clear(slot);
+		}
+	}
+
+	private void grow() {
+		int capacity = ids.length * 2;
+		ids = Arrays.copyOf(ids, capacity);
+		ratings = Arrays.copyOf(ratings, capacity);
+		statuses = Arrays.copyOf(statuses, capacity);
+		categoryIds = Arrays.copyOf(categoryIds, capacity);
+		createdAt = Arrays.copyOf(createdAt, capacity);
+		for (int key = 0; key < orders.length; key++) {
+			orders[key] = Arrays.copyOf(orders[key], capacity);
+		}
+	}
+
+	private void countLive(FeedbackBreakdown.Counter counter) {
+		for (FeedbackStatus status : STATUSES) {
+			long[] perRating = new long[256];
+			BitSet bits = byStatus[status.ordinal()];
+			for (int slot = bits.nextSetBit(0); slot >= 0; slot = bits.nextSetBit(slot + 1)) {
+				perRating[ratings[slot] & 0xFF]++;
+			}
+			for (int rating = 0; rating < perRating.length; rating++) {
+				if (perRating[rating] > 0) {
+					counter.add(status, rating, perRating[rating]);
+				}
+			}
+		}
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
@@ -33,6 +33,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     private static final List<String> PUBLIC_ENDPOINTS = List.of(
         "/api/auth/admin/register",
         "/api/auth/user/register",
@@ -40,6 +43,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         "/api/auth/init",
         "/api/feedback",
         "/api/feedback/user/**",
+        "/api/products/**",
         "/v3/api-docs/**",
         "/swagger-ui/**",
         "/swagger-ui.html"
@@ -69,18 +73,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 String email = jwtUtil.extractUsername(token);
 
                 if (email != null && jwtUtil.validateToken(token)) {
-                    // Check both admin and user repositories
-                    boolean isAdmin = adminRepository.findByEmail(email).isPresent();
-                    boolean isUser = userRepository.findByEmail(email).isPresent();
-                    
-                    if (!isAdmin && !isUser) {
+                    // Check both admin and user repositories (cached per node, evicted cluster-wide on change)
+                    String role = principalCache.role(email, this::lookupRole);
+
+                    if (role == null) {
                         log.warn("User not found for email: {}", email);
                         response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid credentials");
                         return;
                     }
 
-                    String role = isAdmin ? "ADMIN" : "USER";
-
                     // Create authentication with appropriate role
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
@@ -109,6 +110,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private String lookupRole(String email) {
+        if (adminRepository.findByEmail(email).isPresent()) {
+            return "ADMIN";
+        }
+        return userRepository.findByEmail(email).isPresent() ? "USER" : null;
+    }
+
 	@Override
 protected boolean shouldNotFilter(HttpServletRequest request) {
     String path = request.getRequestURI();
@@ -116,6 +124,7 @@ protected boolean shouldNotFilter(HttpServletRequest request) {
     // Add all public endpoints here
     return path.startsWith("/api/auth/") ||
            path.startsWith("/api/feedback") ||
+           path.startsWith("/api/products/") ||
            path.equals("/api/v1/admin/feedback") ||  // ✅ skip JWT check for paginated feedback
            path.startsWith("/v3/api-docs") ||
            path.startsWith("/swagger-ui");
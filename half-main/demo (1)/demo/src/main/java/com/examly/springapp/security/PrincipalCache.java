@@ -0,0 +1,59 @@
+package com.examly.springapp.security;
+
+import com.examly.springapp.cache.InvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Caches the role resolved for a JWT subject so an authenticated request costs no admin/user lookups.
+// Registrations evict the email here and, through the invalidation bus, on every other node. Unknown emails
+// are never cached, and the TTL bounds staleness should an invalidation be lost.
+@Component
+public class PrincipalCache {
+
+	private final ConcurrentHashMap<String, Entry> roles = new ConcurrentHashMap<>();
+	private final AtomicLong evictions = new AtomicLong();
+	private final long ttlNanos;
+	private final int maxEntries;
+
+	public PrincipalCache(InvalidationBus bus,
+			@Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+			@Value("${app.security.principal-cache.max-entries:10000}") int maxEntries) {
+		this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+		this.maxEntries = maxEntries;
+		bus.subscribe(InvalidationBus.PRINCIPAL, this::evict);
+	}
+
+	// Returns the cached role, or loads it; null means the email belongs to no admin or user
+	public String role(String email, Function<String, String> loader) {
+		long now = System.nanoTime();
+		Entry entry = roles.get(email);
+		if (entry != null && now - entry.expiresAt() < 0) {
+			return entry.role();
+		}
+		// An eviction racing with the load must win, so the result is only stored if none happened meanwhile
+		long version = evictions.get();
+		String role = loader.apply(email);
+		if (role != null && evictions.get() == version) {
+			if (roles.size() >= maxEntries) {
+				roles.entrySet().removeIf(e -> now - e.getValue().expiresAt() >= 0);
+			}
+			if (roles.size() < maxEntries) {
+				roles.put(email, new Entry(role, now + ttlNanos));
+			}
+		}
+		return role;
+	}
+
+	public void evict(String email) {
+		evictions.incrementAndGet();
+		roles.remove(email);
+	}
+
+	private record Entry(String role, long expiresAt) {
+	}
+}
@@ -0,0 +1,98 @@
+package com.examly.springapp.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Per-client throttling for the expensive public routes (BCrypt login, anonymous feedback submission).
+// Runs after the security chain so per-principal buckets can use the authenticated name.
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private final RateLimitProperties properties;
+	private final TokenBucketRegistry buckets;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	public RateLimitFilter(RateLimitProperties properties) {
+		this.properties = properties;
+		this.buckets = new TokenBucketRegistry(properties.getMaxKeys(), properties.getIdleEvictionSeconds());
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain
+	) throws ServletException, IOException {
+		if (properties.isEnabled()) {
+			String path = request.getServletPath();
+			for (RateLimitProperties.Route route : properties.getRoutes()) {
+				if (!matches(route, request.getMethod(), path)) {
+					continue;
+				}
+				long waitNanos = buckets.tryAcquire(route.getPattern() + "|ip|" + clientIp(request),
+						route.getCapacity(), route.getRefillPerMinute());
+				if (waitNanos == 0 && route.isPerPrincipal()) {
+					Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+					// Anonymous callers (public submission skips the JWT filter) are keyed by address alone; a shared
+					// "anonymousUser" bucket would let any 20 submitters throttle everyone else
+					if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)
+							&& auth.getName() != null) {
+						waitNanos = buckets.tryAcquire(route.getPattern() + "|user|" + auth.getName(),
+								route.getCapacity(), route.getRefillPerMinute());
+					}
+				}
+				if (waitNanos > 0) {
+					reject(response, waitNanos);
+					return;
+				}
+				break;
+			}
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	private boolean matches(RateLimitProperties.Route route, String method, String path) {
+		if (route.getMethod() != null && !route.getMethod().equalsIgnoreCase(method)) {
+			return false;
+		}
+		return pathMatcher.match(route.getPattern(), path);
+	}
+
+	private String clientIp(HttpServletRequest request) {
+		if (properties.isTrustForwardedFor()) {
+			String forwarded = request.getHeader("X-Forwarded-For");
+			if (forwarded != null && !forwarded.isBlank()) {
+				int comma = forwarded.indexOf(',');
+				return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+			}
+		}
+		return request.getRemoteAddr();
+	}
+
+	private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+		long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+		response.setStatus(429);
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.getWriter().write("{\"error\":\"Too many requests\"}");
+	}
+}
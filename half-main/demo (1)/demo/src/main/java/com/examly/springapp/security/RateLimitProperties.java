@@ -0,0 +1,35 @@
+package com.examly.springapp.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+	private boolean enabled = true;
+
+	// Upper bound on tracked clients; idle buckets are swept before new ones are refused
+	private int maxKeys = 100_000;
+
+	private long idleEvictionSeconds = 300;
+
+	// Only honour X-Forwarded-For when running behind a trusted proxy
+	private boolean trustForwardedFor = false;
+
+	private List<Route> routes = new ArrayList<>();
+
+	@Data
+	public static class Route {
+		private String pattern;
+		private String method;
+		private int capacity = 10;
+		private int refillPerMinute = 10;
+		private boolean perPrincipal = false;
+	}
+}
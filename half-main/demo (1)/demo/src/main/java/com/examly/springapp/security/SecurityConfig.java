@@ -37,12 +37,14 @@ public class SecurityConfig {
 					"/api/auth/init",
 					"/api/feedback",
 					"/api/feedback/user/**",
+					"/api/products/**",
 					"/v3/api-docs/**",
 					"/swagger-ui/**",
 					"/swagger-ui.html",
 					"/api/v1/admin/feedback"
 				).permitAll()
 				.requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+				.requestMatchers("/actuator/loggers/**", "/actuator/debugsampling/**").hasRole("ADMIN")
 				.anyRequest().authenticated()
 			)
 			.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
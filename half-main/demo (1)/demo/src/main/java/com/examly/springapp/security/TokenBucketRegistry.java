@@ -0,0 +1,70 @@
+package com.examly.springapp.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets expressed as GCRA: each key holds a single "theoretical arrival time" updated by CAS,
+// so admission is lock-free and a bucket costs one AtomicLong. A bucket whose TAT is in the past is full
+// and can be dropped without losing any state; the periodic sweep only drops those idle for the eviction
+// window, a full table drops every full bucket.
+public class TokenBucketRegistry {
+
+	private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+	private final int maxKeys;
+	private final long idleNanos;
+	private final AtomicLong nextSweep = new AtomicLong();
+
+	public TokenBucketRegistry(int maxKeys, long idleEvictionSeconds) {
+		this.maxKeys = maxKeys;
+		this.idleNanos = TimeUnit.SECONDS.toNanos(idleEvictionSeconds);
+		this.nextSweep.set(System.nanoTime() + idleNanos);
+	}
+
+	// Returns 0 when the request is admitted, otherwise the number of nanoseconds until a token is available
+	public long tryAcquire(String key, int capacity, int refillPerMinute) {
+		long now = System.nanoTime();
+		maybeSweep(now);
+
+		AtomicLong tat = buckets.get(key);
+		if (tat == null) {
+			if (buckets.size() >= maxKeys) {
+				sweep(now, 0);
+				if (buckets.size() >= maxKeys) {
+					// Table full of active clients: fail closed rather than grow without bound
+					return TimeUnit.SECONDS.toNanos(1);
+				}
+			}
+			tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+		}
+
+		long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(refillPerMinute, 1);
+		long tolerance = interval * Math.max(capacity, 1);
+		while (true) {
+			long current = tat.get();
+			long newTat = Math.max(current, now) + interval;
+			long excess = newTat - now - tolerance;
+			if (excess > 0) {
+				return excess;
+			}
+			if (tat.compareAndSet(current, newTat)) {
+				return 0;
+			}
+		}
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+
+	private void maybeSweep(long now) {
+		long due = nextSweep.get();
+		if (now - due >= 0 && nextSweep.compareAndSet(due, now + idleNanos)) {
+			sweep(now, idleNanos);
+		}
+	}
+
+	private void sweep(long now, long idleFor) {
+		buckets.entrySet().removeIf(e -> now - e.getValue().get() > idleFor);
+	}
+}
@@ -2,7 +2,9 @@ package com.examly.springapp.service;
 
 import com.examly.springapp.model.Admin;
 import com.examly.springapp.repository.AdminRepository;
+import com.examly.springapp.cache.InvalidationBus;
 import com.examly.springapp.security.JwtUtil;
+import com.examly.springapp.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,10 +21,19 @@ public class AdminServiceImpl implements AdminService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
     @Override
     public Admin register(Admin admin) {
         admin.setPassword(passwordEncoder.encode(admin.getPassword()));
-        return adminRepo.save(admin);
+        Admin saved = adminRepo.save(admin);
+        principalCache.evict(saved.getEmail());
+        invalidationBus.publish(InvalidationBus.PRINCIPAL, saved.getEmail());
+        return saved;
     }
 
     @Override
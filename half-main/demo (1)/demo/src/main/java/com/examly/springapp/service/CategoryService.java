@@ -1,8 +1,9 @@
 package com.examly.springapp.service;
 
 import com.examly.springapp.model.Category;
-import org.springframework.data.domain.Page;
+import com.examly.springapp.pagination.CountMode;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -12,5 +13,5 @@ public interface CategoryService {
 	void delete(Long id);
 	Category get(Long id);
 	List<Category> getAll();
-	Page<Category> search(String name, Pageable pageable);
+	Slice<Category> search(String name, Pageable pageable, CountMode count);
 } 
\ No newline at end of file
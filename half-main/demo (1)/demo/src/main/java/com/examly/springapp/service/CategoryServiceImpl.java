@@ -1,61 +1,133 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.datasource.ReadYourWritesTracker;
 import com.examly.springapp.model.Category;
+import com.examly.springapp.pagination.CountMode;
+import com.examly.springapp.pagination.ParallelPageLoader;
 import com.examly.springapp.repository.CategoryRepository;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 	private final CategoryRepository repository;
+	private final WriteGeneration writeGeneration;
+	private final ReadYourWritesTracker readYourWrites;
+	private final ParallelPageLoader pageLoader;
+	private final InvalidationBus invalidationBus;
+	private final TransactionTemplate primary;
 
-	public CategoryServiceImpl(CategoryRepository repository) {
+	// All categories, held per node and reloaded once the category generation moves past the one loaded under.
+	// Writes on another node reach this one as a bus invalidation that bumps the generation.
+	private volatile Snapshot snapshot;
+
+	public CategoryServiceImpl(CategoryRepository repository, WriteGeneration writeGeneration, ReadYourWritesTracker readYourWrites,
+			ParallelPageLoader pageLoader, InvalidationBus invalidationBus, PlatformTransactionManager transactionManager) {
 		this.repository = repository;
+		this.writeGeneration = writeGeneration;
+		this.readYourWrites = readYourWrites;
+		this.pageLoader = pageLoader;
+		this.invalidationBus = invalidationBus;
+		// Reloads follow a write, possibly on another node, that the replica may not have applied yet. The snapshot
+		// would keep such a stale read until the next write, so it is read in a read-write transaction on the primary.
+		// get and getAll open no transaction of their own, so this one never waits for a second connection.
+		this.primary = new TransactionTemplate(transactionManager);
+		invalidationBus.subscribe(InvalidationBus.CATEGORY, id -> writeGeneration.bumpCategory());
 	}
 
 	@Override
+	@Transactional
 	public Category create(Category category) {
 		repository.findByName(category.getName()).ifPresent(c -> {
 			throw new RuntimeException("Category name already exists");
 		});
-		return repository.save(category);
+		Category saved = repository.save(category);
+		writeGeneration.bumpCategory();
+		invalidationBus.publish(InvalidationBus.CATEGORY, saved.getId());
+		readYourWrites.markWrite();
+		return saved;
 	}
 
 	@Override
+	@Transactional
 	public Category update(Long id, Category category) {
 		Category existing = repository.findById(id).orElseThrow(() -> new RuntimeException("Category not found"));
 		existing.setName(category.getName());
-		return repository.save(existing);
+		Category saved = repository.save(existing);
+		writeGeneration.bumpCategory();
+		invalidationBus.publish(InvalidationBus.CATEGORY, id);
+		readYourWrites.markWrite();
+		return saved;
 	}
 
 	@Override
+	@Transactional
 	public void delete(Long id) {
 		if (!repository.existsById(id)) {
 			throw new RuntimeException("Category not found");
 		}
 		repository.deleteById(id);
+		writeGeneration.bumpCategory();
+		invalidationBus.publish(InvalidationBus.CATEGORY, id);
+		readYourWrites.markWrite();
 	}
 
 	@Override
 	public Category get(Long id) {
-		return repository.findById(id).orElseThrow(() -> new RuntimeException("Category not found"));
+		Category category = snapshot().byId().get(id);
+		if (category == null) {
+			throw new RuntimeException("Category not found");
+		}
+		return category;
 	}
 
 	@Override
 	public List<Category> getAll() {
-		return repository.findAll();
+		return snapshot().all();
 	}
 
 	@Override
-	public Page<Category> search(String name, Pageable pageable) {
+	@Transactional(readOnly = true)
+	public Slice<Category> search(String name, Pageable pageable, CountMode count) {
 		if (name == null || name.isBlank()) {
-			return repository.findAll(pageable);
+			return pageLoader.load(pageable, count, "category", writeGeneration.category(),
+					() -> repository.findAllBy(pageable), repository::count);
 		}
-		Specification<Category> spec = (root, query, cb) -> cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
-		return repository.findAll(spec, pageable);
+		return pageLoader.load(pageable, count, "category|" + name.trim().toLowerCase(), writeGeneration.category(),
+				() -> repository.findByNameContainingIgnoreCase(name, pageable),
+				() -> repository.countByNameContainingIgnoreCase(name));
+	}
+
+	private Snapshot snapshot() {
+		// Generation is read before loading: a write during the load leaves the snapshot stale-stamped, not stuck
+		long generation = writeGeneration.category();
+		Snapshot current = snapshot;
+		if (current != null && current.generation() == generation) {
+			return current;
+		}
+		// A caller already in a read-only transaction is served from its connection, which may be the replica's
+		boolean replicaRead = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+		List<Category> all = primary.execute(s -> List.copyOf(repository.findAll()));
+		Snapshot loaded = new Snapshot(generation, all,
+				all.stream().collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity())));
+		if (!replicaRead) {
+			snapshot = loaded;
+		}
+		return loaded;
+	}
+
+	private record Snapshot(long generation, List<Category> all, Map<Long, Category> byId) {
 	}
-} 
\ No newline at end of file
+}
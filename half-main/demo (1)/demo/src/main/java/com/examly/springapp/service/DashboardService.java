@@ -0,0 +1,9 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dashboard.AdminDashboard;
+import com.examly.springapp.projection.FeedbackFieldSet;
+
+public interface DashboardService {
+	// fields may be null for full feedback rows on the first page
+	AdminDashboard load(FeedbackFieldSet fields, int size, String sortBy, String sortOrder);
+}
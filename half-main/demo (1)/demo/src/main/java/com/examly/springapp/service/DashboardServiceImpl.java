@@ -0,0 +1,72 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.FeedbackArchive;
+import com.examly.springapp.dashboard.AdminDashboard;
+import com.examly.springapp.dashboard.FeedbackBreakdown;
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.pagination.CountMode;
+import com.examly.springapp.pagination.ParallelPageLoader;
+import com.examly.springapp.projection.FeedbackFieldSet;
+import com.examly.springapp.repository.FeedbackRepository;
+import com.examly.springapp.search.FeedbackColumnStore;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class DashboardServiceImpl implements DashboardService {
+	private final FeedbackService feedbackService;
+	private final CategoryService categoryService;
+	private final FeedbackRepository repo;
+	private final FeedbackColumnStore columnStore;
+	private final FeedbackArchive archive;
+	private final ParallelPageLoader pageLoader;
+
+	public DashboardServiceImpl(FeedbackService feedbackService, CategoryService categoryService, FeedbackRepository repo,
+			FeedbackColumnStore columnStore, FeedbackArchive archive, ParallelPageLoader pageLoader) {
+		this.feedbackService = feedbackService;
+		this.categoryService = categoryService;
+		this.repo = repo;
+		this.columnStore = columnStore;
+		this.archive = archive;
+		this.pageLoader = pageLoader;
+	}
+
+	// The category list and the breakdown run on worker connections while this thread fetches the first page.
+	// The page skips its own count query: unfiltered, its total is the breakdown total.
+	@Override
+	public AdminDashboard load(FeedbackFieldSet fields, int size, String sortBy, String sortOrder) {
+		ParallelPageLoader.Pending<List<Category>> categories = pageLoader.submit(categoryService::getAll);
+		ParallelPageLoader.Pending<FeedbackBreakdown> breakdown = pageLoader.submit(this::breakdown);
+
+		Slice<?> first = fields == null
+				? feedbackService.searchAdmin(0, size, sortBy, sortOrder, null, null, null, null, null, null, null, CountMode.NONE)
+				: feedbackService.searchAdmin(fields, 0, size, sortBy, sortOrder, null, null, null, null, null, null, null,
+						CountMode.NONE);
+
+		FeedbackBreakdown counts = breakdown.join();
+		return new AdminDashboard(categories.join(),
+				new PageImpl<>(List.copyOf(first.getContent()), first.getPageable(), counts.total()), counts);
+	}
+
+	// Each row is counted once while an archive run moves rows out of the table: from the column store, archived
+	// rows it still holds are skipped; from the database, the segment list is read in the counts' snapshot (the
+	// REPEATABLE READ default), in which a segment and the rows it replaced are never both present.
+	private FeedbackBreakdown breakdown() {
+		FeedbackBreakdown.Counter counter = new FeedbackBreakdown.Counter();
+		if (columnStore.isReady()) {
+			columnStore.countInto(counter, notHeld -> archive.countInto(counter, notHeld));
+			return counter.build();
+		}
+		Set<String> segments = archive.committedSegments();
+		for (Object[] row : repo.countByStatusAndRating()) {
+			counter.add((FeedbackStatus) row[0], ((Number) row[1]).intValue(), ((Number) row[2]).longValue());
+		}
+		archive.countInto(counter, segments);
+		return counter.build();
+	}
+}
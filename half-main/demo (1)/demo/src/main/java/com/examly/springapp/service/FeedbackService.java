@@ -1,18 +1,25 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.history.UserHistoryPage;
 import com.examly.springapp.model.Feedback;
 import com.examly.springapp.model.FeedbackStatus;
-import org.springframework.data.domain.Page;
+import com.examly.springapp.pagination.CountMode;
+import com.examly.springapp.projection.FeedbackFieldSet;
+import com.examly.springapp.projection.FeedbackRow;
+import org.springframework.data.domain.Slice;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface FeedbackService {
 	Feedback submitFeedback(Feedback feedback);
 	List<Feedback> getFeedbackByUser(String userId);
+	UserHistoryPage getUserHistory(String userId, String before, int size, FeedbackFieldSet fields);
 	List<Feedback> getAllFeedback();
+	List<FeedbackRow> getAllFeedback(FeedbackFieldSet fields);
 	Feedback updateStatus(Long id, FeedbackStatus status);
 	void deleteFeedback(Long id);
-	Page<Feedback> searchAdmin(
+	Slice<Feedback> searchAdmin(
 		int page,
 		int size,
 		String sortBy,
@@ -21,7 +28,26 @@ public interface FeedbackService {
 		String email,
 		FeedbackStatus status,
 		Integer rating,
-		Long categoryId
+		Long categoryId,
+		LocalDateTime from,
+		LocalDateTime to,
+		CountMode count
+	);
+	// Sparse-fieldset variant of searchAdmin: only the selected columns are read
+	Slice<FeedbackRow> searchAdmin(
+		FeedbackFieldSet fields,
+		int page,
+		int size,
+		String sortBy,
+		String sortOrder,
+		String name,
+		String email,
+		FeedbackStatus status,
+		Integer rating,
+		Long categoryId,
+		LocalDateTime from,
+		LocalDateTime to,
+		CountMode count
 	);
 	Feedback updateCategory(Long id, Long categoryId);
 }
\ No newline at end of file
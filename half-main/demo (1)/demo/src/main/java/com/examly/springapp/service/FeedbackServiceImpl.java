@@ -1,102 +1,381 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.archive.FeedbackArchive;
+import com.examly.springapp.cache.ConditionalResponseCache;
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.datasource.ReadYourWritesTracker;
+import com.examly.springapp.history.FeedbackSummary;
+import com.examly.springapp.history.HistoryCursor;
+import com.examly.springapp.history.UserHistoryCache;
+import com.examly.springapp.history.UserHistoryPage;
+import com.examly.springapp.ingest.DuplicateFeedbackException;
+import com.examly.springapp.ingest.DuplicateSubmissionFilter;
 import com.examly.springapp.model.Category;
 import com.examly.springapp.model.Feedback;
 import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.pagination.CountMode;
+import com.examly.springapp.pagination.ParallelPageLoader;
+import com.examly.springapp.projection.FeedbackField;
+import com.examly.springapp.projection.FeedbackFieldSet;
+import com.examly.springapp.projection.FeedbackRow;
+import com.examly.springapp.rating.ProductRatingStore;
 import com.examly.springapp.repository.CategoryRepository;
 import com.examly.springapp.repository.FeedbackRepository;
+import com.examly.springapp.repository.FeedbackSearchQueries;
+import com.examly.springapp.search.FeedbackColumnStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
 public class FeedbackServiceImpl implements FeedbackService {
 
 	private final FeedbackRepository repo;
 	private final CategoryRepository categoryRepository;
+	private final WriteGeneration writeGeneration;
+	private final ReadYourWritesTracker readYourWrites;
+	private final FeedbackColumnStore columnStore;
+	private final DuplicateSubmissionFilter duplicateFilter;
+	private final FeedbackArchive archive;
+	private final FeedbackSearchQueries searchQueries;
+	private final ParallelPageLoader pageLoader;
+	private final InvalidationBus invalidationBus;
+	private final UserHistoryCache historyCache;
+	private final ProductRatingStore productRatings;
 
-	public FeedbackServiceImpl(FeedbackRepository repo, CategoryRepository categoryRepository) {
+	@Value("${app.ingest.duplicate.action:reject}")
+	private String duplicateAction;
+
+	@Value("${app.history.max-page-size:100}")
+	private int maxHistoryPageSize;
+
+	@Value("${app.feedback.user-list.max-rows:200}")
+	private int maxUserListRows;
+
+	public FeedbackServiceImpl(FeedbackRepository repo, CategoryRepository categoryRepository, WriteGeneration writeGeneration,
+			ReadYourWritesTracker readYourWrites, FeedbackColumnStore columnStore, DuplicateSubmissionFilter duplicateFilter,
+			FeedbackArchive archive, FeedbackSearchQueries searchQueries, ParallelPageLoader pageLoader,
+			InvalidationBus invalidationBus, UserHistoryCache historyCache, ProductRatingStore productRatings) {
 		this.repo = repo;
 		this.categoryRepository = categoryRepository;
+		this.writeGeneration = writeGeneration;
+		this.readYourWrites = readYourWrites;
+		this.columnStore = columnStore;
+		this.duplicateFilter = duplicateFilter;
+		this.archive = archive;
+		this.searchQueries = searchQueries;
+		this.pageLoader = pageLoader;
+		this.invalidationBus = invalidationBus;
+		this.historyCache = historyCache;
+		this.productRatings = productRatings;
+		invalidationBus.subscribe(InvalidationBus.FEEDBACK, this::onRemoteChange);
 	}
 
 	@Override
+	@Transactional
 	public Feedback submitFeedback(Feedback feedback) {
+		// Near-duplicate / flood check runs before the insert, so rejected spam rolls back without writing a row
+		DuplicateSubmissionFilter.Verdict verdict = duplicateFilter.check(feedback);
+		if (verdict != DuplicateSubmissionFilter.Verdict.ACCEPT) {
+			if ("reject".equalsIgnoreCase(duplicateAction)) {
+				throw new DuplicateFeedbackException("Duplicate feedback rejected");
+			}
+			log.info("Flagged {} submission for product {}", verdict, feedback.getProductId());
+			feedback.setStatus(FeedbackStatus.FLAGGED);
+		}
 		// If category provided by id inside nested object, ensure it's managed
 		if (feedback.getCategory() != null && feedback.getCategory().getId() != null) {
 			Category category = categoryRepository.findById(feedback.getCategory().getId())
 					.orElseThrow(() -> new RuntimeException("Category not found"));
 			feedback.setCategory(category);
 		}
-		return repo.save(feedback);
+		Feedback saved = repo.save(feedback);
+		columnStore.upsert(saved);
+		historyCache.added(saved.getUserId(), FeedbackSummary.of(saved));
+		productRatings.recorded(saved);
+		writeGeneration.bumpFeedback();
+		publish(saved.getId(), saved.getUserId());
+		publishRating(saved.getProductId());
+		readYourWrites.markWrite();
+		return saved;
 	}
 
+	// Deprecated full-row listing: only the newest maxUserListRows, archived ones filling up what the table lacks.
+	// Archived rows are older than every live one, so the live rows come first. getUserHistory pages the rest.
 	@Override
+	@Transactional(readOnly = true)
 	public List<Feedback> getFeedbackByUser(String userId) {
-		return repo.findByUserId(userId);
+		List<Feedback> rows = repo.findByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, maxUserListRows));
+		if (rows.size() < maxUserListRows && archive.hasSegments()) {
+			rows = new ArrayList<>(rows);
+			rows.addAll(archive.newestByUser(userId, null, 0, maxUserListRows - rows.size()));
+		}
+		return rows;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public UserHistoryPage getUserHistory(String userId, String before, int size, FeedbackFieldSet fields) {
+		int limit = Math.min(Math.max(size, 1), maxHistoryPageSize);
+		HistoryCursor cursor = HistoryCursor.decode(before);
+		if (fields != null && !fields.inSummary()) {
+			// Fields outside the summary are read from the table; createdAt is always selected, it is half the cursor
+			FeedbackFieldSet selected = fields.with(FeedbackField.CREATED_AT);
+			List<FeedbackRow> rows = withArchived(searchQueries.historyFields(selected, userId, cursor, limit + 1), userId,
+					cursor, limit + 1, row -> (LocalDateTime) row.get(FeedbackField.CREATED_AT),
+					row -> (Long) row.get(FeedbackField.ID), selected::row);
+			if (rows.size() <= limit) {
+				return new UserHistoryPage(rows, null);
+			}
+			FeedbackRow last = rows.get(limit - 1);
+			return new UserHistoryPage(rows.subList(0, limit), new HistoryCursor(
+					(LocalDateTime) last.get(FeedbackField.CREATED_AT), (Long) last.get(FeedbackField.ID)).encode());
+		}
+
+		// One extra row says whether another page follows
+		List<FeedbackSummary> rows = historyCache.page(userId, cursor, limit + 1, (after, n) -> withArchived(after == null
+				? repo.findHistory(userId, PageRequest.of(0, n))
+				: repo.findHistoryBefore(userId, after.createdAt(), after.id(), PageRequest.of(0, n)),
+				userId, after, n, FeedbackSummary::createdAt, FeedbackSummary::id, FeedbackSummary::of));
+		List<FeedbackSummary> page = rows.size() <= limit ? rows : rows.subList(0, limit);
+		String next = rows.size() <= limit ? null : HistoryCursor.after(page.get(limit - 1)).encode();
+		return new UserHistoryPage(fields == null ? page : page.stream().map(fields::row).toList(), next);
+	}
+
+	// Merges the user's archived rows past the cursor into `n` live rows, newest first. Archived rows are usually
+	// older than live ones but not by rule (bulk loads carry their own dates), so the archive is only skipped when
+	// the live rows fill the page with rows newer than anything archived.
+	private <T> List<T> withArchived(List<T> live, String userId, HistoryCursor cursor, int n,
+			Function<T, LocalDateTime> createdAt, Function<T, Long> id, Function<Feedback, T> convert) {
+		LocalDateTime newestArchived = archive.newestCreatedAt();
+		if (newestArchived == null || (live.size() >= n && createdAt.apply(live.get(n - 1)).isAfter(newestArchived))) {
+			return live;
+		}
+		List<T> merged = new ArrayList<>(live);
+		archive.newestByUser(userId, cursor == null ? null : cursor.createdAt(), cursor == null ? 0 : cursor.id(), n)
+				.forEach(fb -> merged.add(convert.apply(fb)));
+		merged.sort(Comparator.comparing(createdAt).thenComparing(id).reversed());
+		return merged.size() <= n ? merged : new ArrayList<>(merged.subList(0, n));
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Feedback> getAllFeedback() {
-		return repo.findAll();
+		List<Feedback> rows = repo.findAll();
+		if (archive.hasSegments()) {
+			rows = new ArrayList<>(rows);
+			rows.addAll(archive.all());
+		}
+		return rows;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public List<FeedbackRow> getAllFeedback(FeedbackFieldSet fields) {
+		List<FeedbackRow> rows = searchQueries.allFields(fields);
+		if (archive.hasSegments()) {
+			List<FeedbackRow> merged = new ArrayList<>(rows);
+			archive.all().forEach(fb -> merged.add(fields.row(fb)));
+			return merged;
+		}
+		return rows;
+	}
+
+	@Override
+	@Transactional
 	public Feedback updateStatus(Long id, FeedbackStatus status) {
 		Feedback fb = repo.findById(id).orElseThrow(() -> new RuntimeException("Feedback not found"));
 		fb.setStatus(status);
-		return repo.save(fb);
+		Feedback saved = repo.save(fb);
+		columnStore.upsert(saved);
+		historyCache.replaced(saved.getUserId(), FeedbackSummary.of(saved));
+		writeGeneration.bumpFeedback();
+		publish(saved.getId(), saved.getUserId());
+		readYourWrites.markWrite();
+		return saved;
 	}
 
 	@Override
+	@Transactional
 	public void deleteFeedback(Long id) {
-		if (!repo.existsById(id)) {
-			throw new RuntimeException("Feedback not found");
-		}
-		repo.deleteById(id);
+		Feedback fb = repo.findById(id).orElseThrow(() -> new RuntimeException("Feedback not found"));
+		repo.delete(fb);
+		columnStore.remove(id);
+		historyCache.removed(fb.getUserId(), id);
+		productRatings.removed(fb);
+		writeGeneration.bumpFeedback();
+		publish(id, fb.getUserId());
+		publishRating(fb.getProductId());
+		readYourWrites.markWrite();
 	}
 
 	@Override
-	public Page<Feedback> searchAdmin(int page, int size, String sortBy, String sortOrder, String name, String email, FeedbackStatus status, Integer rating, Long categoryId) {
-		Sort sort = Sort.by((sortBy == null || sortBy.isBlank()) ? "createdAt" : sortBy);
-		sort = ("desc".equalsIgnoreCase(sortOrder)) ? sort.descending() : sort.ascending();
-		Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1), sort);
-
-		Specification<Feedback> spec = null;
+	@Transactional(readOnly = true)
+	public Slice<Feedback> searchAdmin(int page, int size, String sortBy, String sortOrder, String name, String email, FeedbackStatus status, Integer rating, Long categoryId,
+			LocalDateTime from, LocalDateTime to, CountMode count) {
+		Pageable pageable = pageable(page, size, sortBy, sortOrder);
+		Sort sort = pageable.getSort();
+		String sortKey = FeedbackSearchQueries.requireSortKey(sort.iterator().next().getProperty());
+		boolean descending = "desc".equalsIgnoreCase(sortOrder);
 
-		if (name != null && !name.isBlank()) {
-			Specification<Feedback> s = (root, q, cb) -> cb.like(cb.lower(root.get("submitterName")), "%" + name.toLowerCase() + "%");
-			spec = (spec == null) ? s : spec.and(s);
+		if (!archive.hasSegments()) {
+			return searchLive(pageable, sortKey, descending, name, email, status, rating, categoryId, from, to, count,
+					this::hydrate,
+					() -> searchQueries.slice(pageable, sortKey, descending, name, email, status, rating, categoryId, from, to));
 		}
-		if (email != null && !email.isBlank()) {
-			Specification<Feedback> s = (root, q, cb) -> cb.like(cb.lower(root.get("submitterEmail")), "%" + email.toLowerCase() + "%");
-			spec = (spec == null) ? s : spec.and(s);
-		}
-		if (status != null) {
-			Specification<Feedback> s = (root, q, cb) -> cb.equal(root.get("status"), status);
-			spec = (spec == null) ? s : spec.and(s);
+
+		// Archived rows are merged in: take the first (page + 1) * size rows from each tier and slice the merge
+		int window = (pageable.getPageNumber() + 1) * pageable.getPageSize();
+		Comparator<Feedback> order = comparator(sortKey, descending);
+		Pageable head = PageRequest.of(0, window, sort);
+		Slice<Feedback> live = searchLive(head, sortKey, descending, name, email, status, rating, categoryId, from, to, count,
+				this::hydrate,
+				() -> searchQueries.slice(head, sortKey, descending, name, email, status, rating, categoryId, from, to));
+		FeedbackArchive.Result archived = archive.query(FeedbackArchive.matching(name, email, status, rating, categoryId),
+				from, to, sortKey, descending, window);
+
+		List<Feedback> merged = new ArrayList<>(live.getContent());
+		merged.addAll(archived.rows());
+		merged.sort(order);
+		int first = Math.min(merged.size(), (int) pageable.getOffset());
+		int last = Math.min(merged.size(), first + pageable.getPageSize());
+		if (live instanceof Page<Feedback> livePage) {
+			return new PageImpl<>(merged.subList(first, last), pageable, livePage.getTotalElements() + archived.total());
 		}
-		if (rating != null) {
-			Specification<Feedback> s = (root, q, cb) -> cb.equal(root.get("rating"), rating);
-			spec = (spec == null) ? s : spec.and(s);
+		return new SliceImpl<>(merged.subList(first, last), pageable,
+				last < merged.size() || live.hasNext() || archived.total() > archived.rows().size());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<FeedbackRow> searchAdmin(FeedbackFieldSet fields, int page, int size, String sortBy, String sortOrder,
+			String name, String email, FeedbackStatus status, Integer rating, Long categoryId, LocalDateTime from,
+			LocalDateTime to, CountMode count) {
+		// Archived rows are held as entities, so with segments present the full search runs and is projected
+		if (archive.hasSegments()) {
+			return searchAdmin(page, size, sortBy, sortOrder, name, email, status, rating, categoryId, from, to, count)
+					.map(fields::row);
 		}
-		if (categoryId != null) {
-			Specification<Feedback> s = (root, q, cb) -> cb.equal(root.join("category").get("id"), categoryId);
-			spec = (spec == null) ? s : spec.and(s);
+		Pageable pageable = pageable(page, size, sortBy, sortOrder);
+		String sortKey = FeedbackSearchQueries.requireSortKey(pageable.getSort().iterator().next().getProperty());
+		boolean descending = "desc".equalsIgnoreCase(sortOrder);
+		return searchLive(pageable, sortKey, descending, name, email, status, rating, categoryId, from, to, count,
+				ids -> inOrder(ids, searchQueries.fieldsByIds(fields, ids), row -> (Long) row.get(FeedbackField.ID)),
+				() -> searchQueries.sliceFields(fields, pageable, sortKey, descending, name, email, status, rating,
+						categoryId, from, to));
+	}
+
+	private static Pageable pageable(int page, int size, String sortBy, String sortOrder) {
+		Sort sort = Sort.by((sortBy == null || sortBy.isBlank()) ? "createdAt" : sortBy);
+		sort = ("desc".equalsIgnoreCase(sortOrder)) ? sort.descending() : sort.ascending();
+		return PageRequest.of(Math.max(page, 0), Math.max(size, 1), sort);
+	}
+
+	private <T> Slice<T> searchLive(Pageable pageable, String sortKey, boolean descending, String name, String email,
+			FeedbackStatus status, Integer rating, Long categoryId, LocalDateTime from, LocalDateTime to, CountMode count,
+			Function<List<Long>, List<T>> byIds, Supplier<Slice<T>> slice) {
+		// Structured-only filters are answered from the in-memory column store; text filters still need SQL LIKE
+		boolean textFilter = (name != null && !name.isBlank()) || (email != null && !email.isBlank());
+		if (columnStore.isReady() && !textFilter && FeedbackColumnStore.SORT_KEYS.contains(sortKey)) {
+			FeedbackColumnStore.Result result = columnStore.query(status, rating, categoryId, from, to, sortKey,
+					descending, pageable.getPageNumber(), pageable.getPageSize());
+			return ParallelPageLoader.asRequested(new PageImpl<>(byIds.apply(result.ids()), pageable, result.total()), count);
 		}
 
-		return (spec == null) ? repo.findAll(pageable) : repo.findAll(spec, pageable);
+		String countKey = ConditionalResponseCache.key("feedback", name == null ? null : name.toLowerCase(),
+				email == null ? null : email.toLowerCase(), status, rating, categoryId, from, to);
+		return pageLoader.load(pageable, count, countKey, writeGeneration.feedbackView(), slice,
+				() -> searchQueries.count(name, email, status, rating, categoryId, from, to));
 	}
 
 	@Override
+	@Transactional
 	public Feedback updateCategory(Long id, Long categoryId) {
 		Feedback fb = repo.findById(id).orElseThrow(() -> new RuntimeException("Feedback not found"));
 		Category category = categoryRepository.findById(categoryId).orElseThrow(() -> new RuntimeException("Category not found"));
 		fb.setCategory(category);
-		return repo.save(fb);
+		Feedback saved = repo.save(fb);
+		columnStore.upsert(saved);
+		historyCache.replaced(saved.getUserId(), FeedbackSummary.of(saved));
+		writeGeneration.bumpFeedback();
+		publish(saved.getId(), saved.getUserId());
+		readYourWrites.markWrite();
+		return saved;
+	}
+
+	private static Comparator<Feedback> comparator(String sortKey, boolean descending) {
+		Comparator<Feedback> order = switch (sortKey) {
+			case "rating" -> Comparator.comparingInt(Feedback::getRating);
+			case "id" -> Comparator.comparing(Feedback::getId);
+			case "status" -> Comparator.comparing(fb -> fb.getStatus().name());
+			case "productId" -> Comparator.comparing(Feedback::getProductId, FeedbackArchive.TEXT_ORDER);
+			case "submitterName" -> Comparator.comparing(Feedback::getSubmitterName, FeedbackArchive.TEXT_ORDER);
+			case "submitterEmail" -> Comparator.comparing(Feedback::getSubmitterEmail, FeedbackArchive.TEXT_ORDER);
+			default -> Comparator.comparing(Feedback::getCreatedAt);
+		};
+		order = order.thenComparing(Feedback::getId);
+		return descending ? order.reversed() : order;
+	}
+
+	private void publish(Long id, String userId) {
+		invalidationBus.publish(InvalidationBus.FEEDBACK, id);
+		if (userId != null) {
+			invalidationBus.publish(InvalidationBus.USER_HISTORY, userId);
+		}
+	}
+
+	private void publishRating(String productId) {
+		if (productId != null) {
+			invalidationBus.publish(InvalidationBus.PRODUCT_RATING, productId);
+		}
+	}
+
+	// Another node wrote this row: refresh its column-store entry and invalidate this node's cached views
+	private void onRemoteChange(String key) {
+		if (InvalidationBus.ALL.equals(key)) {
+			if (columnStore.isReady()) {
+				columnStore.load();
+			}
+			writeGeneration.bumpFeedback();
+			return;
+		}
+		long id = Long.parseLong(key);
+		if (columnStore.isReady()) {
+			repo.findById(id).ifPresentOrElse(columnStore::upsert, () -> columnStore.remove(id));
+		}
+		writeGeneration.bumpFeedback();
+	}
+
+	// Loads full rows for the ids of one page and restores the column store's ordering
+	private List<Feedback> hydrate(List<Long> ids) {
+		return ids.isEmpty() ? List.of() : inOrder(ids, repo.findByIdIn(ids), Feedback::getId);
+	}
+
+	private static <T> List<T> inOrder(List<Long> ids, List<T> found, Function<T, Long> id) {
+		Map<Long, Integer> position = new HashMap<>();
+		for (int i = 0; i < ids.size(); i++) {
+			position.put(ids.get(i), i);
+		}
+		List<T> rows = new ArrayList<>(found);
+		rows.sort(Comparator.comparingInt(row -> position.get(id.apply(row))));
+		return rows;
 	}
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.examly.springapp.service;
 
 import com.examly.springapp.model.User;
 import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.cache.InvalidationBus;
 import com.examly.springapp.security.JwtUtil;
+import com.examly.springapp.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,10 +21,19 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
     @Override
     public User register(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepo.save(user);
+        User saved = userRepo.save(user);
+        principalCache.evict(saved.getEmail());
+        invalidationBus.publish(InvalidationBus.PRINCIPAL, saved.getEmail());
+        return saved;
     }
 
     @Override
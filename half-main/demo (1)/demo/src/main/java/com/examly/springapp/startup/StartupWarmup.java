@@ -0,0 +1,192 @@
+package com.examly.springapp.startup;
+
+import com.examly.springapp.ingest.DuplicateSubmissionFilter;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.pagination.CountMode;
+import com.examly.springapp.repository.AdminRepository;
+import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.security.JwtUtil;
+import com.examly.springapp.service.CategoryService;
+import com.examly.springapp.service.FeedbackService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Drives the login-verify, feedback-submit and admin-search paths against the local database before the node
+// reports ready, so JIT compilation, Hibernate query plans and Jackson serializers are in place when traffic
+// arrives. Boot only publishes ReadinessState.ACCEPTING_TRAFFIC once ApplicationReadyEvent listeners return.
+// Everything is read-only: the submit path stops short of the insert, which even rolled back would consume
+// AUTO_INCREMENT ids on the shared table, and its duplicate check runs in a rolled-back transaction so the filter
+// (which records submissions only after commit) never learns the warmup comments.
+//
+// Also records startup timing as gauges: app.startup.ready (JVM start to context ready), app.startup.warmup and
+// app.startup.steady-state (JVM start to the first warmup iteration after which latency stays flat).
+@Slf4j
+@Component
+public class StartupWarmup {
+
+	private static final String EMAIL = "warmup@localhost";
+	private static final int PASSWORD_CHECKS = 2;
+
+	private final JwtUtil jwtUtil;
+	private final PasswordEncoder passwordEncoder;
+	private final AdminRepository adminRepository;
+	private final UserRepository userRepository;
+	private final FeedbackService feedbackService;
+	private final CategoryService categoryService;
+	private final DuplicateSubmissionFilter duplicateFilter;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate rollbackOnly;
+	private final TransactionTemplate readOnly;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${app.warmup.enabled:false}")
+	private boolean enabled;
+
+	@Value("${app.warmup.iterations:200}")
+	private int iterations;
+
+	@Value("${app.warmup.max-seconds:20}")
+	private long maxSeconds;
+
+	public StartupWarmup(JwtUtil jwtUtil, PasswordEncoder passwordEncoder, AdminRepository adminRepository,
+			UserRepository userRepository, FeedbackService feedbackService, CategoryService categoryService,
+			DuplicateSubmissionFilter duplicateFilter, ObjectMapper objectMapper, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+		this.jwtUtil = jwtUtil;
+		this.passwordEncoder = passwordEncoder;
+		this.adminRepository = adminRepository;
+		this.userRepository = userRepository;
+		this.feedbackService = feedbackService;
+		this.categoryService = categoryService;
+		this.duplicateFilter = duplicateFilter;
+		this.objectMapper = objectMapper;
+		this.rollbackOnly = new TransactionTemplate(transactionManager);
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+		this.meterRegistry = meterRegistry;
+	}
+
+	// Lowest precedence: the column store, archive and migration ready listeners are ordered ahead of this one
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void warmUp() {
+		long readyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+		gauge("app.startup.ready", readyMs, "JVM start until the application context was ready");
+		if (!enabled || iterations <= 0) {
+			log.info("Ready {} ms after JVM start (warmup disabled)", readyMs);
+			return;
+		}
+
+		String passwordHash = passwordEncoder.encode("warmup");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(maxSeconds);
+		long[] durations = new long[iterations];
+		int completed = 0;
+		for (int n = 0; n < iterations && System.nanoTime() - deadline < 0; n++) {
+			int i = n;
+			long start = System.nanoTime();
+			try {
+				loginVerify(i, passwordHash);
+				feedbackSubmit(i);
+				// Serialised inside the transaction, as open-in-view does for real requests (lazy comment bodies)
+				readOnly.executeWithoutResult(status -> adminSearch(i));
+			} catch (RuntimeException e) {
+				log.warn("Warmup iteration {} failed, stopping warmup: {}", i, e.getMessage());
+				break;
+			}
+			durations[i] = System.nanoTime() - start;
+			completed++;
+		}
+
+		long warmupMs = TimeUnit.NANOSECONDS.toMillis(Arrays.stream(durations, 0, completed).sum());
+		int steady = steadyIteration(durations, completed);
+		long steadyMs = readyMs + TimeUnit.NANOSECONDS.toMillis(Arrays.stream(durations, 0, steady).sum());
+		gauge("app.startup.warmup", warmupMs, "Time spent in pre-readiness warmup");
+		gauge("app.startup.steady-state", steadyMs, "JVM start until warmup iteration latency levelled off");
+		log.info("Warmup ran {} iterations in {} ms (first {} us, last {} us); ready {} ms and steady {} ms after JVM start",
+				completed, warmupMs, completed > 0 ? TimeUnit.NANOSECONDS.toMicros(durations[0]) : 0,
+				completed > 0 ? TimeUnit.NANOSECONDS.toMicros(durations[completed - 1]) : 0, readyMs, steadyMs);
+	}
+
+	private void loginVerify(int i, String passwordHash) {
+		String token = jwtUtil.generateToken(EMAIL);
+		if (!jwtUtil.validateToken(token) || !EMAIL.equals(jwtUtil.extractUsername(token))) {
+			throw new IllegalStateException("JWT round trip failed");
+		}
+		adminRepository.findByEmail(EMAIL);
+		userRepository.findByEmail(EMAIL);
+		// BCrypt costs tens of milliseconds by design; a couple of calls load the classes without stretching startup
+		if (i < PASSWORD_CHECKS) {
+			passwordEncoder.matches("warmup", passwordHash);
+		}
+	}
+
+	// Request and response JSON plus the near-duplicate verdict; the response is the unsaved entity as it would be
+	// after the insert
+	private void feedbackSubmit(int i) {
+		try {
+			Feedback feedback = objectMapper.readValue("{\"userId\":\"warmup\",\"productId\":\"warmup\",\"rating\":"
+					+ (i % 5 + 1) + ",\"comment\":\"warmup feedback comment number " + i + "\"}", Feedback.class);
+			rollbackOnly.executeWithoutResult(status -> {
+				status.setRollbackOnly();
+				duplicateFilter.check(feedback);
+			});
+			feedback.setId((long) i);
+			feedback.onCreate();
+			objectMapper.writeValueAsBytes(feedback);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void adminSearch(int i) {
+		FeedbackStatus status = (i % 3 == 0) ? FeedbackStatus.PENDING : null;
+		String sortBy = (i % 2 == 0) ? "createdAt" : "rating";
+		CountMode count = CountMode.values()[i % CountMode.values().length];
+		try {
+			objectMapper.writeValueAsBytes(feedbackService.searchAdmin(0, 10, sortBy, "desc", null, null, status, null, null,
+					null, null, count));
+			objectMapper.writeValueAsBytes(feedbackService.searchAdmin(0, 10, "createdAt", "desc", "warmup", null, null,
+					null, null, null, null, CountMode.EXACT));
+			objectMapper.writeValueAsBytes(categoryService.getAll());
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// First iteration after which no iteration took more than 1.25x the median of the final quarter
+	static int steadyIteration(long[] durations, int completed) {
+		if (completed < 4) {
+			return completed;
+		}
+		long[] tail = Arrays.copyOfRange(durations, completed - completed / 4, completed);
+		Arrays.sort(tail);
+		long limit = tail[tail.length / 2] * 5 / 4;
+		int steady = completed;
+		while (steady > 0 && durations[steady - 1] <= limit) {
+			steady--;
+		}
+		return steady;
+	}
+
+	private void gauge(String name, long millis, String description) {
+		TimeGauge.builder(name, () -> millis, TimeUnit.MILLISECONDS)
+				.description(description)
+				.register(meterRegistry);
+	}
+}
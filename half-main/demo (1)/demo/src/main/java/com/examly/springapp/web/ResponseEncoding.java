@@ -0,0 +1,93 @@
+package com.examly.springapp.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Picks JSON, Smile or CBOR from the Accept header for the bulk list endpoints. The binary mappers share the
+// application ObjectMapper's configuration; Smile back-references repeated field names and short strings
+// (status, category names), which removes most of the per-row repetition in feedback lists.
+@Component
+public class ResponseEncoding {
+
+	public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+	public static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+	private static final Comparator<MediaType> PREFERENCE = Comparator.comparingDouble(MediaType::getQualityValue)
+			.reversed().thenComparing(type -> type.isWildcardType() || type.isWildcardSubtype());
+
+	private final ObjectMapper jsonMapper;
+	private final ObjectMapper smileMapper;
+	private final ObjectMapper cborMapper;
+
+	public ResponseEncoding(ObjectMapper objectMapper) {
+		this.jsonMapper = objectMapper;
+		this.smileMapper = objectMapper.copyWith(SmileFactory.builder()
+				.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+				.build());
+		this.cborMapper = objectMapper.copyWith(new CBORFactory());
+	}
+
+	// The client's preference by q-value, concrete types ahead of wildcards at the same q, otherwise in header
+	// order; the first type one of the mappers can write wins. q=0 means "not acceptable".
+	public MediaType negotiate(HttpServletRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (accept != null) {
+			List<MediaType> types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+			types.sort(PREFERENCE);
+			for (MediaType type : types) {
+				if (type.getQualityValue() == 0) {
+					continue;
+				}
+				if (type.isCompatibleWith(SMILE) && !type.isWildcardType()) {
+					return SMILE;
+				}
+				if (type.isCompatibleWith(CBOR) && !type.isWildcardType()) {
+					return CBOR;
+				}
+				if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+					return MediaType.APPLICATION_JSON;
+				}
+			}
+		}
+		return MediaType.APPLICATION_JSON;
+	}
+
+	public ObjectMapper mapperFor(MediaType type) {
+		if (SMILE.equals(type)) {
+			return smileMapper;
+		}
+		if (CBOR.equals(type)) {
+			return cborMapper;
+		}
+		return jsonMapper;
+	}
+
+	// Writes rows one at a time into the response stream instead of materialising the whole document
+	public StreamingResponseBody streamArray(Iterable<?> rows, MediaType type) {
+		ObjectMapper mapper = mapperFor(type);
+		ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return (OutputStream out) -> {
+			try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+				gen.writeStartArray();
+				for (Object row : rows) {
+					writer.writeValue(gen, row);
+				}
+				gen.writeEndArray();
+			}
+		};
+	}
+}
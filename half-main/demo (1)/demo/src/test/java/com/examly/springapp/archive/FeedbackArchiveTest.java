@@ -0,0 +1,262 @@
+package com.examly.springapp.archive;
+
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.InvalidationTransport;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.datasource.ReadYourWritesTracker;
+import com.examly.springapp.history.FeedbackSummary;
+import com.examly.springapp.history.UserHistoryCache;
+import com.examly.springapp.history.UserHistoryPage;
+import com.examly.springapp.ingest.DuplicateSubmissionFilter;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.pagination.ParallelPageLoader;
+import com.examly.springapp.rating.ProductRatingStore;
+import com.examly.springapp.repository.CategoryRepository;
+import com.examly.springapp.repository.DatabaseLock;
+import com.examly.springapp.repository.FeedbackRepository;
+import com.examly.springapp.repository.FeedbackSearchQueries;
+import com.examly.springapp.search.FeedbackColumnStore;
+import com.examly.springapp.service.FeedbackServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedbackArchiveTest {
+
+	private static final LocalDateTime OLD = LocalDateTime.of(2020, 3, 1, 9, 0, 0, 123_456_000);
+	private static final LocalDateTime CUTOFF = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+	@TempDir
+	Path nodeA;
+
+	@TempDir
+	Path nodeB;
+
+	private SingleConnectionDataSource db;
+	private JdbcTemplate jdbc;
+	private final CategoryRepository categories = mock(CategoryRepository.class);
+
+	@BeforeEach
+	void setUp() {
+		db = new SingleConnectionDataSource("jdbc:h2:mem:archive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000", true);
+		jdbc = new JdbcTemplate(db);
+		jdbc.execute("create table feedback_comment (id bigint auto_increment primary key, text varchar(500))");
+		jdbc.execute("create table feedback (id bigint auto_increment primary key, user_id varchar(255), "
+				+ "product_id varchar(255), rating int not null, comment varchar(500), comment_id bigint, "
+				+ "comment_preview varchar(80), submitter_name varchar(255), submitter_email varchar(255), status varchar(255), "
+				+ "category_id bigint, created_at timestamp(6) not null)");
+		when(categories.findAll()).thenReturn(List.of());
+		for (int i = 0; i < 30; i++) {
+			insert(i % 3 == 0 ? "alice" : "bob", i % 5 + 1, OLD.plusDays(i), i % 2 == 0 ? "comment " + i : null);
+		}
+		insert("alice", 4, LocalDateTime.now().minusDays(1), "recent");
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbc.execute("drop all objects");
+		db.destroy();
+	}
+
+	@Test
+	void archivesIntoASharedSegmentAndReadsItBackOnAnotherNode() throws Exception {
+		FeedbackArchive a = archive(nodeA);
+		a.open();
+
+		assertThat(a.archiveOlderThan(CUTOFF)).isEqualTo(30);
+		assertThat(count("select count(*) from feedback")).isEqualTo(1);
+		assertThat(count("select count(*) from feedback_comment")).isEqualTo(1);
+		// segment-rows is 20
+		assertThat(count("select count(*) from " + FeedbackArchive.TABLE)).isEqualTo(2);
+
+		FeedbackArchive b = archive(nodeB);
+		b.open();
+		assertThat(b.hasSegments()).isTrue();
+		for (FeedbackArchive node : List.of(a, b)) {
+			FeedbackArchive.Result fives = node.query(FeedbackArchive.matching(null, null, null, 5, null), null, null,
+					"createdAt", true, 2);
+			assertThat(fives.total()).isEqualTo(6);
+			assertThat(fives.rows()).extracting(Feedback::getCreatedAt).containsExactly(OLD.plusDays(29), OLD.plusDays(24));
+			assertThat(node.newestByUser("alice", null, 0, 100)).hasSize(10).allMatch(fb -> fb.getUserId().equals("alice"));
+		}
+		Feedback first = b.query(row -> true, null, null, "id", false, 1).rows().get(0);
+		assertThat(first.getCreatedAt()).isEqualTo(OLD);
+		assertThat(first.getComment()).isEqualTo("comment 0");
+		assertThat(first.getStatus()).isEqualTo(FeedbackStatus.PENDING);
+	}
+
+	@Test
+	void ordersByEveryKeyTheLiveSearchAccepts() throws Exception {
+		jdbc.update("update feedback set submitter_name = case mod(id, 3) when 0 then 'carol' when 1 then 'Bob' end, "
+				+ "status = case when id > 20 then 'APPROVED' else 'REJECTED' end");
+		FeedbackArchive archive = archive(nodeA);
+		archive.open();
+		archive.archiveOlderThan(CUTOFF);
+
+		// Nulls first, then case-insensitively, as MySQL orders the live rows
+		assertThat(archive.query(row -> true, null, null, "submitterName", false, 30).rows())
+				.extracting(Feedback::getSubmitterName).startsWith(null, null).endsWith("carol", "carol");
+		assertThat(archive.query(row -> true, null, null, "submitterName", true, 1).rows())
+				.extracting(Feedback::getSubmitterName).containsExactly("carol");
+		assertThat(archive.query(row -> true, null, null, "status", false, 10).rows())
+				.extracting(Feedback::getStatus).containsOnly(FeedbackStatus.APPROVED);
+	}
+
+	@Test
+	void keepsASegmentCommittedBeforeACrashAndDiscardsOneThatWasNot() throws Exception {
+		List<ArchivedRow> rows = jdbc.query("select id, created_at, rating, user_id from feedback where created_at < ?",
+				(rs, i) -> new ArchivedRow(rs.getLong(1), ArchivedRow.micros(rs.getTimestamp(2).toLocalDateTime()),
+						rs.getInt(3), 0, 0, rs.getString(4), null, null, null, null),
+				Timestamp.valueOf(CUTOFF));
+		// Another node creates the segment table
+		archive(nodeB).open();
+		Path committed = Files.createDirectories(nodeA).resolve("feedback-20200301090000-1.pending");
+		SegmentWriter.write(committed, rows.subList(0, 10));
+		jdbc.update("insert into " + FeedbackArchive.TABLE + " (name, data, created_at) values (?, ?, current_timestamp)",
+				"feedback-20200301090000-1.seg", Files.readAllBytes(committed));
+		jdbc.update("delete from feedback where id <= 10");
+		// Its transaction rolled back, so these rows are still live
+		Path uncommitted = nodeA.resolve("feedback-20200311090000-11.pending");
+		SegmentWriter.write(uncommitted, rows.subList(10, 20));
+
+		FeedbackArchive archive = archive(nodeA);
+		archive.open();
+
+		assertThat(Files.exists(nodeA.resolve("feedback-20200301090000-1.seg"))).isTrue();
+		assertThat(Files.exists(uncommitted)).isFalse();
+		assertThat(count("select count(*) from " + FeedbackArchive.TABLE)).isEqualTo(1);
+		assertThat(count("select count(*) from feedback")).isEqualTo(21);
+		assertThat(archive.query(row -> true, null, null, "id", false, 0).total()).isEqualTo(10);
+	}
+
+	@Test
+	void rowsChangedWhileBeingArchivedAreArchivedAsCommitted() throws Exception {
+		FeedbackArchive archive = archive(nodeA);
+		archive.open();
+		// An admin request on a second connection holds two of the aged rows while the archive run starts
+		DriverManagerDataSource second = new DriverManagerDataSource("jdbc:h2:mem:archive;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+		JdbcTemplate session = new JdbcTemplate(second);
+		TransactionTemplate other = new TransactionTemplate(new DataSourceTransactionManager(second));
+		CountDownLatch locked = new CountDownLatch(1);
+		CompletableFuture<Void> admin = CompletableFuture.runAsync(() -> other.executeWithoutResult(status -> {
+			session.update("update feedback set status = 'APPROVED' where id = 1");
+			session.update("delete from feedback where id = 2");
+			locked.countDown();
+			sleep(300);
+		}));
+		assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(archive.archiveOlderThan(CUTOFF)).isEqualTo(29);
+		admin.get(10, TimeUnit.SECONDS);
+
+		assertThat(archive.query(row -> row.id() == 1, null, null, "id", false, 1).rows())
+				.singleElement().extracting(Feedback::getStatus).isEqualTo(FeedbackStatus.APPROVED);
+		assertThat(archive.query(row -> row.id() == 2, null, null, "id", false, 1).total()).isZero();
+		assertThat(count("select count(*) from feedback")).isEqualTo(1);
+	}
+
+	@Test
+	void userHistoryPagesThroughLiveThenArchivedRows() throws Exception {
+		FeedbackArchive archive = archive(nodeA);
+		archive.open();
+		archive.archiveOlderThan(CUTOFF);
+
+		FeedbackRepository repo = mock(FeedbackRepository.class);
+		FeedbackSummary live = new FeedbackSummary(31L, "p1", 4, "recent", FeedbackStatus.PENDING, null, null,
+				LocalDateTime.now().minusDays(1));
+		when(repo.findHistory(eq("alice"), any())).thenReturn(List.of(live));
+		when(repo.findHistoryBefore(eq("alice"), any(), any(), any())).thenReturn(List.of());
+		FeedbackServiceImpl service = service(repo, archive);
+
+		UserHistoryPage first = service.getUserHistory("alice", null, 3, null);
+		UserHistoryPage second = service.getUserHistory("alice", first.next(), 3, null);
+
+		assertThat(first.items()).extracting(item -> ((FeedbackSummary) item).id())
+				.containsExactly(31L, 28L, 25L);
+		assertThat(second.items()).extracting(item -> ((FeedbackSummary) item).createdAt())
+				.containsExactly(OLD.plusDays(21), OLD.plusDays(18), OLD.plusDays(15));
+		assertThat(((FeedbackSummary) first.items().get(1)).commentPreview()).isNull();
+		assertThat(((FeedbackSummary) first.items().get(2)).commentPreview()).isEqualTo("comment 24");
+	}
+
+	@Test
+	void boundedUserListingFillsUpFromTheArchiveNewestFirst() throws Exception {
+		FeedbackArchive archive = archive(nodeA);
+		archive.open();
+		archive.archiveOlderThan(CUTOFF);
+		FeedbackRepository repo = mock(FeedbackRepository.class);
+		Feedback live = new Feedback(31L, "alice", "p1", 4, null, FeedbackStatus.PENDING, LocalDateTime.now().minusDays(1));
+		when(repo.findByUserIdOrderByCreatedAtDescIdDesc(eq("alice"), any())).thenReturn(List.of(live));
+		FeedbackServiceImpl service = service(repo, archive);
+		ReflectionTestUtils.setField(service, "maxUserListRows", 4);
+
+		assertThat(service.getFeedbackByUser("alice")).extracting(Feedback::getId).containsExactly(31L, 28L, 25L, 22L);
+	}
+
+	private FeedbackServiceImpl service(FeedbackRepository repo, FeedbackArchive archive) {
+		InvalidationBus bus = bus();
+		FeedbackServiceImpl service = new FeedbackServiceImpl(repo, categories, new WriteGeneration(),
+				mock(ReadYourWritesTracker.class), new FeedbackColumnStore(jdbc, false), mock(DuplicateSubmissionFilter.class),
+				archive, mock(FeedbackSearchQueries.class), mock(ParallelPageLoader.class), bus,
+				new UserHistoryCache(bus, 4, 10, 300), mock(ProductRatingStore.class));
+		ReflectionTestUtils.setField(service, "maxHistoryPageSize", 100);
+		return service;
+	}
+
+	private FeedbackArchive archive(Path dir) {
+		return new FeedbackArchive(jdbc, categories, new WriteGeneration(), new FeedbackColumnStore(jdbc, false),
+				new DatabaseLock(jdbc), new DataSourceTransactionManager(db), bus(), true, dir.toString(), 365, 20);
+	}
+
+	private InvalidationBus bus() {
+		return new InvalidationBus(new StaticListableBeanFactory(Map.of()).getBeanProvider(InvalidationTransport.class),
+				new DataSourceTransactionManager(db), "archive-test", 100);
+	}
+
+	private void insert(String userId, int rating, LocalDateTime createdAt, String comment) {
+		Long commentId = null;
+		if (comment != null) {
+			jdbc.update("insert into feedback_comment (text) values (?)", comment);
+			commentId = jdbc.queryForObject("select max(id) from feedback_comment", Long.class);
+		}
+		jdbc.update("insert into feedback (user_id, product_id, rating, comment_id, status, created_at) "
+				+ "values (?, 'p1', ?, ?, 'PENDING', ?)", userId, rating, commentId, Timestamp.valueOf(createdAt));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private long count(String sql) {
+		return jdbc.queryForObject(sql, Long.class);
+	}
+}
@@ -0,0 +1,71 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.web.ResponseEncoding;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalResponseCacheTest {
+
+	private final ResponseEncoding encoding = new ResponseEncoding(Jackson2ObjectMapperBuilder.json().build());
+
+	@Test
+	void unchangedGenerationIsA304AndServesTheCachedBody() {
+		WriteGeneration generation = new WriteGeneration();
+		ConditionalResponseCache cache = new ConditionalResponseCache(encoding, generation, 16);
+		AtomicInteger loads = new AtomicInteger();
+
+		ResponseEntity<byte[]> first = cache.respond(request(null), "list", generation.feedback(),
+				() -> List.of(loads.incrementAndGet()));
+		ResponseEntity<byte[]> again = cache.respond(request(null), "list", generation.feedback(),
+				() -> List.of(loads.incrementAndGet()));
+		ResponseEntity<byte[]> conditional = cache.respond(request(first.getHeaders().getETag()), "list",
+				generation.feedback(), () -> List.of(loads.incrementAndGet()));
+
+		assertThat(loads.get()).isEqualTo(1);
+		assertThat(again.getBody()).isEqualTo(first.getBody());
+		assertThat(conditional.getStatusCode().value()).isEqualTo(304);
+	}
+
+	@Test
+	void aWriteChangesTheTag() {
+		WriteGeneration generation = new WriteGeneration();
+		ConditionalResponseCache cache = new ConditionalResponseCache(encoding, generation, 16);
+		String etag = cache.respond(request(null), "list", generation.feedback(), () -> List.of(1)).getHeaders().getETag();
+
+		generation.bumpFeedback();
+
+		assertThat(cache.respond(request(etag), "list", generation.feedback(), () -> List.of(2)).getStatusCode().value())
+				.isEqualTo(200);
+	}
+
+	@Test
+	void tagsFromAnotherNodeOrAnEarlierBootNeverMatch() {
+		// Both processes sit at generation 0 with different data behind it
+		WriteGeneration nodeA = new WriteGeneration();
+		WriteGeneration nodeB = new WriteGeneration();
+		String etag = new ConditionalResponseCache(encoding, nodeA, 16)
+				.respond(request(null), "list", nodeA.feedback(), () -> List.of("a")).getHeaders().getETag();
+
+		ResponseEntity<byte[]> response = new ConditionalResponseCache(encoding, nodeB, 16)
+				.respond(request(etag), "list", nodeB.feedback(), () -> List.of("b"));
+
+		assertThat(response.getStatusCode().value()).isEqualTo(200);
+		assertThat(new String(response.getBody())).isEqualTo("[\"b\"]");
+	}
+
+	private static MockHttpServletRequest request(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/admin/feedback");
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return request;
+	}
+}
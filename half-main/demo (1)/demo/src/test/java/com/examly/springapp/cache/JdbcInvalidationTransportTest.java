@@ -0,0 +1,106 @@
+package com.examly.springapp.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two app nodes sharing one embedded database: each has its own bus and transport, as separate JVMs would
+class JdbcInvalidationTransportTest {
+
+	private EmbeddedDatabase db;
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void setUp() {
+		db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbc = new JdbcTemplate(db);
+	}
+
+	@AfterEach
+	void tearDown() {
+		db.shutdown();
+	}
+
+	@Test
+	void invalidationsPublishedOnOneNodeReachTheOther() {
+		Node a = new Node("a", 5_000);
+		Node b = new Node("b", 5_000);
+
+		a.bus.publish(InvalidationBus.CATEGORY, 7L);
+		a.bus.publish(InvalidationBus.CATEGORY, 7L);
+		a.bus.publish(InvalidationBus.PRINCIPAL, "x@y.z");
+		a.bus.flush();
+
+		assertThat(jdbc.queryForObject("select count(*) from cache_invalidation", Integer.class)).isEqualTo(2);
+		assertThat(b.transport.pollOnce()).isEqualTo(2);
+		assertThat(b.received).containsExactly("category:7", "principal:x@y.z");
+		assertThat(b.bus.getLastVersion()).isEqualTo(2);
+
+		// A node sees its own events in the stream but does not invalidate itself twice
+		a.transport.pollOnce();
+		assertThat(a.received).isEmpty();
+	}
+
+	@Test
+	void outOfOrderCommitsAreDeliveredOnceAndTheGapIsWaitedFor() {
+		Node b = new Node("b", 60_000);
+
+		insert(1, "category", "1");
+		insert(3, "category", "3");
+		assertThat(b.transport.pollOnce()).isEqualTo(2);
+		assertThat(b.transport.getWatermark()).isEqualTo(1);
+
+		// Row 3 is not redelivered while the watermark waits at the gap
+		assertThat(b.transport.pollOnce()).isZero();
+
+		insert(2, "category", "2");
+		assertThat(b.transport.pollOnce()).isEqualTo(1);
+		assertThat(b.transport.getWatermark()).isEqualTo(3);
+		assertThat(b.received).containsExactly("category:1", "category:3", "category:2");
+	}
+
+	@Test
+	void permanentGapsAreSkippedAfterTheGracePeriod() {
+		Node b = new Node("b", 0);
+
+		insert(1, "category", "1");
+		insert(4, "category", "4");
+		b.transport.pollOnce();
+		b.transport.pollOnce();
+
+		assertThat(b.transport.getWatermark()).isEqualTo(4);
+		assertThat(b.received).containsExactly("category:1", "category:4");
+	}
+
+	private void insert(long id, String region, String key) {
+		jdbc.update("insert into cache_invalidation (id, node, region, cache_key, created_at) values (?, 'a', ?, ?, current_timestamp)",
+				id, region, key);
+	}
+
+	private class Node {
+		final JdbcInvalidationTransport transport;
+		final InvalidationBus bus;
+		final List<String> received = new ArrayList<>();
+
+		Node(String id, long gapGraceMs) {
+			transport = new JdbcInvalidationTransport(jdbc, 100, gapGraceMs, 60);
+			StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("transport", transport));
+			bus = new InvalidationBus(beans.getBeanProvider(InvalidationTransport.class), new DataSourceTransactionManager(db), id, 100);
+			bus.subscribe(InvalidationBus.CATEGORY, key -> received.add("category:" + key));
+			bus.subscribe(InvalidationBus.PRINCIPAL, key -> received.add("principal:" + key));
+			bus.start();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.examly.springapp.datasource;
+
+import com.examly.springapp.cache.WriteGeneration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two embedded H2 instances stand in for the MySQL primary and replica; each reports its own name
+class ReadWriteRoutingDataSourceTest {
+
+	private EmbeddedDatabase primary;
+	private EmbeddedDatabase replica;
+
+	@BeforeEach
+	void setUp() {
+		primary = node("primary");
+		replica = node("replica");
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr("10.0.0.1");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		DataSource ds = routing(replica, new ReadYourWritesTracker(new WriteGeneration(), 5_000));
+
+		assertThat(nodeName(ds, false)).isEqualTo("primary");
+		assertThat(nodeName(ds, true)).isEqualTo("replica");
+	}
+
+	@Test
+	void recentWritersReadFromThePrimary() {
+		ReadYourWritesTracker tracker = new ReadYourWritesTracker(new WriteGeneration(), 5_000);
+		DataSource ds = routing(replica, tracker);
+
+		tracker.markWrite();
+
+		assertThat(nodeName(ds, true)).isEqualTo("primary");
+	}
+
+	@Test
+	void everyoneReadsFromThePrimaryRightAfterAWriteGenerationMoves() {
+		WriteGeneration writeGeneration = new WriteGeneration();
+		DataSource ds = routing(replica, new ReadYourWritesTracker(writeGeneration, 5_000));
+
+		// Another node's write, arriving as an invalidation
+		writeGeneration.bumpFeedback();
+
+		assertThat(nodeName(ds, true)).isEqualTo("primary");
+		assertThat(nodeName(routing(replica, new ReadYourWritesTracker(new WriteGeneration(), 5_000)), true))
+				.isEqualTo("replica");
+	}
+
+	@Test
+	void unavailableReplicaFallsBackToThePrimary() throws SQLException {
+		DataSource broken = mock(DataSource.class);
+		when(broken.getConnection()).thenThrow(new SQLException("replica down"));
+		DataSource ds = routing(broken, new ReadYourWritesTracker(new WriteGeneration(), 5_000));
+
+		assertThat(nodeName(ds, true)).isEqualTo("primary");
+	}
+
+	private DataSource routing(DataSource replicaTarget, ReadYourWritesTracker tracker) {
+		return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicaTarget, tracker, 10_000));
+	}
+
+	private static String nodeName(DataSource ds, boolean readOnly) {
+		TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> new JdbcTemplate(ds).queryForObject("select name from node", String.class));
+	}
+
+	private static EmbeddedDatabase node(String name) {
+		EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(name)
+				.generateUniqueName(false)
+				.build();
+		new JdbcTemplate(db).execute("create table node (name varchar(20))");
+		new JdbcTemplate(db).update("insert into node values (?)", name);
+		return db;
+	}
+}
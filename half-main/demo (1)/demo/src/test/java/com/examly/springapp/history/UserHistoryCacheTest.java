@@ -0,0 +1,60 @@
+package com.examly.springapp.history;
+
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.model.FeedbackStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class UserHistoryCacheTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+	private final UserHistoryCache cache = new UserHistoryCache(mock(InvalidationBus.class), 10, 100, 300);
+
+	@Test
+	void addingARowTheLoadAlreadySawKeepsOneCopy() {
+		List<FeedbackSummary> stored = new ArrayList<>(List.of(row(2, 2), row(1, 1)));
+		cache.page("u1", null, 5, (cursor, limit) -> List.copyOf(stored));
+
+		// Committed before the prefix was read; its afterCommit arrives after the fill
+		cache.added("u1", row(2, 2));
+		cache.added("u1", row(3, 3));
+
+		assertThat(ids(cache.page("u1", null, 5, (cursor, limit) -> List.of()))).containsExactly(3L, 2L, 1L);
+	}
+
+	@Test
+	void pagesAfterTheFirstComeFromTheCachedPrefix() {
+		List<FeedbackSummary> stored = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			stored.add(0, row(i, i));
+		}
+		AtomicInteger loads = new AtomicInteger();
+		UserHistoryCache.Loader loader = (cursor, limit) -> {
+			loads.incrementAndGet();
+			return List.copyOf(stored);
+		};
+
+		List<FeedbackSummary> first = cache.page("u1", null, 3, loader);
+		List<FeedbackSummary> second = cache.page("u1", HistoryCursor.after(first.get(2)), 3, loader);
+
+		assertThat(ids(first)).containsExactly(6L, 5L, 4L);
+		assertThat(ids(second)).containsExactly(3L, 2L, 1L);
+		assertThat(loads).hasValue(1);
+	}
+
+	private static FeedbackSummary row(long id, int minutes) {
+		return new FeedbackSummary(id, "p1", 4, "ok", FeedbackStatus.PENDING, null, null, T0.plusMinutes(minutes));
+	}
+
+	private static List<Long> ids(List<FeedbackSummary> rows) {
+		return rows.stream().map(FeedbackSummary::id).toList();
+	}
+}
@@ -0,0 +1,151 @@
+package com.examly.springapp.ingest;
+
+import com.examly.springapp.archive.FeedbackArchive;
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.InvalidationTransport;
+import com.examly.springapp.rating.ProductRatingTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BulkFeedbackLoaderTest {
+
+	@TempDir
+	Path dir;
+
+	private EmbeddedDatabase db;
+	private JdbcTemplate jdbc;
+	private BulkFeedbackLoader loader;
+
+	@BeforeEach
+	void setUp() {
+		db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbc = new JdbcTemplate(db);
+		jdbc.execute("create table category (id bigint generated by default as identity primary key, "
+				+ "name varchar(255) not null unique, created_at timestamp)");
+		jdbc.execute("create table feedback_comment (id bigint generated by default as identity primary key, text varchar(500))");
+		jdbc.execute("create table feedback (id bigint generated by default as identity primary key, user_id varchar(255), "
+				+ "product_id varchar(255), rating int not null, comment_id bigint, comment_preview varchar(80), "
+				+ "submitter_name varchar(255), submitter_email varchar(255), status varchar(255), category_id bigint, "
+				+ "created_at timestamp not null)");
+		jdbc.update("insert into category (name) values ('Delivery')");
+
+		BulkLoadProperties properties = new BulkLoadProperties();
+		properties.setWorkers(3);
+		properties.setChunkSize(100);
+		properties.setRowsPerStatement(40);
+		InvalidationBus bus = new InvalidationBus(new StaticListableBeanFactory(Map.of()).getBeanProvider(InvalidationTransport.class),
+				new DataSourceTransactionManager(db), "loader", 100);
+		// Loads into a deployment whose rating table the application has already seeded
+		ProductRatingTable ratings = new ProductRatingTable(jdbc);
+		ratings.createTable();
+		ratings.seed(mock(FeedbackArchive.class));
+		loader = new BulkFeedbackLoader(jdbc, new DataSourceTransactionManager(db), bus, properties, ratings);
+	}
+
+	@AfterEach
+	void tearDown() {
+		db.shutdown();
+	}
+
+	@Test
+	void loadsCsvLinkingCommentsAndCategoriesAndRejectsBadRecords() throws Exception {
+		StringBuilder csv = new StringBuilder("userId,product_id,rating,comment,category,status,created_at\n");
+		for (int i = 0; i < 1000; i++) {
+			csv.append("u").append(i).append(",p").append(i % 7).append(',').append(i % 5 + 1).append(',')
+					.append(i % 2 == 0 ? "\"said \"\"ok\"\",\nthen left " + i + "\"" : "").append(',')
+					.append(i % 3 == 0 ? "delivery" : "Returns").append(",approved,2019-03-0").append(i % 9 + 1)
+					.append(" 10:15:00\n");
+		}
+		csv.append("u-bad,p1,9,,Delivery,,\n");
+		Path file = Files.writeString(dir.resolve("legacy.csv"), csv);
+
+		BulkFeedbackLoader.Result result = loader.load(file);
+
+		assertThat(result.loaded()).isEqualTo(1000);
+		assertThat(result.rejected()).isEqualTo(1);
+		assertThat(count("select count(*) from feedback")).isEqualTo(1000);
+		assertThat(count("select count(*) from category")).isEqualTo(2);
+		assertThat(jdbc.queryForObject("select c.text from feedback f join feedback_comment c on c.id = f.comment_id "
+				+ "where f.user_id = 'u10'", String.class)).isEqualTo("said \"ok\",\nthen left 10");
+		assertThat(count("select count(*) from feedback where comment_id is null")).isEqualTo(500);
+		assertThat(count("select sum(rating_count) from product_rating_daily")).isEqualTo(1000);
+		assertThat(count("select sum(rating_sum) from product_rating_daily where product_id = 'p3'"))
+				.isEqualTo(count("select sum(rating) from feedback where product_id = 'p3'"));
+		assertThat(count("select sum(r2) from product_rating_daily")).isEqualTo(200);
+		assertThat(count("select count(*) from feedback f join category c on c.id = f.category_id "
+				+ "where c.name = 'Delivery'")).isEqualTo(334);
+
+		// Ids after the reserved range go to the application's inserts
+		jdbc.update("insert into feedback (user_id, rating, created_at) values ('live', 3, current_timestamp)");
+		assertThat(count("select count(*) from feedback where user_id = 'live' and id > "
+				+ "(select max(id) from feedback where user_id <> 'live')")).isEqualTo(1);
+	}
+
+	@Test
+	void rerunAfterAnInterruptionWritesOnlyTheMissingChunks() throws Exception {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < 450; i++) {
+			ndjson.append("{\"user_id\":\"u").append(i).append("\",\"productId\":\"p\",\"rating\":").append(i % 5 + 1)
+					.append(",\"comment\":\"c").append(i).append("\",\"category\":{\"name\":\"Delivery\"},\"extra\":[1,2]}\n");
+		}
+		Path file = Files.writeString(dir.resolve("legacy.ndjson"), ndjson);
+		loader.load(file);
+
+		// Simulate a crash before chunk 2 (records 200..299) committed
+		String source = file.toAbsolutePath().normalize().toString();
+		jdbc.update("delete from feedback_comment where id in (select comment_id from feedback where user_id in "
+				+ "(select concat('u', x) from system_range(200, 299)))");
+		jdbc.update("delete from feedback where user_id in (select concat('u', x) from system_range(200, 299))");
+		jdbc.update("delete from bulk_load_chunk where chunk = 2");
+		jdbc.update("update product_rating_daily set rating_count = rating_count - 100, rating_sum = rating_sum - 300, "
+				+ "r1 = r1 - 20, r2 = r2 - 20, r3 = r3 - 20, r4 = r4 - 20, r5 = r5 - 20");
+		jdbc.update("update bulk_load_job set finished_at = null where source = ?", source);
+		Map<String, Object> before = jdbc.queryForMap("select min(id) lo, max(id) hi from feedback");
+
+		BulkFeedbackLoader.Result result = loader.load(file);
+
+		assertThat(result.loaded()).isEqualTo(100);
+		assertThat(result.skippedChunks()).isEqualTo(4);
+		assertThat(count("select count(*) from feedback")).isEqualTo(450);
+		assertThat(count("select count(distinct user_id) from feedback")).isEqualTo(450);
+		assertThat(count("select sum(rating_count) from product_rating_daily")).isEqualTo(450);
+		assertThat(count("select sum(rating_sum) from product_rating_daily")).isEqualTo(count("select sum(rating) from feedback"));
+		assertThat(jdbc.queryForMap("select min(id) lo, max(id) hi from feedback")).isEqualTo(before);
+		assertThat(jdbc.queryForObject("select c.text from feedback f join feedback_comment c on c.id = f.comment_id "
+				+ "where f.user_id = 'u250'", String.class)).isEqualTo("c250");
+
+		// A finished load is not repeated
+		assertThat(loader.load(file).loaded()).isZero();
+	}
+
+	@Test
+	void reservesIdsAboveTheIdentityEvenWhenItIsAheadOfMaxId() throws Exception {
+		// Rows up to id 5000 were inserted and then deleted (or rolled back); the identity continues after them
+		jdbc.update("insert into feedback (user_id, rating, created_at) values ('live', 3, current_timestamp)");
+		jdbc.execute("alter table feedback alter column id restart with 5001");
+		Path file = Files.writeString(dir.resolve("small.csv"), "user_id,product_id,rating\nu1,p1,4\nu2,p1,5\n");
+
+		loader.load(file);
+
+		assertThat(count("select min(id) from feedback where user_id <> 'live'")).isGreaterThan(5000);
+	}
+
+	private long count(String sql) {
+		return jdbc.queryForObject(sql, Long.class);
+	}
+}
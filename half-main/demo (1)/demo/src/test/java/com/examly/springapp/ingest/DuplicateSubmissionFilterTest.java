@@ -0,0 +1,92 @@
+package com.examly.springapp.ingest;
+
+import com.examly.springapp.ingest.DuplicateSubmissionFilter.Verdict;
+import com.examly.springapp.model.Feedback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateSubmissionFilterTest {
+
+	private static final String REVIEW = "the blender arrived with a cracked jug and the lid never sealed properly";
+
+	private final DuplicateSubmissionFilter filter = new DuplicateSubmissionFilter(true, 6, 3, 8, 60);
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void rejectsNearDuplicateFromTheSameSubmitter() {
+		assertThat(filter.check(feedback("a@x.io", REVIEW))).isEqualTo(Verdict.ACCEPT);
+
+		assertThat(filter.check(feedback("A@x.io ", REVIEW + "!"))).isEqualTo(Verdict.DUPLICATE);
+		assertThat(filter.check(feedback("b@x.io", REVIEW))).isEqualTo(Verdict.ACCEPT);
+	}
+
+	@Test
+	void remembersASubmissionOnlyOnceItsTransactionCommits() {
+		TransactionSynchronizationManager.initSynchronization();
+		assertThat(filter.check(feedback("a@x.io", REVIEW))).isEqualTo(Verdict.ACCEPT);
+		List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+
+		// Rolled back: the retry is not its own duplicate
+		assertThat(filter.check(feedback("a@x.io", REVIEW))).isEqualTo(Verdict.ACCEPT);
+
+		pending.forEach(TransactionSynchronization::afterCommit);
+		assertThat(filter.check(feedback("a@x.io", REVIEW))).isEqualTo(Verdict.DUPLICATE);
+	}
+
+	@Test
+	void keysAnonymousSubmittersByAddress() {
+		asClient("203.0.113.7");
+		assertThat(filter.check(feedback(null, REVIEW))).isEqualTo(Verdict.ACCEPT);
+
+		asClient("198.51.100.2");
+		assertThat(filter.check(feedback(null, REVIEW))).isEqualTo(Verdict.ACCEPT);
+
+		asClient("203.0.113.7");
+		assertThat(filter.check(feedback(null, REVIEW))).isEqualTo(Verdict.DUPLICATE);
+	}
+
+	@Test
+	void flagsTemplatedFloodAcrossSubmitters() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(filter.check(feedback("user" + i + "@x.io", REVIEW))).isEqualTo(Verdict.ACCEPT);
+		}
+
+		assertThat(filter.check(feedback("user9@x.io", REVIEW))).isEqualTo(Verdict.FLOOD);
+	}
+
+	@Test
+	void shortCommentsNeverCountAsFlood() {
+		for (int i = 0; i < 10; i++) {
+			assertThat(filter.check(feedback("user" + i + "@x.io", "great product"))).isEqualTo(Verdict.ACCEPT);
+		}
+	}
+
+	private static void asClient(String address) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr(address);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	private static Feedback feedback(String email, String comment) {
+		Feedback fb = new Feedback(null, null, "p1", 2, comment, null, null);
+		fb.setSubmitterEmail(email);
+		return fb;
+	}
+}
@@ -0,0 +1,61 @@
+package com.examly.springapp.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryTimingDataSourceTest {
+
+	private static final String CATEGORY_BY_ID = "select c.id,c.name from category c where c.id=?";
+
+	private QueryTimingDataSource dataSource() throws Exception {
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.executeQuery()).thenReturn(mock(ResultSet.class));
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(ps);
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(connection);
+		return new QueryTimingDataSource(target, 1_000, 0.0);
+	}
+
+	@Test
+	void countsStatementsAndDetectsRepeatedShapes() throws Exception {
+		QueryTimingDataSource ds = dataSource();
+
+		try (QueryContext ctx = QueryContext.begin(); Connection c = ds.getConnection()) {
+			for (int i = 0; i < 6; i++) {
+				c.prepareStatement(CATEGORY_BY_ID).executeQuery();
+			}
+			c.prepareStatement("select count(*) from feedback").executeQuery();
+
+			assertThat(ctx.getCount()).isEqualTo(7);
+			assertThat(ctx.repeatedStatements(5)).containsOnlyKeys(CATEGORY_BY_ID);
+			assertThatThrownBy(() -> ctx.assertAtMost(2)).isInstanceOf(AssertionError.class);
+		}
+		assertThat(ds.getStatementCount()).isEqualTo(7);
+		assertThat(QueryContext.current()).isNull();
+	}
+
+	@Test
+	void nestedContextsPropagateToTheEnclosingBudget() throws Exception {
+		QueryTimingDataSource ds = dataSource();
+
+		try (QueryContext outer = QueryContext.begin(); Connection c = ds.getConnection()) {
+			try (QueryContext inner = QueryContext.begin()) {
+				c.prepareStatement(CATEGORY_BY_ID).executeQuery();
+				assertThat(inner.getCount()).isEqualTo(1);
+			}
+			assertThat(QueryContext.current()).isSameAs(outer);
+			outer.assertAtMost(1);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.examly.springapp.pagination;
+
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.datasource.ReadYourWritesTracker;
+import com.examly.springapp.monitoring.QueryContext;
+import com.examly.springapp.monitoring.QueryTimingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelPageLoaderTest {
+
+	private static final int POOL_SIZE = 3;
+	private static final int COUNT_THREADS = 2;
+	private static final int CALLERS = 12;
+
+	private HikariDataSource pool;
+	private QueryTimingDataSource db;
+	private JdbcTemplate jdbc;
+	private DataSourceTransactionManager transactionManager;
+	private ParallelPageLoader loader;
+
+	@BeforeEach
+	void setUp() {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:pageloader;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		config.setMaximumPoolSize(POOL_SIZE);
+		config.setConnectionTimeout(2_000);
+		pool = new HikariDataSource(config);
+		db = new QueryTimingDataSource(pool, 1_000, 0.0);
+		jdbc = new JdbcTemplate(db);
+		jdbc.execute("CREATE TABLE feedback (id BIGINT PRIMARY KEY)");
+		for (int i = 1; i <= 30; i++) {
+			jdbc.update("INSERT INTO feedback (id) VALUES (?)", i);
+		}
+		transactionManager = new DataSourceTransactionManager(db);
+		loader = new ParallelPageLoader(transactionManager, new ReadYourWritesTracker(new WriteGeneration(), 0), COUNT_THREADS, 16, 60);
+	}
+
+	@AfterEach
+	void tearDown() {
+		loader.shutdown();
+		jdbc.execute("drop all objects");
+		pool.close();
+	}
+
+	// Every caller holds a connection in its own transaction while it waits for the count, as an admin search does
+	@Test
+	void concurrentSearchesOnASmallPoolNeverWaitForAConnectionTheyHold() throws Exception {
+		TransactionTemplate request = new TransactionTemplate(transactionManager);
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		try {
+			List<Future<Slice<Long>>> results = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				int page = i % 3;
+				results.add(callers.submit(() -> request.execute(s -> search(PageRequest.of(page, 5), "page-" + page))));
+			}
+			for (Future<Slice<Long>> result : results) {
+				Slice<Long> slice = result.get(30, TimeUnit.SECONDS);
+				assertThat(slice.getContent()).hasSize(5);
+				assertThat(((Page<Long>) slice).getTotalElements()).isEqualTo(30);
+			}
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	void countOnAWorkerCountsAgainstTheCallersQueryBudget() {
+		AtomicInteger countedOnWorker = new AtomicInteger();
+		try (QueryContext ctx = QueryContext.begin()) {
+			Slice<Long> slice = loader.load(PageRequest.of(0, 5), CountMode.EXACT, "budget", 0,
+					() -> {
+						Slice<Long> content = content(PageRequest.of(0, 5));
+						// Leaves the idle workers time to take the count
+						sleep(300);
+						return content;
+					},
+					() -> {
+						if (Thread.currentThread().getName().startsWith("page-count-")) {
+							countedOnWorker.incrementAndGet();
+						}
+						return jdbc.queryForObject("SELECT COUNT(*) FROM feedback", Long.class);
+					});
+
+			assertThat(((Page<Long>) slice).getTotalElements()).isEqualTo(30);
+			assertThat(countedOnWorker).hasValue(1);
+			assertThat(ctx.getCount()).isEqualTo(2);
+		}
+	}
+
+	@Test
+	void failingCountSurfacesToTheCaller() {
+		TransactionTemplate request = new TransactionTemplate(transactionManager);
+		assertThatThrownBy(() -> request.execute(s -> loader.load(PageRequest.of(0, 5),
+						CountMode.EXACT, "broken", 0, () -> content(PageRequest.of(0, 5)),
+						() -> jdbc.queryForObject("SELECT COUNT(*) FROM missing", Long.class))))
+				.isInstanceOf(BadSqlGrammarException.class);
+	}
+
+	private Slice<Long> search(Pageable pageable, String key) {
+		return loader.load(pageable, CountMode.EXACT, key, System.nanoTime(), () -> content(pageable), () -> {
+			// Slow enough that every caller is still waiting on its count while the others hold their connections
+			sleep(200);
+			return jdbc.queryForObject("SELECT COUNT(*) FROM feedback", Long.class);
+		});
+	}
+
+	private Slice<Long> content(Pageable pageable) {
+		List<Long> rows = jdbc.queryForList("SELECT id FROM feedback ORDER BY id LIMIT ? OFFSET ?", Long.class,
+				pageable.getPageSize() + 1, pageable.getOffset());
+		boolean hasNext = rows.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
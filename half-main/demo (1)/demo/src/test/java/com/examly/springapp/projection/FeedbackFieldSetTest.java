@@ -0,0 +1,108 @@
+package com.examly.springapp.projection;
+
+import com.examly.springapp.controller.FeedbackController;
+import com.examly.springapp.history.FeedbackSummary;
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.service.FeedbackService;
+import com.examly.springapp.web.ResponseEncoding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class FeedbackFieldSetTest {
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@Test
+	void absentOrBlankSelectionMeansFullRows() {
+		assertThat(FeedbackFieldSet.parse(null)).isNull();
+		assertThat(FeedbackFieldSet.parse("  ")).isNull();
+	}
+
+	@Test
+	void selectionIsCanonicalAndAlwaysCarriesId() {
+		FeedbackFieldSet a = FeedbackFieldSet.parse("rating, productId");
+		FeedbackFieldSet b = FeedbackFieldSet.parse("productId,,rating,id,rating");
+
+		assertThat(a.fields()).containsExactly(FeedbackField.ID, FeedbackField.PRODUCT_ID, FeedbackField.RATING);
+		assertThat(a.key()).isEqualTo(b.key());
+		assertThat(a.selectFrom()).isEqualTo(b.selectFrom()).isEqualTo("SELECT f.id, f.productId, f.rating FROM Feedback f");
+		assertThat(a.inSummary()).isTrue();
+		assertThat(a.with(FeedbackField.RATING)).isSameAs(a);
+		assertThat(a.with(FeedbackField.CREATED_AT).fields())
+				.containsExactly(FeedbackField.ID, FeedbackField.PRODUCT_ID, FeedbackField.RATING, FeedbackField.CREATED_AT);
+	}
+
+	@Test
+	void joinsOnlyForRequestedCategoryAndCommentFields() {
+		FeedbackFieldSet fields = FeedbackFieldSet.parse("comment,categoryName");
+
+		assertThat(fields.selectFrom())
+				.isEqualTo("SELECT f.id, coalesce(b.text, f.legacyComment), c.name "
+						+ "FROM Feedback f LEFT JOIN f.category c LEFT JOIN f.commentBody b");
+		assertThat(fields.inSummary()).isFalse();
+	}
+
+	@Test
+	void unknownFieldIsRejected() {
+		assertThatThrownBy(() -> FeedbackFieldSet.parse("rating,password"))
+				.isInstanceOf(InvalidFieldsException.class)
+				.hasMessage("Unsupported field: password");
+	}
+
+	@Test
+	void unknownFieldIsABadRequest() throws Exception {
+		FeedbackService service = mock(FeedbackService.class);
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new FeedbackController(service, new ResponseEncoding(mapper))).build();
+
+		mvc.perform(get("/api/feedback/user/u1/history").param("fields", "rating,nope"))
+				.andExpect(status().isBadRequest());
+		verifyNoInteractions(service);
+
+		mvc.perform(get("/api/feedback/user/u1/history").param("fields", "rating"))
+				.andExpect(status().isOk());
+		verify(service).getUserHistory(any(), any(), any(Integer.class), any());
+	}
+
+	@Test
+	void rowsSerialiseToOnlyTheSelectedProperties() throws Exception {
+		FeedbackFieldSet fields = FeedbackFieldSet.parse("rating,categoryName,createdAt");
+		Feedback fb = new Feedback();
+		fb.setId(7L);
+		fb.setRating(4);
+		fb.setComment("not selected");
+		fb.setStatus(FeedbackStatus.APPROVED);
+		fb.setCategory(new Category(3L, "Delivery", null));
+		fb.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+		FeedbackSummary summary = new FeedbackSummary(7L, "p1", 4, "prev", FeedbackStatus.APPROVED, 3L, "Delivery",
+				LocalDateTime.of(2024, 5, 1, 12, 0));
+
+		for (FeedbackRow row : List.of(fields.row(fb), fields.row(summary))) {
+			JsonNode json = mapper.readTree(mapper.writeValueAsString(row));
+			assertThat(json.size()).isEqualTo(4);
+			assertThat(json.get("id").asLong()).isEqualTo(7);
+			assertThat(json.get("rating").asInt()).isEqualTo(4);
+			assertThat(json.get("categoryName").asText()).isEqualTo("Delivery");
+			assertThat(json.has("createdAt")).isTrue();
+			assertThat(row.get(FeedbackField.RATING)).isEqualTo(4);
+			assertThat(row.get(FeedbackField.COMMENT)).isNull();
+		}
+	}
+}
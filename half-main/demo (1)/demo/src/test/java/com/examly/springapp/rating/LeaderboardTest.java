@@ -0,0 +1,43 @@
+package com.examly.springapp.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardTest {
+
+	@Test
+	void ranksByAverageThenCountAndSkipsProductsBelowTheMinimum() {
+		Leaderboard board = new Leaderboard(2);
+		board.put("a", new RatingCounts().add(5, 2).add(3, 1));
+		board.put("b", new RatingCounts().add(4, 3));
+		board.put("c", new RatingCounts().add(4, 6));
+		board.put("d", new RatingCounts().add(1, 1));
+		board.put("e", new RatingCounts().add(2, 4));
+
+		assertThat(ids(board.top(RankOrder.BEST, 3))).containsExactly("a", "c", "b");
+		assertThat(ids(board.top(RankOrder.WORST, 2))).containsExactly("e", "b");
+		assertThat(board.get("d").count()).isEqualTo(1);
+	}
+
+	@Test
+	void updatesReplaceTheProductsPreviousRank() {
+		Leaderboard board = new Leaderboard(1);
+		board.put("a", new RatingCounts().add(5, 1));
+		board.put("b", new RatingCounts().add(3, 1));
+		board.put("a", new RatingCounts().add(5, 1).add(1, 3));
+
+		assertThat(ids(board.top(RankOrder.BEST, 10))).containsExactly("b", "a");
+
+		board.put("b", new RatingCounts());
+		assertThat(ids(board.top(RankOrder.BEST, 10))).containsExactly("a");
+		assertThat(board.get("b").isEmpty()).isTrue();
+	}
+
+	private static List<String> ids(List<Map.Entry<String, RatingCounts>> entries) {
+		return entries.stream().map(Map.Entry::getKey).toList();
+	}
+}
@@ -0,0 +1,272 @@
+package com.examly.springapp.rating;
+
+import com.examly.springapp.archive.FeedbackArchive;
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.InvalidationTransport;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.repository.CategoryRepository;
+import com.examly.springapp.repository.DatabaseLock;
+import com.examly.springapp.search.FeedbackColumnStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductRatingStoreTest {
+
+	private static final LocalDate START = LocalDate.of(2026, 3, 10);
+
+	@TempDir
+	Path dir;
+
+	private final MutableClock clock = new MutableClock(START.atTime(12, 0).toInstant(ZoneOffset.UTC));
+	private JdbcTemplate jdbc;
+	private DataSourceTransactionManager transactions;
+	private FeedbackArchive archive;
+	private ProductRatingTable table;
+	private ProductRatingStore store;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// Several connections, so a write can hold the seed marker while the seed waits for it
+		DriverManagerDataSource db = new DriverManagerDataSource(
+				"jdbc:h2:mem:ratings;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+		jdbc = new JdbcTemplate(db);
+		jdbc.execute("create table feedback_comment (id bigint auto_increment primary key, text varchar(500))");
+		jdbc.execute("create table feedback (id bigint auto_increment primary key, user_id varchar(255), "
+				+ "product_id varchar(255), rating int not null, comment varchar(500), comment_id bigint, "
+				+ "comment_preview varchar(80), submitter_name varchar(255), submitter_email varchar(255), status varchar(255), "
+				+ "category_id bigint, created_at timestamp(6) not null)");
+
+		CategoryRepository categories = mock(CategoryRepository.class);
+		when(categories.findAll()).thenReturn(List.of());
+		transactions = new DataSourceTransactionManager(db);
+		InvalidationBus bus = new InvalidationBus(new StaticListableBeanFactory(Map.of())
+				.getBeanProvider(InvalidationTransport.class), transactions, "ratings", 100);
+		archive = new FeedbackArchive(jdbc, categories, new WriteGeneration(), new FeedbackColumnStore(jdbc, false),
+				new DatabaseLock(jdbc), transactions, bus, true, dir.toString(), 365, 20);
+		archive.open();
+		table = new ProductRatingTable(jdbc);
+		store = new ProductRatingStore(table, archive, bus, transactions, new int[] {1, 7, 30}, 1, 100, clock);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbc.execute("drop all objects");
+	}
+
+	@Test
+	void seedsOnceFromLiveAndArchivedRows() {
+		feedback("p1", 5, START.atTime(9, 0));
+		feedback("p1", 4, START.minusDays(3).atTime(9, 0));
+		feedback("p1", 3, START.minusDays(100).atTime(9, 0));
+		feedback("p1", 1, START.minusDays(100).atTime(15, 0));
+		feedback("p2", 2, START.minusDays(100).atTime(9, 0));
+		// Splits day -100 between a segment and the live table
+		assertThat(archive.archiveOlderThan(START.minusDays(100).atTime(12, 0))).isEqualTo(2);
+
+		store.load();
+
+		assertThat(store.summary("p1", null)).extracting(ProductRatingSummary::count, ProductRatingSummary::average)
+				.containsExactly(4L, 3.25);
+		assertThat(store.summary("p2", null).count()).isEqualTo(1);
+		assertThat(count("select rating_count from product_rating_daily where product_id = 'p1' and rating_day = ?",
+				START.minusDays(100))).isEqualTo(2);
+		assertThat(count("select count(*) from product_rating_seed where seeded_at is not null")).isEqualTo(1);
+
+		// Seeded already, so rows written behind its back are not recounted
+		feedback("p1", 5, START.atTime(10, 0));
+		store.load();
+
+		assertThat(store.summary("p1", null).count()).isEqualTo(4);
+	}
+
+	@Test
+	void reseedsATableLeftWithoutAMarker() {
+		jdbc.execute("create table product_rating_daily (product_id varchar(255) not null, rating_day date not null, "
+				+ "rating_count bigint not null, rating_sum bigint not null, r1 bigint not null, r2 bigint not null, "
+				+ "r3 bigint not null, r4 bigint not null, r5 bigint not null, primary key (product_id, rating_day))");
+		// Only the increments that ran beside a seed that rolled back
+		jdbc.update("insert into product_rating_daily values ('p1', ?, 1, 5, 0, 0, 0, 0, 1)", START);
+		feedback("p1", 5, START.atTime(9, 0));
+		feedback("p1", 3, START.minusDays(2).atTime(9, 0));
+
+		store.load();
+
+		assertThat(store.summary("p1", null).count()).isEqualTo(2);
+		assertThat(count("select sum(rating_count) from product_rating_daily")).isEqualTo(2);
+	}
+
+	@Test
+	void writeHoldingTheMarkerIsCountedOnceBySeed() throws Exception {
+		feedback("p1", 4, START.minusDays(1).atTime(9, 0));
+		table.createTable();
+		TransactionTemplate request = new TransactionTemplate(transactions);
+		CountDownLatch applied = new CountDownLatch(1);
+		CompletableFuture<Void> write = CompletableFuture.runAsync(() -> request.executeWithoutResult(status -> {
+			store.recorded(feedback("p1", 5, START.atTime(9, 0)));
+			applied.countDown();
+			sleep(300);
+		}));
+		assertThat(applied.await(10, TimeUnit.SECONDS)).isTrue();
+
+		store.load();
+		write.get(10, TimeUnit.SECONDS);
+
+		assertThat(store.summary("p1", null).count()).isEqualTo(2);
+		assertThat(count("select sum(rating_count) from product_rating_daily")).isEqualTo(2);
+
+		// Writes after the seed increment the table
+		request.executeWithoutResult(status -> store.recorded(feedback("p1", 1, START.atTime(10, 0))));
+
+		assertThat(store.summary("p1", null).count()).isEqualTo(3);
+		assertThat(count("select sum(rating_count) from product_rating_daily")).isEqualTo(3);
+	}
+
+	@Test
+	void windowsCountTrailingDaysAndMoveWithTheDate() {
+		feedback("p1", 5, START.atTime(8, 0));
+		feedback("p1", 5, START.atTime(9, 0));
+		feedback("p1", 4, START.minusDays(3).atTime(9, 0));
+		feedback("p1", 2, START.minusDays(10).atTime(9, 0));
+		feedback("p1", 1, START.minusDays(40).atTime(9, 0));
+		feedback("p2", 3, START.minusDays(6).atTime(9, 0));
+		store.load();
+
+		assertThat(counts("p1")).containsExactly(2L, 3L, 4L, 5L);
+		assertThat(store.leaderboard(RankOrder.BEST, 7, 10)).extracting(ProductRatingSummary::productId)
+				.containsExactly("p1", "p2");
+		assertThat(store.leaderboard(RankOrder.BEST, 1, 10)).extracting(ProductRatingSummary::productId)
+				.containsExactly("p1");
+		assertThatThrownBy(() -> store.summary("p1", 14)).isInstanceOf(UnknownWindowException.class);
+
+		clock.advance(1);
+		store.rollover();
+
+		assertThat(counts("p1")).containsExactly(0L, 3L, 4L, 5L);
+		assertThat(store.leaderboard(RankOrder.BEST, 7, 10)).extracting(ProductRatingSummary::productId)
+				.containsExactly("p1");
+
+		// Reads roll the windows too, without waiting for the scheduled rollover
+		clock.advance(4);
+
+		assertThat(counts("p1")).containsExactly(0L, 2L, 4L, 5L);
+
+		store.recorded(feedback("p1", 3, START.plusDays(5).atTime(9, 0)));
+
+		assertThat(counts("p1")).containsExactly(1L, 3L, 5L, 6L);
+		assertThat(store.summary("p1", 1).average()).isEqualTo(3.0);
+	}
+
+	@Test
+	void expiringLiveRowsKeepsArchivedAndNewerDays() {
+		feedback("p1", 1, START.minusDays(200).atTime(9, 0));
+		feedback("p1", 2, START.minusDays(100).atTime(9, 0));
+		feedback("p1", 5, START.atTime(9, 0));
+		assertThat(archive.archiveOlderThan(START.minusDays(150).atTime(0, 0))).isEqualTo(1);
+		store.load();
+		// As a partition drop would, behind the request path
+		LocalDate cutoff = START.minusDays(50);
+		jdbc.update("delete from feedback where created_at < ?", Timestamp.valueOf(cutoff.atStartOfDay()));
+
+		store.expireBefore(cutoff);
+
+		assertThat(store.summary("p1", null)).extracting(ProductRatingSummary::count, ProductRatingSummary::average)
+				.containsExactly(2L, 3.0);
+		assertThat(count("select sum(rating_count) from product_rating_daily")).isEqualTo(2);
+	}
+
+	@Test
+	void legacyRowsWithoutACreationTimeCountOnlyAllTime() {
+		jdbc.execute("alter table feedback alter column created_at set null");
+		jdbc.update("insert into feedback (user_id, product_id, rating, status) values ('u', 'p1', 2, 'APPROVED')");
+		feedback("p1", 4, START.atTime(9, 0));
+		store.load();
+
+		assertThat(counts("p1")).containsExactly(1L, 1L, 1L, 2L);
+		assertThat(count("select rating_count from product_rating_daily where rating_day = ?",
+				ProductRatingTable.UNDATED)).isEqualTo(1);
+
+		store.removed(new Feedback(null, "u", "p1", 2, null, FeedbackStatus.APPROVED, null));
+
+		assertThat(counts("p1")).containsExactly(1L, 1L, 1L, 1L);
+		assertThat(store.summary("p1", null).average()).isEqualTo(4.0);
+	}
+
+	// Counts in the 1, 7 and 30 day windows, then all time
+	private List<Long> counts(String productId) {
+		return List.of(store.summary(productId, 1).count(), store.summary(productId, 7).count(),
+				store.summary(productId, 30).count(), store.summary(productId, null).count());
+	}
+
+	private Feedback feedback(String productId, int rating, LocalDateTime createdAt) {
+		jdbc.update("insert into feedback (user_id, product_id, rating, status, created_at) values ('u', ?, ?, 'APPROVED', ?)",
+				productId, rating, Timestamp.valueOf(createdAt));
+		return new Feedback(null, "u", productId, rating, null, FeedbackStatus.APPROVED, createdAt);
+	}
+
+	private long count(String sql, Object... args) {
+		return jdbc.queryForObject(sql, Long.class, args);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+		private volatile Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(int days) {
+			now = now.plusSeconds(days * 86_400L);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
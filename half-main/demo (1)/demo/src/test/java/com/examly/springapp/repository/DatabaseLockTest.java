@@ -0,0 +1,101 @@
+package com.examly.springapp.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DatabaseLockTest {
+
+	// Named locks of the H2 stand-ins below (public so H2 can call them): lock name to holding session id
+	private static final Map<String, Integer> HELD = new ConcurrentHashMap<>();
+
+	private EmbeddedDatabase db;
+	private JdbcTemplate jdbc;
+
+	public static int getLock(Connection con, String name, long waitSeconds) throws SQLException {
+		return HELD.putIfAbsent(name, sessionId(con)) == null ? 1 : 0;
+	}
+
+	public static int releaseLock(Connection con, String name) throws SQLException {
+		return HELD.remove(name, sessionId(con)) ? 1 : 0;
+	}
+
+	private static int sessionId(Connection con) throws SQLException {
+		try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("SELECT SESSION_ID()")) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		HELD.clear();
+		db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbc = new JdbcTemplate(db);
+		jdbc.execute("CREATE ALIAS GET_LOCK FOR 'com.examly.springapp.repository.DatabaseLockTest.getLock'");
+		jdbc.execute("CREATE ALIAS RELEASE_LOCK FOR 'com.examly.springapp.repository.DatabaseLockTest.releaseLock'");
+	}
+
+	@AfterEach
+	void tearDown() {
+		db.shutdown();
+	}
+
+	@Test
+	void runsWorkOnTheSessionHoldingTheLockAndReleasesIt() {
+		DatabaseLock lock = new DatabaseLock(jdbc, true);
+
+		boolean ran = lock.runLocked("job", Duration.ofSeconds(5), session ->
+				assertThat(HELD.get("job")).isEqualTo(session.queryForObject("SELECT SESSION_ID()", Integer.class)));
+
+		assertThat(ran).isTrue();
+		assertThat(HELD).isEmpty();
+	}
+
+	@Test
+	void skipsWorkWhileAnotherSessionHoldsTheLock() {
+		HELD.put("job", -1);
+		AtomicBoolean worked = new AtomicBoolean();
+
+		boolean ran = new DatabaseLock(jdbc, true).runLocked("job", Duration.ZERO, session -> worked.set(true));
+
+		assertThat(ran).isFalse();
+		assertThat(worked).isFalse();
+		assertThat(HELD).containsEntry("job", -1);
+	}
+
+	@Test
+	void releasesTheLockWhenWorkFails() {
+		DatabaseLock lock = new DatabaseLock(jdbc, true);
+
+		assertThatThrownBy(() -> lock.runLocked("job", Duration.ZERO, session -> {
+			throw new IllegalStateException("boom");
+		})).isInstanceOf(IllegalStateException.class);
+		assertThat(HELD).isEmpty();
+	}
+
+	@Test
+	void runsUnguardedOnDatabasesWithoutNamedLocks() {
+		jdbc.execute("DROP ALIAS GET_LOCK");
+		AtomicBoolean worked = new AtomicBoolean();
+
+		assertThat(new DatabaseLock(jdbc).runLocked("job", Duration.ZERO, session -> worked.set(true))).isTrue();
+		assertThat(worked).isTrue();
+	}
+}
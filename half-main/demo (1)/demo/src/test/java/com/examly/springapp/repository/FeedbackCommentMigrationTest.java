@@ -0,0 +1,81 @@
+package com.examly.springapp.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedbackCommentMigrationTest {
+
+	private SingleConnectionDataSource db;
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void setUp() {
+		db = new SingleConnectionDataSource("jdbc:h2:mem:comment_migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+		jdbc = new JdbcTemplate(db);
+		jdbc.execute("create table feedback_comment (id bigint auto_increment primary key, text varchar(500))");
+		jdbc.execute("create table feedback (id bigint auto_increment primary key, rating int not null, "
+				+ "comment varchar(500), comment_id bigint, comment_preview varchar(80))");
+		for (int i = 1; i <= 12; i++) {
+			jdbc.update("insert into feedback (rating, comment) values (?, ?)", i % 5 + 1,
+					i % 4 == 0 ? null : "comment number " + i);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbc.execute("drop all objects");
+		db.destroy();
+	}
+
+	@Test
+	void movesCommentsInBatchesAndKeepsTheColumn() {
+		migration().migrate();
+
+		assertThat(count("select count(*) from feedback_comment")).isEqualTo(9);
+		assertThat(count("select count(*) from feedback f join feedback_comment c on c.id = f.comment_id "
+				+ "where c.text = f.comment")).isEqualTo(9);
+		assertThat(jdbc.queryForObject("select comment_preview from feedback where id = 7", String.class))
+				.isEqualTo("comment number 7");
+		// Nodes of the previous release may still be writing it
+		assertThat(count("select count(*) from information_schema.columns where table_name = 'feedback' "
+				+ "and column_name = 'comment'")).isEqualTo(1);
+	}
+
+	@Test
+	void catchUpLinksRowsWrittenSinceToTheirOwnComments() {
+		migration().migrate();
+		// A new-version node numbered its comment 13; an old-version node then wrote feedback 13 inline
+		jdbc.update("insert into feedback_comment (id, text) values (13, 'from a new node')");
+		jdbc.update("insert into feedback (rating, comment) values (4, 'from an old node')");
+
+		migration().migrate();
+
+		assertThat(jdbc.queryForObject("select c.text from feedback f join feedback_comment c on c.id = f.comment_id "
+				+ "where f.id = 13", String.class)).isEqualTo("from an old node");
+		assertThat(jdbc.queryForObject("select text from feedback_comment where id = 13", String.class))
+				.isEqualTo("from a new node");
+	}
+
+	@Test
+	void secondRunFindsNothingToCopy() {
+		migration().migrate();
+		migration().migrate();
+
+		assertThat(count("select count(*) from feedback_comment")).isEqualTo(9);
+	}
+
+	private FeedbackCommentMigration migration() {
+		return new FeedbackCommentMigration(new DatabaseLock(jdbc), 5, Duration.ZERO);
+	}
+
+	private long count(String sql) {
+		return jdbc.queryForObject(sql, Long.class);
+	}
+}
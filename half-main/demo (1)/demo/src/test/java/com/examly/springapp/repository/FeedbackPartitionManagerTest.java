@@ -0,0 +1,138 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.history.UserHistoryCache;
+import com.examly.springapp.rating.ProductRatingStore;
+import com.examly.springapp.search.FeedbackColumnStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FeedbackPartitionManagerTest {
+
+	private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+	private final DatabaseLock lock = mock(DatabaseLock.class);
+	private final JdbcTemplate session = mock(JdbcTemplate.class);
+	private final WriteGeneration writeGeneration = mock(WriteGeneration.class);
+	private final FeedbackColumnStore columnStore = mock(FeedbackColumnStore.class);
+	private final UserHistoryCache userHistory = mock(UserHistoryCache.class);
+	private final ProductRatingStore productRatings = mock(ProductRatingStore.class);
+	private final InvalidationBus bus = mock(InvalidationBus.class);
+	private FeedbackPartitionManager manager;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(lock.runLocked(eq(FeedbackPartitionManager.LOCK), any(), any())).thenAnswer(call -> {
+			call.<Consumer<JdbcTemplate>>getArgument(2).accept(session);
+			return true;
+		});
+		manager = new FeedbackPartitionManager(lock, writeGeneration, columnStore, userHistory, productRatings, bus, 2, 0, Duration.ofMinutes(10));
+	}
+
+	@Test
+	void startupRefusesToPartitionWhileRowsHaveNoCreatedAt() {
+		partitions();
+		when(session.queryForObject(contains("created_at IS NULL"), eq(Long.class))).thenReturn(3L);
+
+		manager.initialise();
+
+		verify(session, never()).update(anyString());
+		verify(session, never()).update(anyString(), any(Object[].class));
+		verify(session, never()).execute(anyString());
+	}
+
+	@Test
+	void startupPartitionsFromTheOldestMonth() {
+		partitions();
+		when(session.queryForObject(contains("created_at IS NULL"), eq(Long.class))).thenReturn(0L);
+		when(session.queryForObject(contains("MIN(created_at)"), eq(Timestamp.class)))
+				.thenReturn(Timestamp.valueOf(YearMonth.now().minusMonths(1).atDay(3).atStartOfDay()));
+		when(session.queryForList(contains("REFERENTIAL_CONSTRAINTS"), eq(String.class))).thenReturn(List.of("fk_category"));
+		when(session.queryForList(contains("NON_UNIQUE = 0"), eq(String.class))).thenReturn(List.of("uk_comment_id"));
+
+		manager.initialise();
+
+		verify(session).execute("ALTER TABLE feedback DROP FOREIGN KEY fk_category");
+		verify(session).execute("ALTER TABLE feedback DROP INDEX uk_comment_id");
+		verify(session).execute(argThat((String sql) -> sql.startsWith("ALTER TABLE feedback PARTITION BY RANGE")
+				&& sql.contains("PARTITION " + YearMonth.now().minusMonths(1).format(NAME) + " ")
+				&& sql.contains("PARTITION " + YearMonth.now().plusMonths(2).format(NAME) + " ")
+				&& sql.endsWith("PARTITION pmax VALUES LESS THAN MAXVALUE)")));
+		verify(session, never()).update(anyString());
+	}
+
+	@Test
+	void maintenanceAddsOnlyMissingMonthsUnderTheLock() {
+		partitions(YearMonth.now(), YearMonth.now().plusMonths(1));
+
+		manager.maintain();
+
+		verify(lock).runLocked(eq(FeedbackPartitionManager.LOCK), eq(Duration.ZERO), any());
+		String next = YearMonth.now().plusMonths(2).format(NAME);
+		verify(session).execute("ALTER TABLE feedback REORGANIZE PARTITION pmax INTO (PARTITION " + next
+				+ " VALUES LESS THAN (TO_DAYS('" + YearMonth.now().plusMonths(3).atDay(1) + "')), "
+				+ "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+	}
+
+	@Test
+	void maintenanceLeavesTheTableAloneWhenAnotherNodeHoldsTheLock() {
+		when(lock.runLocked(eq(FeedbackPartitionManager.LOCK), any(), any())).thenReturn(false);
+		manager = new FeedbackPartitionManager(lock, writeGeneration, columnStore, userHistory, productRatings, bus, 2, 6, Duration.ofMinutes(10));
+
+		manager.maintain();
+
+		verify(session, never()).execute(anyString());
+		verify(writeGeneration, never()).bumpFeedback();
+		verify(productRatings, never()).expireBefore(any());
+		// The local column store still follows the retention window
+		verify(columnStore).removeCreatedBefore(YearMonth.now().minusMonths(6).atDay(1).atStartOfDay());
+	}
+
+	@Test
+	void retentionDropsExpiredMonths() {
+		YearMonth old = YearMonth.now().minusMonths(8);
+		partitions(old, YearMonth.now(), YearMonth.now().plusMonths(1), YearMonth.now().plusMonths(2));
+		manager = new FeedbackPartitionManager(lock, writeGeneration, columnStore, userHistory, productRatings, bus, 2, 6, Duration.ofMinutes(10));
+
+		manager.maintain();
+
+		verify(session).execute("ALTER TABLE feedback DROP PARTITION " + old.format(NAME));
+		verify(writeGeneration).bumpFeedback();
+		verify(userHistory).clear();
+		verify(productRatings).expireBefore(YearMonth.now().minusMonths(6).atDay(1));
+		verify(bus).publish(InvalidationBus.FEEDBACK, InvalidationBus.ALL);
+		verify(bus).publish(InvalidationBus.PRODUCT_RATING, InvalidationBus.ALL);
+	}
+
+	private void partitions(YearMonth... months) {
+		List<String> names = new ArrayList<>();
+		for (YearMonth m : months) {
+			names.add(m.format(NAME));
+		}
+		if (months.length > 0) {
+			names.add("pmax");
+		}
+		when(session.queryForList(contains("information_schema.PARTITIONS"), eq(String.class))).thenReturn(names);
+	}
+}
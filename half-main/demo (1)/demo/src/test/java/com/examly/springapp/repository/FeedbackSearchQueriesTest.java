@@ -0,0 +1,167 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.history.HistoryCursor;
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackComment;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.projection.FeedbackField;
+import com.examly.springapp.projection.FeedbackFieldSet;
+import com.examly.springapp.projection.FeedbackRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FeedbackSearchQueriesTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+	private EmbeddedDatabase db;
+	private EntityManagerFactory emf;
+	private EntityManager em;
+	private FeedbackSearchQueries queries;
+	private List<Long> ids;
+
+	@BeforeEach
+	void setUp() {
+		db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(db);
+		factory.setManagedTypes(PersistenceManagedTypes.of(List.of(Feedback.class.getName(), FeedbackComment.class.getName(),
+				Category.class.getName()), List.of()));
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+		factory.afterPropertiesSet();
+		emf = factory.getObject();
+		em = emf.createEntityManager();
+		queries = new FeedbackSearchQueries(emf);
+		ReflectionTestUtils.setField(queries, "em", em);
+
+		em.getTransaction().begin();
+		Category delivery = new Category(null, "Delivery", null);
+		em.persist(delivery);
+		for (int i = 0; i < 5; i++) {
+			Feedback fb = new Feedback();
+			fb.setUserId(i < 3 ? "u1" : "u2");
+			fb.setProductId("p" + i);
+			fb.setRating(i + 1);
+			fb.setComment(i % 2 == 0 ? "comment " + i : null);
+			fb.setStatus(FeedbackStatus.APPROVED);
+			fb.setCategory(i < 2 ? delivery : null);
+			em.persist(fb);
+			// @PrePersist stamps now(); spread the rows so history order is deterministic
+			fb.setCreatedAt(T0.plusMinutes(i));
+		}
+		em.getTransaction().commit();
+		em.clear();
+		ids = em.createQuery("SELECT f.id FROM Feedback f ORDER BY f.id", Long.class).getResultList();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+		emf.close();
+		db.shutdown();
+	}
+
+	// MySQL only partitions feedback by created_at when no other unique key exists (see FeedbackPartitionManager)
+	@Test
+	void entitiesPutNoUniqueKeyOnFeedbackBesideTheId() {
+		assertThat(new JdbcTemplate(db).queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+				+ "WHERE TABLE_NAME = 'FEEDBACK' AND CONSTRAINT_TYPE IN ('UNIQUE', 'PRIMARY KEY')", Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	void sliceSelectsOnlyTheRequestedFieldsInSortOrder() {
+		FeedbackFieldSet fields = FeedbackFieldSet.parse("rating,categoryName");
+
+		Slice<FeedbackRow> first = queries.sliceFields(fields, PageRequest.of(0, 3), "rating", true, null, null, null,
+				null, null, null, null);
+		Slice<FeedbackRow> last = queries.sliceFields(fields, PageRequest.of(1, 3), "rating", true, null, null, null,
+				null, null, null, null);
+
+		assertThat(first.hasNext()).isTrue();
+		assertThat(last.hasNext()).isFalse();
+		assertThat(first.getContent()).extracting(row -> row.get(FeedbackField.RATING)).containsExactly(5, 4, 3);
+		assertThat(last.getContent()).extracting(row -> row.get(FeedbackField.RATING)).containsExactly(2, 1);
+		// Rows without a category survive the left join
+		assertThat(last.getContent()).extracting(row -> row.get(FeedbackField.CATEGORY_NAME))
+				.containsExactly("Delivery", "Delivery");
+		assertThat(first.getContent()).allSatisfy(row -> {
+			assertThat(row.values()).hasSize(3);
+			assertThat(row.get(FeedbackField.CATEGORY_NAME)).isNull();
+			assertThat(row.get(FeedbackField.PRODUCT_ID)).isNull();
+		});
+	}
+
+	@Test
+	void filtersApplyToTupleQueries() {
+		FeedbackFieldSet fields = FeedbackFieldSet.parse("comment");
+
+		// Run twice: the second call goes through the registered named query
+		for (int run = 0; run < 2; run++) {
+			Slice<FeedbackRow> approved = queries.sliceFields(fields, PageRequest.of(0, 10), "id", false, null, null,
+					FeedbackStatus.APPROVED, 3, null, null, null);
+			assertThat(approved.getContent()).singleElement().satisfies(row -> {
+				assertThat(row.get(FeedbackField.ID)).isEqualTo(ids.get(2));
+				assertThat(row.get(FeedbackField.COMMENT)).isEqualTo("comment 2");
+			});
+		}
+	}
+
+	@Test
+	void rowsNotMigratedYetReadTheirCommentFromTheLegacyColumn() {
+		new JdbcTemplate(db).update("INSERT INTO Feedback (userId, productId, rating, comment, status, createdAt) "
+				+ "VALUES ('u3', 'p9', 4, ?, 'APPROVED', ?)", "written inline by a node of the previous release and "
+				+ "not yet copied into feedback_comment", T0);
+		Long id = em.createQuery("SELECT f.id FROM Feedback f WHERE f.productId = 'p9'", Long.class).getSingleResult();
+
+		Feedback fb = em.find(Feedback.class, id);
+		assertThat(fb.getComment()).startsWith("written inline").endsWith("feedback_comment");
+		assertThat(fb.getCommentPreview()).hasSize(FeedbackComment.PREVIEW_LENGTH).startsWith("written inline");
+		assertThat(queries.fieldsByIds(FeedbackFieldSet.parse("comment,commentPreview"), List.of(id, ids.get(0))))
+				.extracting(row -> row.get(FeedbackField.COMMENT), row -> row.get(FeedbackField.COMMENT_PREVIEW))
+				.containsExactlyInAnyOrder(tuple(fb.getComment(), fb.getCommentPreview()), tuple("comment 0", "comment 0"));
+	}
+
+	@Test
+	void fieldsByIdsReadsTheGivenRowsAndSkipsTheQueryForNone() {
+		FeedbackFieldSet fields = FeedbackFieldSet.parse("productId");
+
+		assertThat(queries.fieldsByIds(fields, List.of(ids.get(0), ids.get(4))))
+				.extracting(row -> row.get(FeedbackField.PRODUCT_ID)).containsExactlyInAnyOrder("p0", "p4");
+		assertThat(queries.fieldsByIds(fields, List.of())).isEmpty();
+	}
+
+	@Test
+	void historyFieldsPageNewestFirstFromTheCursor() {
+		FeedbackFieldSet fields = FeedbackFieldSet.parse("productId").with(FeedbackField.CREATED_AT);
+
+		List<FeedbackRow> first = queries.historyFields(fields, "u1", null, 2);
+		HistoryCursor cursor = new HistoryCursor((LocalDateTime) first.get(1).get(FeedbackField.CREATED_AT),
+				(Long) first.get(1).get(FeedbackField.ID));
+		List<FeedbackRow> rest = queries.historyFields(fields, "u1", cursor, 2);
+
+		assertThat(first).extracting(row -> row.get(FeedbackField.PRODUCT_ID)).containsExactly("p2", "p1");
+		assertThat(rest).extracting(row -> row.get(FeedbackField.PRODUCT_ID)).containsExactly("p0");
+	}
+}
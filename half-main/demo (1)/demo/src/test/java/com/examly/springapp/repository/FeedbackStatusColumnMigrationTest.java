@@ -0,0 +1,52 @@
+package com.examly.springapp.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedbackStatusColumnMigrationTest {
+
+	private SingleConnectionDataSource db;
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void setUp() {
+		db = new SingleConnectionDataSource("jdbc:h2:mem:status_migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+		jdbc = new JdbcTemplate(db);
+		// As created by an earlier release
+		jdbc.execute("create table feedback (id bigint auto_increment primary key, "
+				+ "status enum('APPROVED', 'PENDING', 'REJECTED'))");
+		jdbc.update("insert into feedback (status) values ('APPROVED'), ('PENDING')");
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbc.execute("drop all objects");
+		db.destroy();
+	}
+
+	@Test
+	void widensAnEnumColumnSoFlaggedCanBeStored() {
+		migration().migrate();
+
+		jdbc.update("insert into feedback (status) values ('FLAGGED')");
+		assertThat(jdbc.queryForList("select status from feedback order by id", String.class))
+				.containsExactly("APPROVED", "PENDING", "FLAGGED");
+
+		// Nothing left to change on the next start
+		migration().migrate();
+		assertThat(jdbc.queryForObject("select data_type from information_schema.columns "
+				+ "where table_name = 'feedback' and column_name = 'status'", String.class))
+				.isEqualToIgnoringCase("CHARACTER VARYING");
+	}
+
+	private FeedbackStatusColumnMigration migration() {
+		return new FeedbackStatusColumnMigration(new DatabaseLock(jdbc), Duration.ofSeconds(5));
+	}
+}
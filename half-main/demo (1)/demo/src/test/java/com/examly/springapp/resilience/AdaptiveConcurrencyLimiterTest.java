@@ -0,0 +1,82 @@
+package com.examly.springapp.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	void latencyAboveTheBaselineRatchetsTheLimitDown() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 2.0, 0.9, 50);
+		rounds(limiter, 10, 10 * MS);
+		int healthy = limiter.getLimit();
+
+		rounds(limiter, 5, 50 * MS);
+
+		assertThat(healthy).isGreaterThanOrEqualTo(20);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void anUnusuallyFastFirstRequestAgesOutOfTheBaseline() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 2.0, 0.9, 50);
+		limiter.tryAcquire();
+		limiter.release(MS / 10, false);
+
+		rounds(limiter, 3, 10 * MS);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+
+		// Two windows later the fast sample is forgotten and steady 10 ms requests are healthy again
+		rounds(limiter, 150, 10 * MS);
+		assertThat(limiter.getLimit()).isGreaterThan(10);
+	}
+
+	@Test
+	void failuresShrinkTheLimitButNeverLowerTheBaseline() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 2.0, 0.9, 50);
+		rounds(limiter, 2, 10 * MS);
+		limiter.tryAcquire();
+		limiter.release(MS / 10, true);
+		int afterFailure = limiter.getLimit();
+
+		rounds(limiter, 20, 10 * MS);
+
+		assertThat(afterFailure).isLessThan(20);
+		assertThat(limiter.getLimit()).isGreaterThan(afterFailure);
+	}
+
+	@Test
+	void releasesWithoutASampleFreeTheSlotAndLeaveTheBaselineAlone() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 2.0, 0.9, 50);
+		rounds(limiter, 2, 10 * MS);
+		int before = limiter.getLimit();
+		// Cache hits and 304s in between
+		for (int i = 0; i < 100; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+			limiter.releaseWithoutSample();
+		}
+
+		rounds(limiter, 5, 10 * MS);
+
+		assertThat(limiter.getInFlight()).isZero();
+		assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(before);
+	}
+
+	// Fills the limit, then completes every request with the given latency, so the limit is fully in use
+	private static void rounds(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+		for (int r = 0; r < rounds; r++) {
+			int held = 0;
+			while (limiter.tryAcquire()) {
+				held++;
+			}
+			for (int i = 0; i < held; i++) {
+				limiter.release(rttNanos, false);
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.examly.springapp.search;
+
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedbackColumnStoreTest {
+
+	private static final LocalDateTime T = LocalDateTime.of(2024, 5, 1, 12, 0, 0);
+
+	// No load(): rows arrive through upsert, which applies immediately outside a transaction
+	private final FeedbackColumnStore store = new FeedbackColumnStore(null, true);
+
+	@Test
+	void sortsByIdWhenRowsArriveOutOfIdOrder() {
+		store.upsert(feedback(30, 3, T));
+		store.upsert(feedback(10, 3, T));
+		store.upsert(feedback(20, 3, T));
+		store.remove(10);
+		store.upsert(feedback(10, 3, T));
+
+		assertThat(ids("id", false)).containsExactly(10L, 20L, 30L);
+		assertThat(ids("id", true)).containsExactly(30L, 20L, 10L);
+	}
+
+	@Test
+	void breaksSortTiesById() {
+		store.upsert(feedback(7, 4, T));
+		store.upsert(feedback(3, 4, T));
+		store.upsert(feedback(5, 2, T));
+
+		assertThat(ids("rating", false)).containsExactly(5L, 3L, 7L);
+		assertThat(ids("createdAt", false)).containsExactly(3L, 5L, 7L);
+	}
+
+	@Test
+	void keepsSubSecondCreatedAtForFiltersAndSorts() {
+		store.upsert(feedback(1, 5, T.plusNanos(900_000_000)));
+		store.upsert(feedback(2, 5, T.plusNanos(100_000_000)));
+		store.upsert(feedback(3, 5, T.plusNanos(500_000)));
+
+		assertThat(ids("createdAt", false)).containsExactly(3L, 2L, 1L);
+		FeedbackColumnStore.Result window = store.query(null, null, null, T.plusNanos(500_000), T.plusNanos(900_000_000),
+				"createdAt", false, 0, 10);
+		assertThat(window.ids()).containsExactly(3L, 2L);
+		assertThat(window.total()).isEqualTo(2);
+	}
+
+	@Test
+	void removesRowsCreatedBeforeACutoffWithinTheSameSecond() {
+		store.upsert(feedback(1, 5, T.plusNanos(100_000_000)));
+		store.upsert(feedback(2, 5, T.plusNanos(600_000_000)));
+
+		store.removeCreatedBefore(T.plusNanos(500_000_000));
+
+		assertThat(ids("id", false)).containsExactly(2L);
+	}
+
+	@Test
+	void pagesAndFiltersByStatus() {
+		for (long id = 1; id <= 5; id++) {
+			Feedback fb = feedback(id, 3, T.plusSeconds(id));
+			fb.setStatus(id % 2 == 0 ? FeedbackStatus.APPROVED : FeedbackStatus.PENDING);
+			store.upsert(fb);
+		}
+
+		FeedbackColumnStore.Result page = store.query(FeedbackStatus.PENDING, null, null, null, null, "createdAt", true, 1, 2);
+		assertThat(page.ids()).containsExactly(1L);
+		assertThat(page.total()).isEqualTo(3);
+	}
+
+	@Test
+	void updatesMoveARowWithinEverySortOrder() {
+		store.upsert(feedback(1, 1, T));
+		store.upsert(feedback(2, 3, T.plusSeconds(1)));
+		store.upsert(feedback(3, 5, T.plusSeconds(2)));
+
+		store.upsert(feedback(3, 2, T.minusSeconds(1)));
+
+		assertThat(ids("rating", false)).containsExactly(1L, 3L, 2L);
+		assertThat(ids("createdAt", false)).containsExactly(3L, 1L, 2L);
+		assertThat(ids("id", true)).containsExactly(3L, 2L, 1L);
+	}
+
+	@Test
+	void compactsTombstonesAndKeepsTheOrders() {
+		for (long id = 1; id <= 2000; id++) {
+			store.upsert(feedback(id, (int) (id % 5) + 1, T.minusSeconds(id)));
+		}
+		for (long id = 1; id <= 1500; id++) {
+			store.remove(id);
+		}
+
+		assertThat(store.slots()).isLessThan(2000);
+		FeedbackColumnStore.Result oldest = store.query(null, 5, null, null, null, "createdAt", false, 0, 3);
+		assertThat(oldest.ids()).containsExactly(1999L, 1994L, 1989L);
+		assertThat(oldest.total()).isEqualTo(100);
+		assertThat(ids("id", false)).hasSize(100).startsWith(1501L);
+
+		store.upsert(feedback(1, 5, T));
+		assertThat(store.query(null, 5, null, null, null, "createdAt", true, 0, 1).ids()).containsExactly(1L);
+	}
+
+	private List<Long> ids(String sortBy, boolean descending) {
+		return store.query(null, null, null, null, null, sortBy, descending, 0, 100).ids();
+	}
+
+	private static Feedback feedback(long id, int rating, LocalDateTime createdAt) {
+		return new Feedback(id, "u" + id, "p1", rating, null, FeedbackStatus.PENDING, createdAt);
+	}
+}
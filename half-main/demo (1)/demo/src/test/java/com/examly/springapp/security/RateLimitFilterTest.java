@@ -0,0 +1,85 @@
+package com.examly.springapp.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void anonymousSubmittersAreKeyedByAddressNotByTheSharedAnonymousPrincipal() throws Exception {
+		RateLimitFilter filter = filter();
+		Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+		for (int client = 1; client <= 5; client++) {
+			assertThat(submit(filter, anonymous, "10.0.0." + client)).isEqualTo(200);
+			assertThat(submit(filter, anonymous, "10.0.0." + client)).isEqualTo(200);
+		}
+		assertThat(submit(filter, anonymous, "10.0.0.1")).isEqualTo(429);
+	}
+
+	@Test
+	void authenticatedPrincipalSharesOneBucketAcrossAddresses() throws Exception {
+		RateLimitFilter filter = filter();
+		Authentication alice = new UsernamePasswordAuthenticationToken("alice", null,
+				AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+		assertThat(submit(filter, alice, "10.0.0.1")).isEqualTo(200);
+		assertThat(submit(filter, alice, "10.0.0.2")).isEqualTo(200);
+		assertThat(submit(filter, alice, "10.0.0.3")).isEqualTo(429);
+		assertThat(submit(filter, null, "10.0.0.3")).isEqualTo(200);
+	}
+
+	@Test
+	void periodicSweepKeepsBucketsUsedWithinTheEvictionWindow() throws Exception {
+		TokenBucketRegistry registry = new TokenBucketRegistry(100, 1);
+		registry.tryAcquire("old", 1, 60_000);
+		Thread.sleep(600);
+		registry.tryAcquire("recent", 1, 60_000);
+		Thread.sleep(500);
+
+		// Sweeps here: "old" has been full for over a second, "recent" for about half of one
+		registry.tryAcquire("new", 1, 60_000);
+
+		assertThat(registry.size()).isEqualTo(2);
+	}
+
+	private static RateLimitFilter filter() {
+		RateLimitProperties.Route route = new RateLimitProperties.Route();
+		route.setPattern("/api/feedback");
+		route.setMethod("POST");
+		route.setCapacity(2);
+		route.setRefillPerMinute(1);
+		route.setPerPrincipal(true);
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setRoutes(List.of(route));
+		return new RateLimitFilter(properties);
+	}
+
+	private static int submit(RateLimitFilter filter, Authentication auth, String address) throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(auth);
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/feedback");
+		request.setServletPath("/api/feedback");
+		request.setRemoteAddr(address);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response.getStatus();
+	}
+}
@@ -0,0 +1,73 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.datasource.ReadYourWritesTracker;
+import com.examly.springapp.model.Category;
+import com.examly.springapp.pagination.ParallelPageLoader;
+import com.examly.springapp.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryServiceImplTest {
+
+	@Test
+	void snapshotReloadsAfterARemoteBumpReadFromThePrimary() {
+		CategoryRepository repository = mock(CategoryRepository.class);
+		when(repository.findAll()).thenReturn(List.of(new Category(1L, "Books", null)),
+				List.of(new Category(1L, "Books", null), new Category(2L, "Games", null)));
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		WriteGeneration writeGeneration = new WriteGeneration();
+		CategoryServiceImpl service = new CategoryServiceImpl(repository, writeGeneration, new ReadYourWritesTracker(new WriteGeneration(), 0),
+				mock(ParallelPageLoader.class), mock(InvalidationBus.class), transactionManager);
+
+		assertThat(service.getAll()).hasSize(1);
+		assertThat(service.getAll()).hasSize(1);
+		// A category write on another node arrives as a bus invalidation that bumps the generation
+		writeGeneration.bumpCategory();
+		assertThat(service.getAll()).hasSize(2);
+
+		ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(transactionManager, times(2)).getTransaction(definitions.capture());
+		assertThat(definitions.getAllValues()).allSatisfy(definition -> {
+			assertThat(definition.isReadOnly()).isFalse();
+			// Joins a caller's transaction rather than holding its connection while waiting for another
+			assertThat(definition.getPropagationBehavior()).isEqualTo(TransactionDefinition.PROPAGATION_REQUIRED);
+		});
+		verify(repository, times(2)).findAll();
+	}
+
+	@Test
+	void readInsideAReadOnlyTransactionIsNotKeptAsTheSnapshot() {
+		CategoryRepository repository = mock(CategoryRepository.class);
+		when(repository.findAll()).thenReturn(List.of(new Category(1L, "Books", null)));
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		CategoryServiceImpl service = new CategoryServiceImpl(repository, new WriteGeneration(), new ReadYourWritesTracker(new WriteGeneration(), 0),
+				mock(ParallelPageLoader.class), mock(InvalidationBus.class), transactionManager);
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try {
+			assertThat(service.getAll()).hasSize(1);
+		} finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		}
+		assertThat(service.getAll()).hasSize(1);
+
+		verify(repository, times(2)).findAll();
+	}
+}
@@ -0,0 +1,168 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.FeedbackArchive;
+import com.examly.springapp.cache.InvalidationBus;
+import com.examly.springapp.cache.InvalidationTransport;
+import com.examly.springapp.cache.WriteGeneration;
+import com.examly.springapp.dashboard.AdminDashboard;
+import com.examly.springapp.datasource.ReadYourWritesTracker;
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.examly.springapp.pagination.CountMode;
+import com.examly.springapp.pagination.ParallelPageLoader;
+import com.examly.springapp.repository.CategoryRepository;
+import com.examly.springapp.repository.DatabaseLock;
+import com.examly.springapp.repository.FeedbackRepository;
+import com.examly.springapp.search.FeedbackColumnStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceImplTest {
+
+	private static final LocalDateTime OLD = LocalDateTime.of(2020, 3, 1, 9, 0);
+	private static final LocalDateTime CUTOFF = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+	@TempDir
+	Path dir;
+
+	private SingleConnectionDataSource db;
+	private JdbcTemplate jdbc;
+	private FeedbackArchive archive;
+	private ParallelPageLoader pageLoader;
+	private final FeedbackService feedbackService = mock(FeedbackService.class);
+	private final CategoryService categoryService = mock(CategoryService.class);
+	private final FeedbackRepository repo = mock(FeedbackRepository.class);
+
+	@BeforeEach
+	void setUp() throws Exception {
+		db = new SingleConnectionDataSource("jdbc:h2:mem:dashboard;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+		jdbc = new JdbcTemplate(db);
+		jdbc.execute("create table feedback_comment (id bigint auto_increment primary key, text varchar(500))");
+		jdbc.execute("create table feedback (id bigint auto_increment primary key, user_id varchar(255), "
+				+ "product_id varchar(255), rating int not null, comment varchar(500), comment_id bigint, "
+				+ "comment_preview varchar(80), submitter_name varchar(255), submitter_email varchar(255), status varchar(255), "
+				+ "category_id bigint, created_at timestamp(6) not null)");
+		for (int i = 0; i < 30; i++) {
+			jdbc.update("insert into feedback (user_id, product_id, rating, status, created_at) values ('u', 'p', ?, ?, ?)",
+					i % 5 + 1, i % 2 == 0 ? "APPROVED" : "PENDING", Timestamp.valueOf(OLD.plusDays(i)));
+		}
+		jdbc.update("insert into feedback (user_id, product_id, rating, status, created_at) values ('u', 'p', 5, 'PENDING', ?)",
+				Timestamp.valueOf(LocalDateTime.now().minusDays(1)));
+
+		CategoryRepository categories = mock(CategoryRepository.class);
+		when(categories.findAll()).thenReturn(List.of());
+		DataSourceTransactionManager transactions = new DataSourceTransactionManager(db);
+		// The archiving node's own column store; the dashboard below is given a separate one
+		archive = new FeedbackArchive(jdbc, categories, new WriteGeneration(), new FeedbackColumnStore(jdbc, false),
+				new DatabaseLock(jdbc), transactions, new InvalidationBus(new StaticListableBeanFactory(Map.of())
+						.getBeanProvider(InvalidationTransport.class), transactions, "dashboard", 100),
+				true, dir.toString(), 365, 20);
+		archive.open();
+
+		// The dashboard's worker reads run outside any transaction here
+		PlatformTransactionManager noTransactions = mock(PlatformTransactionManager.class);
+		when(noTransactions.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		pageLoader = new ParallelPageLoader(noTransactions, new ReadYourWritesTracker(new WriteGeneration(), 0), 2, 16, 60);
+
+		when(categoryService.getAll()).thenReturn(List.of(new Category(1L, "Delivery", null)));
+		when(feedbackService.searchAdmin(eq(0), eq(2), eq("createdAt"), eq("desc"), isNull(), isNull(), isNull(), isNull(),
+				isNull(), isNull(), isNull(), eq(CountMode.NONE))).thenReturn(new SliceImpl<>(
+				List.of(new Feedback(31L, "u", "p", 5, null, FeedbackStatus.PENDING, LocalDateTime.now()),
+						new Feedback(30L, "u", "p", 5, null, FeedbackStatus.PENDING, OLD.plusDays(29))),
+				PageRequest.of(0, 2), true));
+		when(repo.countByStatusAndRating()).thenAnswer(invocation -> liveCounts());
+	}
+
+	@AfterEach
+	void tearDown() {
+		pageLoader.shutdown();
+		jdbc.execute("drop all objects");
+		db.destroy();
+	}
+
+	@Test
+	void combinesCategoriesFirstPageAndBreakdownTotal() {
+		AdminDashboard dashboard = dashboard(new FeedbackColumnStore(jdbc, false)).load(null, 2, "createdAt", "desc");
+
+		assertThat(dashboard.categories()).extracting(Category::getName).containsExactly("Delivery");
+		assertThat(dashboard.feedback().getContent()).hasSize(2);
+		assertThat(((Page<?>) dashboard.feedback()).getTotalElements()).isEqualTo(31);
+		assertThat(dashboard.breakdown().total()).isEqualTo(31);
+		assertThat(dashboard.breakdown().byStatus()).containsEntry(FeedbackStatus.APPROVED, 15L)
+				.containsEntry(FeedbackStatus.PENDING, 16L).containsEntry(FeedbackStatus.FLAGGED, 0L);
+		assertThat(dashboard.breakdown().byRating()).containsEntry(5, 7L).containsEntry(1, 6L);
+	}
+
+	@Test
+	void columnStoreCountsArchivedRowsOnceUntilItDropsThem() {
+		FeedbackColumnStore store = new FeedbackColumnStore(null, true);
+		jdbc.query("select id, rating, status, created_at from feedback", rs -> {
+			store.upsert(new Feedback(rs.getLong(1), "u", "p", rs.getInt(2), null,
+					FeedbackStatus.valueOf(rs.getString(3)), rs.getTimestamp(4).toLocalDateTime()));
+		});
+		ReflectionTestUtils.setField(store, "ready", true);
+		DashboardServiceImpl dashboard = dashboard(store);
+
+		// Segments visible, this node's column store not yet told: the moved rows are on both sides
+		assertThat(archive.archiveOlderThan(CUTOFF)).isEqualTo(30);
+		assertThat(dashboard.load(null, 2, "createdAt", "desc").breakdown().total()).isEqualTo(31);
+
+		store.removeCreatedBefore(CUTOFF);
+		assertThat(dashboard.load(null, 2, "createdAt", "desc").breakdown().byStatus())
+				.containsEntry(FeedbackStatus.APPROVED, 15L).containsEntry(FeedbackStatus.PENDING, 16L);
+	}
+
+	@Test
+	void databaseCountsIgnoreSegmentsCommittedAfterTheirSnapshot() {
+		// An archive run commits between the live count and the archive scan
+		when(repo.countByStatusAndRating()).thenAnswer(invocation -> {
+			List<Object[]> counts = liveCounts();
+			archive.archiveOlderThan(CUTOFF);
+			return counts;
+		});
+		DashboardServiceImpl dashboard = dashboard(new FeedbackColumnStore(jdbc, false));
+
+		assertThat(dashboard.load(null, 2, "createdAt", "desc").breakdown().total()).isEqualTo(31);
+		assertThat(count("select count(*) from feedback")).isEqualTo(1);
+		assertThat(dashboard.load(null, 2, "createdAt", "desc").breakdown().total()).isEqualTo(31);
+	}
+
+	private DashboardServiceImpl dashboard(FeedbackColumnStore columnStore) {
+		return new DashboardServiceImpl(feedbackService, categoryService, repo, columnStore, archive, pageLoader);
+	}
+
+	private List<Object[]> liveCounts() {
+		return jdbc.query("select status, rating, count(*) from feedback group by status, rating",
+				(rs, i) -> new Object[] {FeedbackStatus.valueOf(rs.getString(1)), rs.getInt(2), rs.getLong(3)});
+	}
+
+	private long count(String sql) {
+		return jdbc.queryForObject(sql, Long.class);
+	}
+}
@@ -0,0 +1,88 @@
+package com.examly.springapp.web;
+
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rough size/time comparison of the streamed binary encodings against the plain Jackson JSON path.
+// Timings are logged for inspection only; run with -Pbenchmark. Format and size checks live in ResponseEncodingTest.
+@Tag("benchmark")
+class ResponseEncodingBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ResponseEncodingBenchmarkTest.class);
+
+	private static final int ROWS = 5_000;
+	private static final int ROUNDS = 20;
+
+	private final ResponseEncoding encoding = new ResponseEncoding(Jackson2ObjectMapperBuilder.json().build());
+
+	@Test
+	void binaryEncodingsAreSmallerThanJson() throws Exception {
+		List<Feedback> rows = sampleRows();
+
+		byte[] json = encoding.mapperFor(MediaType.APPLICATION_JSON).writeValueAsBytes(rows);
+		byte[] smile = streamed(rows, ResponseEncoding.SMILE);
+		byte[] cbor = streamed(rows, ResponseEncoding.CBOR);
+
+		long jsonNanos = time(() -> encoding.mapperFor(MediaType.APPLICATION_JSON).writeValueAsBytes(rows));
+		long smileNanos = time(() -> streamed(rows, ResponseEncoding.SMILE));
+		long cborNanos = time(() -> streamed(rows, ResponseEncoding.CBOR));
+
+		log.info("json {} bytes {} us, smile {} bytes {} us, cbor {} bytes {} us", json.length, jsonNanos / 1_000,
+				smile.length, smileNanos / 1_000, cbor.length, cborNanos / 1_000);
+
+		assertThat(smile.length).isLessThan(json.length / 2);
+		assertThat(cbor.length).isLessThan(json.length);
+	}
+
+	private byte[] streamed(List<Feedback> rows, MediaType type) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+		encoding.streamArray(rows, type).writeTo(out);
+		return out.toByteArray();
+	}
+
+	private long time(ThrowingRunnable body) throws Exception {
+		for (int i = 0; i < ROUNDS; i++) {
+			body.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			body.run();
+		}
+		return (System.nanoTime() - start) / ROUNDS;
+	}
+
+	private List<Feedback> sampleRows() {
+		List<Category> categories = List.of(
+				new Category(1L, "Bug Report", LocalDateTime.of(2024, 1, 1, 0, 0)),
+				new Category(2L, "Feature Request", LocalDateTime.of(2024, 1, 1, 0, 0)),
+				new Category(3L, "Usability", LocalDateTime.of(2024, 1, 1, 0, 0)));
+		List<Feedback> rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			Feedback fb = new Feedback((long) i, "user" + (i % 50), "product-" + (i % 20), 1 + i % 5,
+					"Short comment", FeedbackStatus.values()[i % 3], LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+			fb.setSubmitterName("Submitter " + (i % 50));
+			fb.setSubmitterEmail("user" + (i % 50) + "@example.com");
+			fb.setCategory(categories.get(i % categories.size()));
+			rows.add(fb);
+		}
+		return rows;
+	}
+
+	private interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,82 @@
+package com.examly.springapp.web;
+
+import com.examly.springapp.model.Feedback;
+import com.examly.springapp.model.FeedbackStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseEncodingTest {
+
+	private final ResponseEncoding encoding = new ResponseEncoding(Jackson2ObjectMapperBuilder.json().build());
+
+	@Test
+	void negotiatesFromAcceptAndDefaultsToJson() {
+		assertThat(encoding.negotiate(accept(null))).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(encoding.negotiate(accept("application/x-jackson-smile"))).isEqualTo(ResponseEncoding.SMILE);
+		assertThat(encoding.negotiate(accept("application/cbor, application/json;q=0.5"))).isEqualTo(ResponseEncoding.CBOR);
+		assertThat(encoding.negotiate(accept("*/*, application/cbor"))).isEqualTo(ResponseEncoding.CBOR);
+	}
+
+	@Test
+	void honoursQualityValues() {
+		assertThat(encoding.negotiate(accept("application/cbor;q=0.5, application/json"))).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(encoding.negotiate(accept("application/x-jackson-smile;q=0.2, */*;q=0.8"))).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(encoding.negotiate(accept("application/x-jackson-smile;q=0, application/cbor;q=0.1"))).isEqualTo(ResponseEncoding.CBOR);
+		// Nothing writable ranks above Smile, so it is picked over the unsupported first choice
+		assertThat(encoding.negotiate(accept("text/html, application/x-jackson-smile;q=0.9"))).isEqualTo(ResponseEncoding.SMILE);
+	}
+
+	@Test
+	void streamedArraysRoundTripInEachEncodingAndBinaryIsSmaller() throws Exception {
+		List<Feedback> rows = rows(200);
+		byte[] json = streamed(rows, MediaType.APPLICATION_JSON);
+		byte[] smile = streamed(rows, ResponseEncoding.SMILE);
+		byte[] cbor = streamed(rows, ResponseEncoding.CBOR);
+
+		// Smile documents open with the ":)\n" signature
+		assertThat(new String(smile, 0, 3)).isEqualTo(":)\n");
+		for (MediaType type : List.of(MediaType.APPLICATION_JSON, ResponseEncoding.SMILE, ResponseEncoding.CBOR)) {
+			byte[] body = type == ResponseEncoding.SMILE ? smile : type == ResponseEncoding.CBOR ? cbor : json;
+			JsonNode tree = encoding.mapperFor(type).readTree(body);
+			assertThat(tree.size()).isEqualTo(200);
+			assertThat(tree.get(7).get("productId").asText()).isEqualTo("product-7");
+			assertThat(tree.get(7).get("rating").asInt()).isEqualTo(3);
+		}
+		assertThat(smile.length).isLessThan(json.length);
+		assertThat(cbor.length).isLessThan(json.length);
+	}
+
+	private byte[] streamed(List<Feedback> rows, MediaType type) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		encoding.streamArray(rows, type).writeTo(out);
+		return out.toByteArray();
+	}
+
+	private static MockHttpServletRequest accept(String accept) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/admin/feedback/all");
+		if (accept != null) {
+			request.addHeader(HttpHeaders.ACCEPT, accept);
+		}
+		return request;
+	}
+
+	private static List<Feedback> rows(int n) {
+		List<Feedback> rows = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			rows.add(new Feedback((long) i, "user" + i, "product-" + i, 1 + i % 5, "comment " + i,
+					FeedbackStatus.PENDING, LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i)));
+		}
+		return rows;
+	}
+}
@@ -7,14 +7,23 @@ import {
   Tooltip,
   ResponsiveContainer,
 } from "recharts";
+import {
+  getAdminDashboard,
+  searchAdminFeedback,
+  updateFeedbackStatus,
+  deleteFeedback,
+} from "../utils/api";
 
 // 🎯 Feedback Status Constants
 const FEEDBACK_STATUS = {
   PENDING: "PENDING",
   APPROVED: "APPROVED",
-  REJECTED: "REJECTED"
+  REJECTED: "REJECTED",
+  FLAGGED: "FLAGGED"
 };
 
+const PAGE_SIZE = 20;
+
 const AdminFeedbackList = () => {
   const [data, setData] = useState({ content: [], totalElements: 0, totalPages: 0 });
 
@@ -23,138 +32,95 @@ const AdminFeedbackList = () => {
   const [statusFilter, setStatusFilter] = useState("");
   const [ratingFilter, setRatingFilter] = useState("");
 
-  // 📅 Dates
-  const today = new Date();
-  const yesterday = new Date();
-  yesterday.setDate(today.getDate() - 1);
-
-  // 🎯 Mock Feedback Data
-  const mockFeedback = {
-    content: [
-      {
-        id: 1,
-        submitterName: "Alice Johnson",
-        submitterEmail: "alice@example.com",
-        productId: "P-101",
-        rating: 5,
-        comment: "Excellent product! Works perfectly.",
-        status: FEEDBACK_STATUS.PENDING,
-        category: { id: 1, name: "Home" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 2,
-        submitterName: "Bob Smith",
-        submitterEmail: "bob@example.com",
-        productId: "P-102",
-        rating: 4,
-        comment: "Good value for money, but delivery was late.",
-        status: FEEDBACK_STATUS.APPROVED,
-        category: { id: 2, name: "Finance" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 3,
-        submitterName: "Clara White",
-        submitterEmail: "clara@example.com",
-        productId: "P-103",
-        rating: 2,
-        comment: "Not satisfied, item arrived broken.",
-        status: FEEDBACK_STATUS.REJECTED,
-        category: { id: 3, name: "Travel" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 4,
-        submitterName: "David Green",
-        submitterEmail: "david@example.com",
-        productId: "P-104",
-        rating: 3,
-        comment: "Average, could be improved.",
-        status: FEEDBACK_STATUS.PENDING,
-        category: { id: 4, name: "Academic" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 5,
-        submitterName: "Dharanitharan",
-        submitterEmail: "dharaniitharan725@gmail.com",
-        productId: "P-01",
-        rating: 5,
-        comment: "Good value for money",
-        status: FEEDBACK_STATUS.PENDING,
-        category: { id: 4, name: "Academic" },
-        createdAt: today.toISOString()
-      }
-    ]
-  };
-
   // 🎯 Chart Colors
   const COLORS = ["#0088FE", "#00C49F", "#FFBB28", "#FF8042", "#845EC2"];
 
+  // 🎯 Unfiltered, the first page comes from the composite dashboard endpoint in a single round trip;
+  // filters go to the paged search, debounced so typing does not send a request per key
   useEffect(() => {
-    setData(mockFeedback);
-  }, []);
-
-  // 🎯 Apply Filters
-  const filteredData = useMemo(() => {
-    return data.content.filter(f => {
-      const matchesSearch =
-        f.submitterName.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        f.submitterEmail.toLowerCase().includes(searchTerm.toLowerCase());
-
-      const matchesStatus =
-        statusFilter === "" || f.status === statusFilter;
-
-      const matchesRating =
-        ratingFilter === "" || f.rating === Number(ratingFilter);
+    const filtered = searchTerm.trim() !== "" || statusFilter !== "" || ratingFilter !== "";
+    const timer = setTimeout(async () => {
+      try {
+        if (!filtered) {
+          const { feedback } = await getAdminDashboard({ size: PAGE_SIZE });
+          setData(feedback);
+          return;
+        }
+        const term = searchTerm.trim();
+        setData(await searchAdminFeedback({
+          size: PAGE_SIZE,
+          name: term && !term.includes("@") ? term : undefined,
+          email: term.includes("@") ? term : undefined,
+          status: statusFilter || undefined,
+          rating: ratingFilter,
+        }));
+      } catch (err) {
+        console.error("Failed to load feedback:", err);
+        toast.error("Failed to load feedback");
+      }
+    }, filtered ? 300 : 0);
+    return () => clearTimeout(timer);
+  }, [searchTerm, statusFilter, ratingFilter]);
 
-      return matchesSearch && matchesStatus && matchesRating;
-    });
-  }, [data, searchTerm, statusFilter, ratingFilter]);
+  const rows = data.content || [];
 
   // 🎯 Prepare Chart Data
   const categoryData = useMemo(() => {
     const counts = {};
-    filteredData.forEach(f => {
+    rows.forEach(f => {
       const cat = f.category?.name || "Uncategorized";
       counts[cat] = (counts[cat] || 0) + 1;
     });
     return Object.keys(counts).map(name => ({ name, value: counts[name] }));
-  }, [filteredData]);
+  }, [rows]);
 
-  // 🎯 Action handlers (mock only)
-  const handleApprove = (id) => {
+  // 🎯 Action handlers
+  const setStatus = async (id, status) => {
+    await updateFeedbackStatus(id, status);
     setData(prev => ({
       ...prev,
       content: prev.content.map(f =>
-        f.id === id ? { ...f, status: FEEDBACK_STATUS.APPROVED } : f
+        f.id === id ? { ...f, status } : f
       )
     }));
-    toast.success("Feedback approved!");
   };
 
-  const handleReject = (id) => {
-    setData(prev => ({
-      ...prev,
-      content: prev.content.map(f =>
-        f.id === id ? { ...f, status: FEEDBACK_STATUS.REJECTED } : f
-      )
-    }));
-    toast.info("Feedback rejected!");
+  const handleApprove = async (id) => {
+    try {
+      await setStatus(id, FEEDBACK_STATUS.APPROVED);
+      toast.success("Feedback approved!");
+    } catch (err) {
+      toast.error("Failed to approve feedback");
+    }
   };
 
-  const handleDelete = (id) => {
-    setData(prev => ({
-      ...prev,
-      content: prev.content.filter(f => f.id !== id)
-    }));
-    toast.error("Feedback deleted!");
+  const handleReject = async (id) => {
+    try {
+      await setStatus(id, FEEDBACK_STATUS.REJECTED);
+      toast.info("Feedback rejected!");
+    } catch (err) {
+      toast.error("Failed to reject feedback");
+    }
+  };
+
+  const handleDelete = async (id) => {
+    try {
+      await deleteFeedback(id);
+      setData(prev => ({
+        ...prev,
+        content: prev.content.filter(f => f.id !== id),
+        totalElements: Math.max(0, (prev.totalElements || 0) - 1)
+      }));
+      toast.error("Feedback deleted!");
+    } catch (err) {
+      toast.error("Failed to delete feedback");
+    }
   };
 
   return (
     <div>
-      <h2>Admin Feedback List (Mock Mode)</h2>
+      <h2>Admin Feedback List</h2>
+      <p>Showing {rows.length} of {data.totalElements || 0}</p>
 
       {/* 🔎 Filters */}
       <div style={{ marginBottom: "15px" }}>
@@ -175,6 +141,7 @@ const AdminFeedbackList = () => {
           <option value={FEEDBACK_STATUS.PENDING}>Pending</option>
           <option value={FEEDBACK_STATUS.APPROVED}>Approved</option>
           <option value={FEEDBACK_STATUS.REJECTED}>Rejected</option>
+          <option value={FEEDBACK_STATUS.FLAGGED}>Flagged</option>
         </select>
 
         <select
@@ -205,7 +172,7 @@ const AdminFeedbackList = () => {
           </tr>
         </thead>
         <tbody>
-          {filteredData.map(f => (
+          {rows.map(f => (
             <tr key={f.id}>
               <td>{f.id}</td>
               <td>{f.submitterName}</td>
@@ -2,6 +2,7 @@ import React, { useEffect, useState } from "react";
 import { Link, useNavigate } from "react-router-dom";
 import { PieChart, Pie, Cell, Tooltip, LineChart, Line, XAxis, YAxis, CartesianGrid, ResponsiveContainer } from "recharts";
 import { FEEDBACK_STATUS } from "../utils/constants";
+import { getAdminDashboard } from "../utils/api";
 import './Dashboard.css';
 
 const COLORS = ["#FF6B6B", "#4ECDC4", "#45B7D1", "#96CEB4", "#FFEAA7"];
@@ -13,9 +14,11 @@ export default function Dashboard() {
     pending: 0,
     approved: 0,
     rejected: 0,
+    flagged: 0,
     recentActivity: [],
     averageRating: 0
   });
+  const [error, setError] = useState(null);
 
   const navigate = useNavigate();
 
@@ -23,94 +26,33 @@ export default function Dashboard() {
     loadDashboardData();
   }, []);
 
-  const loadDashboardData = () => {
-    const yesterday = new Date();
-    yesterday.setDate(yesterday.getDate() - 1);
-    const today = new Date();
-
-    // 🎯 Dumb Feedback Data
-    const mockData = [
-      {
-        id: 1,
-        submitterName: "Alice Johnson",
-        submitterEmail: "alice@example.com",
-        productId: "P-101",
-        rating: 5,
-        comment: "Excellent product! Works perfectly.",
-        status: FEEDBACK_STATUS.PENDING,
-        category: { id: 1, name: "Home" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 2,
-        submitterName: "Bob Smith",
-        submitterEmail: "bob@example.com",
-        productId: "P-102",
-        rating: 4,
-        comment: "Good value for money, but delivery was late.",
-        status: FEEDBACK_STATUS.APPROVED,
-        category: { id: 2, name: "Finance" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 3,
-        submitterName: "Clara White",
-        submitterEmail: "clara@example.com",
-        productId: "P-103",
-        rating: 2,
-        comment: "Not satisfied, item arrived broken.",
-        status: FEEDBACK_STATUS.REJECTED,
-        category: { id: 3, name: "Travel" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 4,
-        submitterName: "David Green",
-        submitterEmail: "david@example.com",
-        productId: "P-104",
-        rating: 3,
-        comment: "Average, could be improved.",
-        status: FEEDBACK_STATUS.PENDING,
-        category: { id: 4, name: "Academic" },
-        createdAt: yesterday.toISOString()
-      },
-      {
-        id: 5,
-        submitterName: "Dharanitharan",
-        submitterEmail: "dharaniitharan725@gmail.com",
-        productId: "P-01",
-        rating: 5,
-        comment: "Good value for money",
-        status: FEEDBACK_STATUS.PENDING,
-        category: { id: 4, name: "Academic" },
-        createdAt: today.toISOString()
-      }
-    ];
-
-    setFeedbackData(mockData);
-
-    // 🎯 Count status
-    const counts = {};
-    Object.values(FEEDBACK_STATUS).forEach(s => counts[s] = 0);
-    mockData.forEach(f => counts[f.status] = (counts[f.status] || 0) + 1);
-
-    // 🎯 Recent Activity
-    const recentActivity = mockData
-      .sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt))
-      .slice(0, 5);
-
-    // 🎯 Average Rating
-    const avgRating =
-      mockData.reduce((sum, f) => sum + (f.rating || 0), 0) / mockData.length;
-
-    setStats({
-      total: mockData.length,
-      pending: counts.PENDING || 0,
-      approved: counts.APPROVED || 0,
-      rejected: counts.REJECTED || 0,
-      recentActivity,
-      averageRating: avgRating.toFixed(2)
-    });
+  // One request: categories, the latest feedback page and the status / rating counts
+  const loadDashboardData = async () => {
+    try {
+      setError(null);
+      const { feedback, breakdown } = await getAdminDashboard({ size: 5 });
+      const recent = feedback?.content || [];
+      setFeedbackData(recent);
+
+      const byStatus = breakdown?.byStatus || {};
+      const byRating = breakdown?.byRating || {};
+      const total = breakdown?.total || 0;
+      const ratingSum = Object.entries(byRating)
+        .reduce((sum, [rating, count]) => sum + Number(rating) * count, 0);
+
+      setStats({
+        total,
+        pending: byStatus.PENDING || 0,
+        approved: byStatus.APPROVED || 0,
+        rejected: byStatus.REJECTED || 0,
+        flagged: byStatus.FLAGGED || 0,
+        recentActivity: recent,
+        averageRating: total ? (ratingSum / total).toFixed(2) : "0.00"
+      });
+    } catch (err) {
+      console.error("Failed to load admin dashboard:", err);
+      setError(err.message || "Failed to load dashboard");
+    }
   };
 
   const getStatusColor = (status) => {
@@ -136,7 +78,7 @@ export default function Dashboard() {
     value: stats[status.toLowerCase()] || 0
   }));
 
-  // 🎯 Feedback by Category chart
+  // 🎯 Recent feedback by Category chart
   const categoryCounts = feedbackData.reduce((acc, f) => {
     const key = (f.category && f.category.name) ? f.category.name : 'Uncategorized';
     acc[key] = (acc[key] || 0) + 1;
@@ -159,10 +101,12 @@ export default function Dashboard() {
       <div className="dashboard-header">
         <div className="header-content">
           <h1>Admin Dashboard</h1>
-          <p>Dumb Data Mode: Feedback Overview</p>
+          <p>Feedback Overview</p>
         </div>
       </div>
 
+      {error && <p style={{ color: "#FF6B6B", margin: "0 2rem" }}>{error}</p>}
+
       <div className="dashboard-content">
         {/* Stats */}
         <div className="stats-grid">
@@ -204,7 +148,7 @@ export default function Dashboard() {
           </div>
 
           <div className="chart-card">
-            <h3>Feedback by Category</h3>
+            <h3>Recent Feedback by Category</h3>
             <ResponsiveContainer width="100%" height={300}>
               <PieChart>
                 <Pie data={categoryData} dataKey="value" nameKey="name" outerRadius={80}
@@ -13,7 +13,8 @@ export default function UserDashboard() {
     total: 0,
     pending: 0,
     approved: 0,
-    rejected: 0
+    rejected: 0,
+    more: false
   });
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
@@ -74,7 +75,7 @@ export default function UserDashboard() {
       
       if (userRole === 'USER') {
         console.log('Fetching feedback for user:', userIdentifier);
-        const data = await getUserFeedback(userIdentifier);
+        const { items: data, more } = await getUserFeedback(userIdentifier);
         console.log('Received feedback data:', data);
         
         if (data && Array.isArray(data)) {
@@ -87,6 +88,7 @@ export default function UserDashboard() {
           // Calculate statistics from actual data
           const counts = {
             total: data.length,
+          more,
             pending: data.filter(f => f.status === 'PENDING').length,
             approved: data.filter(f => f.status === 'APPROVED').length,
             rejected: data.filter(f => f.status === 'REJECTED').length
@@ -151,7 +153,7 @@ export default function UserDashboard() {
       }
       
       console.log('Fetching feedback with manual email:', email);
-      const data = await getUserFeedback(email);
+      const { items: data, more } = await getUserFeedback(email);
       console.log('Received feedback data:', data);
       
       if (data && Array.isArray(data)) {
@@ -160,6 +162,7 @@ export default function UserDashboard() {
         // Calculate statistics from actual data
         const counts = {
           total: data.length,
+          more,
           pending: data.filter(f => f.status === 'PENDING').length,
           approved: data.filter(f => f.status === 'APPROVED').length,
           rejected: data.filter(f => f.status === 'REJECTED').length
@@ -332,7 +335,7 @@ export default function UserDashboard() {
           <div className="stat-card">
             <div className="stat-icon">📝</div>
             <div className="stat-content">
-              <h3>{stats.total}</h3>
+              <h3>{stats.total}{stats.more ? '+' : ''}</h3>
               <p>Total Feedback</p>
             </div>
           </div>
@@ -28,7 +28,7 @@ export default function UserFeedbackList() {
     setLoading(true);
     
     try {
-      const data = await getUserFeedback(userId.trim());
+      const { items: data } = await getUserFeedback(userId.trim());
       if (!data || data.length === 0) {
         setFeedbacks([]);
         setError('No feedback found for this user ID');
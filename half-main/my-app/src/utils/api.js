@@ -112,9 +112,8 @@ export const testAdminEndpoints = async () => {
     console.log("Testing admin endpoints...");
 
     const endpoints = [
+      `/api/v1/admin/dashboard?size=5`,
       `/api/v1/admin/feedback?page=0&size=5`,
-      `/api/v1/admin/categories/all`,
-      `/api/v1/admin/feedback/all`,
     ];
 
     for (const ep of endpoints) {
@@ -222,13 +221,43 @@ export const submitFeedback = async (feedback) => {
   return handleResponse(response);
 };
 
-export const getUserFeedback = async (userId) => {
-  const response = await fetch(`${API_BASE_URL}/api/feedback/user/${userId}`, {
-    headers: { "Content-Type": "application/json" },
-  });
+// One keyset page of a user's feedback summaries, newest first: { items, next }.
+// Pass the previous page's `next` as `before`; it is null on the last page.
+export const getUserHistory = async (userId, { before, size = 20 } = {}) => {
+  const params = new URLSearchParams();
+  params.append("size", size);
+  if (before) params.append("before", before);
+  const response = await fetch(
+    `${API_BASE_URL}/api/feedback/user/${encodeURIComponent(userId)}/history?${params.toString()}`,
+    { headers: { "Content-Type": "application/json" } }
+  );
   return handleResponse(response);
 };
 
+// The user's newest `limit` feedback items, walked page by page over /history; `more` is true when older
+// feedback remains. Summaries carry the comment preview and a flattened category.
+export const getUserFeedback = async (userId, limit = 200) => {
+  const items = [];
+  let before = null;
+  do {
+    const page = await getUserHistory(userId, {
+      before,
+      size: Math.min(100, limit - items.length),
+    });
+    items.push(...page.items);
+    before = page.next;
+  } while (before && items.length < limit);
+
+  return {
+    items: items.map((s) => ({
+      ...s,
+      comment: s.commentPreview,
+      category: s.categoryId == null ? null : { id: s.categoryId, name: s.categoryName },
+    })),
+    more: Boolean(before),
+  };
+};
+
 export const searchAdminFeedback = async ({
   page = 0,
   size = 10,
@@ -260,11 +289,24 @@ export const searchAdminFeedback = async ({
   return handleResponse(response);
 };
 
-export const getAllFeedback = async () => {
+// Categories, the first feedback page and the per-status / per-rating counts in one round trip:
+// { categories, feedback: { content, totalElements, ... }, breakdown: { byStatus, byRating, total } }
+export const getAdminDashboard = async ({
+  size = 10,
+  sortBy = "createdAt",
+  sortOrder = "desc",
+} = {}) => {
   verifyAdminAuth();
-  const response = await fetch(`${API_BASE_URL}/api/v1/admin/feedback/all`, {
-    headers: authHeaders(),
-  });
+
+  const params = new URLSearchParams();
+  params.append("size", size);
+  if (sortBy) params.append("sortBy", sortBy);
+  if (sortOrder) params.append("sortOrder", sortOrder);
+
+  const response = await fetch(
+    `${API_BASE_URL}/api/v1/admin/dashboard?${params.toString()}`,
+    { headers: authHeaders() }
+  );
   return handleResponse(response);
 };
 
@@ -4,6 +4,7 @@ export const FEEDBACK_STATUS = {
   PENDING: "PENDING",
   APPROVED: "APPROVED",
   REJECTED: "REJECTED",
+  FLAGGED: "FLAGGED",
 };
 
 export const FEEDBACK_CATEGORIES = [